@@ -5,10 +5,17 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -16,12 +23,11 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.ProgressIndicator;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.control.Separator;
 import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
@@ -34,9 +40,20 @@ import launcher.handlers.VersionHandler;
 import loggingtool.LoggingTool;
 import settingstool.Settings;
 import settingstool.SettingsTool;
+import tasks.DownloadScheduler;
 import tasks.ProgressTask;
 import tasks.UpdateTask;
 import util.AppDisplayArea;
+import util.AppListCell;
+import util.LauncherExecutors;
+import util.LauncherPreferences;
+import util.UiUpdateBus;
+import util.catalog.Catalog;
+import util.catalog.CatalogEntry;
+import util.catalog.CatalogSnapshot;
+import util.catalog.VersionLookup;
+import util.icons.IconService;
+import util.network.HttpCache;
 
 /**
  * The Launcher for the CashAssets Application. This will check for an Update for the 
@@ -76,6 +93,12 @@ public class GastroToolsLauncher extends Application {
    */
   private ArrayList<String> names;
   
+  /**
+   * The Catalog of all published Applications. If it contains the Version of an Application, its 
+   * UpdateTask doesn't have to request the Version File of the Repository.
+   */
+  private Catalog catalog = Catalog.EMPTY;
+  
   /**
    * The current path, this Application is working on. Depending on whether the Launcher was 
    * started manually or by the Updater, this is either "some/dir/path/app" or "some/dir/path". 
@@ -96,6 +119,12 @@ public class GastroToolsLauncher extends Application {
    */
   private SettingsTool settings;
   
+  /**
+   * The Preferences of the Launcher, that aren't part of the Settings, like the Bandwidth Limit 
+   * of the Downloads.
+   */
+  private LauncherPreferences preferences;
+  
   /**
    * All {@link AppDisplayArea}s, that were added to the Launcher.
    */
@@ -107,10 +136,43 @@ public class GastroToolsLauncher extends Application {
    */
   private int progressIteration = 0;
   
+  /**
+   * The ProgressTask of the current try to connect to the Server. It's cancelled, when the 
+   * Launcher is closed.
+   */
+  private ProgressTask progressTask;
+  
+  /**
+   * The Snapshot of the last fetched Catalog and the last Status of each Application. If it isn't 
+   * empty, the Launcher is built from it at once, while the List is fetched in the Background.
+   */
+  private CatalogSnapshot snapshot;
+  
+  /**
+   * Determines, if the displayed Launcher was built from the {@link #snapshot} and the List is 
+   * still fetched in the Background.
+   */
+  private boolean revalidating;
+  
+  /**
+   * The MenuBar of the Launcher. It's created, when the Launcher is built for the first Time, and 
+   * reused afterwards.
+   */
+  private MenuBar menuBar;
+  
+  /**
+   * The Lookups of the Versions of all Applications mapped to the Names of their Repositories.
+   */
+  private final Map<String, CompletableFuture<CatalogEntry>> lookups = 
+      new ConcurrentHashMap<String, CompletableFuture<CatalogEntry>>();
+  
   @Override
   public void start(Stage primary) throws Exception {
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version used: " + version);
     settings = new SettingsTool();
+    preferences = new LauncherPreferences();
+    preferences.applyBandwidth();
+    preferences.applyExecution();
     
     /*
      * Adds the Icon to the Stage, so it can be displayed in the TaskBar.
@@ -126,6 +188,14 @@ public class GastroToolsLauncher extends Application {
     path = Paths.get("").toAbsolutePath().toString();
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Writing version...");
     writeVersion();
+    /*
+     * The Files requested at every Start are cached in the app-Folder, so they only have to be 
+     * downloaded again, if they were modified.
+     */
+    HttpCache.setDirectory(new File(path, ".cache" + File.separator + "http"));
+    IconService.setDirectory(new File(path, ".cache" + File.separator + "icons"));
+    snapshot = CatalogSnapshot.read(new File(path, ".cache" + File.separator 
+        + "catalog.snapshot"));
     bp = new BorderPane();
     /*
      * Sets the Size of the Scene, it's restrictions and the Stylesheet. Afterwards, it displays 
@@ -138,6 +208,26 @@ public class GastroToolsLauncher extends Application {
     primaryStage.setMinHeight(270);
     primaryStage.setMinWidth(350);
     primaryStage.show();
+    /*
+     * If the List was fetched before, the Launcher is built from the Snapshot of the List, so the 
+     * Applications can be started at once. The List is fetched in the Background afterwards.
+     */
+    if (!snapshot.isEmpty()) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Building the Launcher from the "
+          + "Snapshot of " + new Date(snapshot.getFetched()));
+      revalidating = true;
+      Catalog shown = snapshot.getCatalog();
+      ArrayList<String> shownRepos = new ArrayList<String>();
+      ArrayList<String> shownNames = new ArrayList<String>();
+      for (CatalogEntry entry : shown.getEntries()) {
+        shownRepos.add(entry.getRepo());
+        shownNames.add(entry.getName());
+      }
+      setRepos(shownRepos);
+      setNames(shownNames);
+      setCatalog(shown);
+      buildAreas(true, false);
+    }
     /*
      * Starts the Checking for the List Task.
      */
@@ -145,6 +235,31 @@ public class GastroToolsLauncher extends Application {
     startCheckingTask();
   }
   
+  /**
+   * Cancels all running Tasks, when the Launcher is closed. Cancelling a Task aborts its running 
+   * Requests, so no Thread stays blocked on a Connection after the Window was closed.
+
+   * @since 1.0
+   */
+  @Override
+  public void stop() {
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Closing the Launcher...");
+    if (progressTask != null) {
+      progressTask.cancel();
+    }
+    DownloadScheduler.get().cancelAll();
+    IconService.shutdown();
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "UI Updates: published " 
+        + UiUpdateBus.getPublished() + ", coalesced " + UiUpdateBus.getCoalesced() 
+        + ", applied " + UiUpdateBus.getApplied());
+    /*
+     * Writes pending Changes of the Snapshot, since the scheduled Write won't happen anymore.
+     */
+    if (snapshot != null) {
+      snapshot.write();
+    }
+  }
+  
   /**
    * Writes the version into a new TextFile in the current working directory indicated by 
    * {@link #path}. Also sets {@link #path} to be working in the /app/ Folder of the current 
@@ -208,6 +323,14 @@ public class GastroToolsLauncher extends Application {
         "Failed to update the List of Applications");
     LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
         "Failed to update the List of Applications");
+    /*
+     * If the Launcher was built from the Snapshot, it stays usable and only shows, that the 
+     * Applications couldn't be checked.
+     */
+    if (revalidating) {
+      showOffline();
+      return;
+    }
     Platform.runLater(new Runnable() {
       @Override
       public void run() {
@@ -270,7 +393,44 @@ public class GastroToolsLauncher extends Application {
   }  
   
   /**
-   * Starts the Task, that will check for the List of Applications in the Repository.
+   * Informs the User in each Area of the Launcher, that was built from the Snapshot, that the 
+   * List couldn't be fetched. Clicking on the Message of an Area tries to fetch the List again, 
+   * unless a Try is still running.
+
+   * @since 1.0
+   */
+  private void showOffline() {
+    String date = new SimpleDateFormat("dd.MM.yyyy HH:mm").format(new Date(snapshot.getFetched()));
+    Platform.runLater(new Runnable() {
+      @Override
+      public void run() {
+        if (displayAreas == null) {
+          return;
+        }
+        for (AppDisplayArea area : displayAreas.values()) {
+          area.updateMessage("Offline (Stand " + date + "). Hier klicken fr Neuversuch.");
+          area.setOnMessageClicked(event -> {
+            /*
+             * Only one Try runs at a time, so further Clicks are ignored, until it finished.
+             */
+            if (progressTask != null && !progressTask.isDone()) {
+              LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+                  "The List is already being updated, ignoring the Retry.");
+              return;
+            }
+            LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+                "Retrying to update the List in the Background...");
+            startCheckingTask();
+          });
+        }
+      }
+    });
+  }
+  
+  /**
+   * Starts the Task, that will check for the List of Applications in the Repository. If the 
+   * Launcher was built from the Snapshot, the Task runs in the Background without replacing the 
+   * displayed Launcher.
 
    * @since 1.0
    * @see ProgressTask
@@ -282,8 +442,10 @@ public class GastroToolsLauncher extends Application {
      */
     ProgressIndicator pi = new ProgressIndicator();
     updatesLabel = new Label();
-    bp.setBottom(this.updatesLabel);
-    bp.setCenter(pi);
+    if (!revalidating) {
+      bp.setBottom(this.updatesLabel);
+      bp.setCenter(pi);
+    }
 
     /*
      * Increases the ProgressIteration, since the next iteration of the ProgressTask is about to 
@@ -291,13 +453,14 @@ public class GastroToolsLauncher extends Application {
      */
     progressIteration++;
     /*
-     * Creates a new ProgressTask, binds it to the Indicator and starts a new Thread for the Task.
+     * Creates a new ProgressTask, binds it to the Indicator and runs it with the shared Workers.
      */
     ProgressTask pt = new ProgressTask(this.updatesLabel, this, progressIteration, settings);
+    progressTask = pt;
     pi.progressProperty().bind(pt.progressProperty());
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-        "Starting ProgressTask as a new Thread...");
-    new Thread(pt).start();
+        "Starting ProgressTask with the shared Workers...");
+    LauncherExecutors.workers().execute(pt);
   }
   
   /**
@@ -321,6 +484,57 @@ public class GastroToolsLauncher extends Application {
    * @see ProgressTask
    */
   public void buildLauncher(boolean connection) {
+    /*
+     * A fetched List replaces the Catalog of the Snapshot. If the Launcher was built from the 
+     * Snapshot and the List didn't change, the displayed Areas are kept and only checked for 
+     * Updates.
+     */
+    if (connection) {
+      Catalog shown = snapshot.getCatalog();
+      snapshot.setCatalog(catalog);
+      if (revalidating) {
+        revalidating = false;
+        if (shown.hasSameApplications(catalog)) {
+          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+              "List didn't change since the Snapshot, checking the displayed Areas for Updates");
+          Platform.runLater(() -> {
+            for (int i = 0; i < repos.size(); i++) {
+              AppDisplayArea area = displayAreas.get(names.get(i));
+              area.setOnMessageClicked(null);
+              area.setPathToIcon(iconUrl(repos.get(i)));
+              area.switchDownloadButton(false);
+            }
+            startCheckUpdateTasks();
+          });
+          return;
+        }
+      }
+    }
+    buildAreas(connection, true);
+  }
+  
+  /**
+   * Returns the URL of the Icon of the given Repository.
+
+   * @param repo  The Name of the Repository.
+   * @return  The URL of the Icon.
+   * @since 1.0
+   */
+  private static String iconUrl(String repo) {
+    return "https://github.com/Haeldeus/" + repo + "/raw/main/" + repo + "/src/res/Icon.png";
+  }
+  
+  /**
+   * Builds the Areas of all Applications. See {@link #buildLauncher(boolean)} for further 
+   * Information.
+
+   * @param connection  Boolean value if a connection could be established.
+   * @param check {@code true}, if the Applications are checked for Updates at once, 
+   *      {@code false}, if the Areas are built from the Snapshot, so the last Status of each 
+   *      Application is shown and no Icons are requested until the List was fetched.
+   * @since 1.0
+   */
+  private void buildAreas(boolean connection, boolean check) {
     /*
      * Creates a new Runnable, to alter the Content of the Scene.
      */
@@ -343,11 +557,9 @@ public class GastroToolsLauncher extends Application {
          */
         displayAreas = new HashMap<String, AppDisplayArea>();
         /*
-         * Creates a GridPane, that will contain all DisplayAreas.
+         * Creates a List, that will contain all DisplayAreas in the Order, they are displayed.
          */
-        GridPane grid = new GridPane();
-        grid.setPadding(new Insets(5, 5, 5, 5));
-        grid.setVgap(20);
+        ObservableList<AppDisplayArea> areas = FXCollections.observableArrayList();
         /*
          * Depending on whether a Connection was established, this Launcher has to fill the 
          * AppDisplayAreas differently, so this check is required.
@@ -408,18 +620,21 @@ public class GastroToolsLauncher extends Application {
             /*
              * Adds an Icon to the AppDisplayArea.
              */
-            area.setPathToIcon("https://github.com/Haeldeus/" + repos.get(i) + "/raw/main/" 
-                + repos.get(i) + "/src/res/Icon.png");
+            area.setPathToIcon(check ? iconUrl(repos.get(i)) : null);
             LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
                 "Set Path to logo to " + area.getPathToIcon());
             /*
-             * Adds the created Area to the Grid and enables/disables the buttons accordingly.
+             * Adds the created Area to the List and enables/disables the buttons accordingly.
+             */
+            areas.add(area);
+            area.switchButtons(startDisable, !check, false);
+            /*
+             * Shows the last Status of the Application, until it was checked for Updates again.
              */
-            grid.add(area.createDisplayArea(), 0, 2 * i);
-            if (i < names.size()) {
-              grid.add(new Separator(), 0, (2 * i) + 1);
+            if (!check) {
+              String status = snapshot.getStatus(repos.get(i));
+              area.updateMessage(status == null ? "Suche nach Updates..." : "Zuletzt: " + status);
             }
-            area.switchButtons(startDisable, false, false);
             /*
              * Adds the created area to the List of Areas.
              */
@@ -429,9 +644,11 @@ public class GastroToolsLauncher extends Application {
           /*
            * Starts the Task to check for Updates for all Areas.
            */
-          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-              "Starts to check for Updates for all Repositories...");
-          startCheckUpdateTasks();
+          if (check) {
+            LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+                "Starts to check for Updates for all Repositories...");
+            startCheckUpdateTasks();
+          }
         } else {
           LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
               "No Connection was established, building Launcher accordingly");
@@ -460,21 +677,25 @@ public class GastroToolsLauncher extends Application {
               LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
                   "Set path to " + area.getPath() + ".jar");
             }
-            area.setPathToIcon("/res/Default.png");
+            area.setPathToIcon(IconService.PLACEHOLDER);
             LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
                 "Set pathToIcon to default icon");
-            grid.add(area.createDisplayArea(), 0, i);
+            areas.add(area);
             area.switchButtons(startDisable, true, false);
             displayAreas.put(area.getName(), area);
           }
         }
         /*
-         * Creates a ScrollPane, which enables scrolling through all DisplayAreas.
+         * Creates a ListView, which enables scrolling through all DisplayAreas. Only the visible 
+         * Areas are displayed by Cells, that are reused while scrolling.
          */
-        ScrollPane sp = new ScrollPane();
-        sp.setContent(grid);
-        bp.setCenter(sp);
-        bp.setTop(createMenuBar());
+        ListView<AppDisplayArea> list = new ListView<AppDisplayArea>(areas);
+        list.setCellFactory(view -> new AppListCell());
+        bp.setCenter(list);
+        if (menuBar == null) {
+          menuBar = createMenuBar();
+        }
+        bp.setTop(menuBar);
         bp.setPadding(new Insets(0, 10, 10, 10));
       }     
     });
@@ -495,7 +716,8 @@ public class GastroToolsLauncher extends Application {
      * Creates the Item for the Settings Menu, where the Settings can be edited.
      */
     MenuItem settingsItem = new MenuItem("Bearbeiten...");
-    settingsItem.setOnAction(new GeneralSettingsHandler(this.settings, primaryStage));
+    settingsItem.setOnAction(new GeneralSettingsHandler(this.settings, this.preferences, 
+        primaryStage));
     settingsItem.setAccelerator(new KeyCodeCombination(KeyCode.S, KeyCombination.CONTROL_DOWN, 
         KeyCombination.SHIFT_DOWN));
     /*
@@ -571,6 +793,7 @@ public class GastroToolsLauncher extends Application {
         task = new UpdateTask(repos.get(i), names.get(i), 
             displayAreas.get(names.get(i)), path, i, this, true);
       }
+      recordStatus(task, repos.get(i));
       /*
        * Binds the ProgressBar of the DisplayArea to the UpdateTask.
        */
@@ -578,22 +801,13 @@ public class GastroToolsLauncher extends Application {
           "Binding ProgressBar to the UpdateTask...");
       area.bindProgressBar(task);
       /*
-       * Starts the Task. Also starts a second Thread to interrupt the Task after a given amount 
-       * of time.
+       * Runs the Task with the shared Workers, as soon as the Versions of the Application were 
+       * looked up. It will be cancelled, if it didn't finish within the given amount of time.
        */
       int timeout = area.getIteration() * Integer.parseInt(settings.getValue(Settings.timeout));
       LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-          "Starting UpdateTask with an InterruptTask. Timeout is: " + timeout + "ms");
-      new Thread(task).start();
-      new Thread(() -> {
-        try {
-          Thread.sleep(timeout);  
-        } catch (InterruptedException e) {
-          //Testing Purposes, shouldn't be called.
-          e.printStackTrace();
-        }
-        task.cancel();
-      }).start();
+          "Submitting UpdateTask with a Deadline. Timeout is: " + timeout + "ms");
+      submitAfterLookup(task, repos.get(i), timeout);
     }
   }
 
@@ -640,6 +854,7 @@ public class GastroToolsLauncher extends Application {
         task = new UpdateTask(repos.get(index), names.get(index), 
             displayAreas.get(names.get(index)), path, index, this, true);
       }
+      recordStatus(task, repos.get(index));
       /*
        * Binds the ProgressBar to this Task.
        */
@@ -648,24 +863,82 @@ public class GastroToolsLauncher extends Application {
       displayAreas.get(names.get(index)).bindProgressBar(task);
       
       /*
-       * Starts the Task with a Thread to Interrupt this Task after a certain amount of time.
+       * Runs the Task with the shared Workers, as soon as the Versions of the Application were 
+       * looked up. It will be cancelled, if it didn't finish within the given amount of time.
        */
       int timeout = area.getIteration() * Integer.parseInt(settings.getValue(Settings.timeout));
       LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-          "Starting UpdateTask with an InterruptTask. Timeout is: " + timeout + "ms");
-      new Thread(task).start();
-      new Thread(() -> {
-        try {
-          Thread.sleep(timeout);  
-        } catch (InterruptedException e) {
-          //Testing Purposes, shouldn't be called.
-          e.printStackTrace();
-        }
-        task.cancel();
-      }).start();
+          "Submitting UpdateTask with a Deadline. Timeout is: " + timeout + "ms");
+      submitAfterLookup(task, repos.get(index), timeout);
     }
   }
   
+  /**
+   * Starts the Lookup of the Versions of the given Application. This is called by the 
+   * CheckerTask, as soon as the Line of the Application was read, so the Lookup runs, while the 
+   * rest of the List is read and the Launcher is built.
+
+   * @param entry The Entry of the Application in the Catalog.
+   * @since 1.0
+   */
+  public void lookupVersions(CatalogEntry entry) {
+    lookups.put(entry.getRepo(), VersionLookup.lookup(entry));
+  }
+  
+  /**
+   * Returns the Lookup of the Versions of the given Repository. A failed Lookup is started 
+   * again.
+
+   * @param repo  The Name of the Repository.
+   * @return  The Future of the Entry with the published Versions. It's completed with 
+   *      {@code null}, if the Repository isn't in the Catalog.
+   * @since 1.0
+   */
+  private CompletableFuture<CatalogEntry> versionsOf(String repo) {
+    return lookups.compute(repo, (key, lookup) -> {
+      if (lookup != null && !lookup.isCompletedExceptionally()) {
+        return lookup;
+      }
+      CatalogEntry entry = catalog.get(key);
+      return entry == null ? CompletableFuture.completedFuture(null) 
+          : VersionLookup.lookup(entry);
+    });
+  }
+  
+  /**
+   * Submits the given UpdateTask, as soon as the Versions of its Repository were looked up. If 
+   * the Lookup failed, the Task requests the Version File itself and informs the User about the 
+   * Error.
+
+   * @param task  The UpdateTask to be submitted.
+   * @param repo  The Name of the Repository.
+   * @param timeout The Time limit of the Task in milliseconds.
+   * @since 1.0
+   */
+  private void submitAfterLookup(UpdateTask task, String repo, int timeout) {
+    versionsOf(repo).whenComplete((entry, error) -> {
+      task.setPublished(error == null ? entry : catalog.get(repo));
+      LauncherExecutors.submit(task, timeout);
+    });
+  }
+  
+  /**
+   * Records the Status, the given UpdateTask returned, in the Snapshot, when it finished its 
+   * Check, so it can be shown at the next Start. Messages of failed Checks aren't recorded. The 
+   * Status is taken from the Task, since the Message of the Area is updated asynchronously.
+
+   * @param task  The UpdateTask of the Area.
+   * @param repo  The Name of the Repository.
+   * @since 1.0
+   */
+  private void recordStatus(UpdateTask task, String repo) {
+    task.setOnSucceeded(event -> {
+      if (task.getProgress() >= 1 && task.getValue() != null) {
+        snapshot.setStatus(repo, task.getValue());
+      }
+    });
+  }
+  
   /**
    * Starts the Launcher without updating/checking the List of published Applications. This will 
    * add installed Folders and .jar-Files to the Launcher, which can then be started.
@@ -794,6 +1067,16 @@ public class GastroToolsLauncher extends Application {
     this.names = names;
   }
   
+  /**
+   * Sets {@link #catalog} to the given Catalog.
+
+   * @param catalog The Catalog of all published Applications.
+   * @since 1.0
+   */
+  public void setCatalog(Catalog catalog) {
+    this.catalog = catalog;
+  }
+  
   /**
    * The Main Method for this Application. This will start the Launcher.
 
@@ -11,6 +11,7 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
@@ -20,6 +21,8 @@ import javafx.stage.StageStyle;
 import loggingtool.LoggingTool;
 import settingstool.Settings;
 import settingstool.SettingsTool;
+import util.LauncherPreferences;
+import util.download.BandwidthGovernor;
 
 /**
  * The Handler for the Settings MenuItem in the MenuBar of the Launcher.
@@ -40,25 +43,88 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
    */
   private SettingsTool settings;
   
+  /**
+   * The Preferences of this Launcher, that aren't part of the Settings.
+   */
+  private LauncherPreferences preferences;
+  
+  /**
+   * The Settings Dialog. It's created, when the Settings are edited for the first Time, and 
+   * reused afterwards.
+   */
+  private Stage dialog;
+  
+  /**
+   * The CheckBox for the Nightmode Setting.
+   */
+  private CheckBox cbNightmode;
+  
+  /**
+   * The TextField for the Timeout Setting.
+   */
+  private TextField tfTimeout;
+  
+  /**
+   * The TextField for the Bandwidth Limit.
+   */
+  private TextField tfBandwidth;
+  
+  /**
+   * The TextField for the Bandwidth Profiles.
+   */
+  private TextField tfProfiles;
+  
+  /**
+   * The CheckBox for the Virtual Threads Preference.
+   */
+  private CheckBox cbVirtual;
+  
   /**
    * The Constructor for this Handler. Sets all Fields to the given Parameters.
 
    * @param settings  The SettingsTool for this Launcher.
+   * @param preferences The Preferences of this Launcher.
    * @param primary The primaryStage, this Handler was created by.
    * @since 1.0
    */
-  public GeneralSettingsHandler(SettingsTool settings, Stage primary) {
+  public GeneralSettingsHandler(SettingsTool settings, LauncherPreferences preferences, 
+      Stage primary) {
     this.primaryStage = primary;
     this.settings = settings;
+    this.preferences = preferences;
   }
   
   @Override
   public void handle(ActionEvent event) {
+    if (dialog == null) {
+      createDialog();
+    }
+    /*
+     * Fills the Dialog with the current Values, since they might have changed since the Dialog 
+     * was displayed last.
+     */
+    cbNightmode.setSelected(settings.getValue(Settings.nightmode).equals("1"));
+    tfTimeout.setText(settings.getValue(Settings.timeout));
+    tfBandwidth.setText(preferences.getValue(LauncherPreferences.BANDWIDTH_LIMIT));
+    tfProfiles.setText(preferences.getValue(LauncherPreferences.BANDWIDTH_PROFILES));
+    cbVirtual.setSelected(Boolean.parseBoolean(
+        preferences.getValue(LauncherPreferences.VIRTUAL_THREADS)));
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Displaying the Settings Dialog!");
+    dialog.show();
+  }
+  
+  /**
+   * Creates the Settings Dialog. The Values of the Settings are filled in by 
+   * {@link #handle(ActionEvent)}, each time the Dialog is displayed.
+
+   * @since 1.0
+   */
+  private void createDialog() {
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Creates the Settings Dialog...");
     /*
      * Creates a new Stage to display the Settings Scene.
      */
-    final Stage dialog = new Stage();
+    dialog = new Stage();
     dialog.initOwner(primaryStage);
     dialog.initStyle(StageStyle.UNDECORATED);
     dialog.initModality(Modality.APPLICATION_MODAL);
@@ -93,8 +159,7 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
     /*
      * Creates the CheckBox for the Nightmode Setting.
      */
-    CheckBox cbNightmode = new CheckBox();
-    cbNightmode.setSelected(settings.getValue(Settings.nightmode).equals("1"));
+    cbNightmode = new CheckBox();
     grid.add(cbNightmode, 1, 3);
     
     /*
@@ -106,7 +171,7 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
     /*
      * Creates the TextField for the Timeout Setting.
      */
-    TextField tfTimeout = new TextField(settings.getValue(Settings.timeout));
+    tfTimeout = new TextField();
     tfTimeout.textProperty().addListener(new ChangeListener<String>() {
       @Override
       public void changed(ObservableValue<? extends String> observable, String oldValue, 
@@ -116,6 +181,67 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
     });
     grid.add(tfTimeout, 1, 4);
     
+    /*
+     * Creates a Label, that will describe the Bandwidth Limit to the User.
+     */
+    Label bandwidth = new Label("Bandbreite (kB/s):");
+    bandwidth.setTooltip(new Tooltip("Die maximale Geschwindigkeit aller Downloads zusammen. "
+        + "0 bedeutet keine Beschrnkung."));
+    grid.add(bandwidth, 0, 5);
+    
+    /*
+     * Creates the TextField for the Bandwidth Limit.
+     */
+    tfBandwidth = new TextField();
+    tfBandwidth.textProperty().addListener(new ChangeListener<String>() {
+      @Override
+      public void changed(ObservableValue<? extends String> observable, String oldValue, 
+          String newValue) {
+        tfBandwidth.setText(newValue.replaceAll("\\D", ""));
+      }
+    });
+    grid.add(tfBandwidth, 1, 5);
+    
+    /*
+     * Creates a Label, that will describe the Bandwidth Profiles to the User.
+     */
+    Label profiles = new Label("Zeitprofile:");
+    profiles.setTooltip(new Tooltip("Abweichende Bandbreiten zu bestimmten Uhrzeiten, getrennt "
+        + "durch Semikolons. Beispiel: 22:00-06:00=0;12:00-14:00=200"));
+    grid.add(profiles, 0, 6);
+    
+    /*
+     * Creates the TextField for the Bandwidth Profiles. Invalid Profiles are marked, while they 
+     * are typed.
+     */
+    tfProfiles = new TextField();
+    tfProfiles.textProperty().addListener(new ChangeListener<String>() {
+      @Override
+      public void changed(ObservableValue<? extends String> observable, String oldValue, 
+          String newValue) {
+        if (BandwidthGovernor.isValid(newValue)) {
+          tfProfiles.setStyle(null);
+        } else {
+          tfProfiles.setStyle("-fx-text-fill: red;");
+        }
+      }
+    });
+    grid.add(tfProfiles, 1, 6);
+    
+    /*
+     * Creates a Label, that will describe the Virtual Threads Preference to the User.
+     */
+    Label virtual = new Label("Virtuelle Threads:");
+    virtual.setTooltip(new Tooltip("Prft alle Anwendungen gleichzeitig. Bentigt Java 21 "
+        + "oder neuer, sonst wird diese Einstellung ignoriert."));
+    grid.add(virtual, 0, 7);
+    
+    /*
+     * Creates the CheckBox for the Virtual Threads Preference.
+     */
+    cbVirtual = new CheckBox();
+    grid.add(cbVirtual, 1, 7);
+    
     /*
      * Creates a Save Button to save the settings.
      */
@@ -140,10 +266,24 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
                 + map.get(Settings.nightmode) + "; " + Settings.timeout.toString() + "-" 
                 + map.get(Settings.timeout));
         settings.setValues(map);
+        /*
+         * Saves the Bandwidth Preferences and applies them to all running Downloads. Invalid 
+         * Profiles aren't saved. The Preference for Virtual Threads applies to all further Tasks.
+         */
+        HashMap<String, String> prefs = new HashMap<String, String>();
+        prefs.put(LauncherPreferences.BANDWIDTH_LIMIT, 
+            tfBandwidth.getText().isEmpty() ? "0" : tfBandwidth.getText());
+        if (BandwidthGovernor.isValid(tfProfiles.getText())) {
+          prefs.put(LauncherPreferences.BANDWIDTH_PROFILES, tfProfiles.getText().trim());
+        }
+        prefs.put(LauncherPreferences.VIRTUAL_THREADS, String.valueOf(cbVirtual.isSelected()));
+        preferences.setValues(prefs);
+        preferences.applyBandwidth();
+        preferences.applyExecution();
         dialog.close();
       }
     });
-    grid.add(btSave, 0, 6);
+    grid.add(btSave, 0, 8);
     
     /*
      * Creates a Cancel Button to cancel the editing of the Settings.
@@ -162,7 +302,7 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
         dialog.close();
       }
     });
-    grid.add(btCancel, 1, 6);
+    grid.add(btCancel, 1, 8);
     
     /*
      * Adds a ScrollPane to ensure, that the Grid can be scrolled through, in case more 
@@ -177,8 +317,7 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
     BorderPane bp = new BorderPane();
     bp.setTop(sp);
     /*
-     * Basic Stage Settings, which control the Stage and it's Dimension. Also, displays 
-     * the Stage to the User.
+     * Basic Stage Settings, which control the Stage and it's Dimension.
      */
     Scene dialogScene = new Scene(bp);
     dialogScene.getStylesheets().add("controlStyle1.css");
@@ -186,8 +325,6 @@ public class GeneralSettingsHandler implements EventHandler<ActionEvent> {
     dialog.setMaxHeight(500);
     dialog.setMaxWidth(200);
     dialog.setResizable(false);
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Displaying the Settings Dialog!");
-    dialog.show();
   }
 
 }
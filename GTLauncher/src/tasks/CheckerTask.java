@@ -1,18 +1,16 @@
 package tasks;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.net.URLConnection;
-import java.nio.charset.StandardCharsets;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
-import java.util.StringTokenizer;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import launcher.GastroToolsLauncher;
 import loggingtool.LoggingTool;
+import util.catalog.Catalog;
+import util.catalog.CatalogEntry;
+import util.network.Deadlines;
+import util.network.ManifestTokenizer;
 
 /**
  * The Task, which Objects will check for the Repositories and their Names, that were added to the 
@@ -23,6 +21,21 @@ import loggingtool.LoggingTool;
  */
 public class CheckerTask extends Task<Void> {
 
+  /**
+   * The Repository of the Launcher, that contains the List of all Applications.
+   */
+  private static final String LIST_REPO = "CashAssetsLauncher";
+
+  /**
+   * The Block of the List, that contains the Catalog of all Applications and their Versions.
+   */
+  private static final String CATALOG_BLOCK = "Catalog File";
+
+  /**
+   * The Block of the List, that only contains the Names of all Applications.
+   */
+  private static final String LIST_BLOCK = "List File";
+
   /**
    * The ProgressTask, which started this Task. This is used to update the UI via 
    * {@link ProgressTask#updateIndicator(int, String)}.
@@ -59,29 +72,26 @@ public class CheckerTask extends Task<Void> {
   @Override
   protected Void call() throws Exception {
     /*
-     * Creates needed Variables. The URL is used to connect to the List and the Reader is used to 
-     * read from the URL. The Index is used to differ between possible Exception causes.
+     * Creates needed Variables. The Tokenizer is used to read the List from the Repository. The 
+     * Index is used to differ between possible Exception causes.
      */
-    URL url;
-    BufferedReader br;
+    ManifestTokenizer tokens;
     int counter = 0;
     try {
-      url = new URL("https://github.com/Haeldeus/CashAssetsLauncher/blob/master/List.txt");
-      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "URL set to: " + url);
-      counter++;
-      // Get the input stream through URL Connection
-      URLConnection con = url.openConnection();
-      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Connection established.");
-      counter++;
-      con.connect();
       LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-          "Communication to the Server established.");
+          "Requesting List.txt of " + LIST_REPO);
       counter++;
       /*
-       * Fetches the InputStream from the Connection and sets the Reader to read from this Stream.
+       * Fetches the List through the HttpCache, which only downloads it, if it was modified since 
+       * the last Start. The Catalog contains the Versions of all Applications as well and is read 
+       * instead of the List, if it was published. Closing the Tokenizer returns the Connection to 
+       * the HttpService.
        */
-      InputStream is = con.getInputStream();
-      br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+      tokens = ManifestTokenizer.fetch(LIST_REPO, "List.txt", Deadlines.METADATA, 
+          this::isCancelled, CATALOG_BLOCK, LIST_BLOCK);
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "Communication to the Server established.");
+      counter++;
       /*
        * Updates the User via the Indicator and the given Text.
        */
@@ -119,191 +129,139 @@ public class CheckerTask extends Task<Void> {
         LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), "Server didn't respond!");
       }
       /*
-       * Creates a new Reader with null as InputStream to prevent Compiler Errors. Returns null 
-       * afterwards to stop the execution of this Task.
+       * Returns null to stop the execution of this Task.
        */
-      br = new BufferedReader(null);
       return null;
     }
     /*
-     * Creates an empty String to store all Repository's Names. After successfully completing the 
-     * Task this String will contain all Names (clear Names and "true" names) of all Repositories 
-     * added to the Launcher, each one separated from the others with a Line Separator.
+     * Creates an empty List to store the Entries of all Applications. After successfully 
+     * completing the Task this List will contain the Entries of all Repositories added to the 
+     * Launcher, one Entry for each Line of the List.
      */
-    String s = "";
+    ArrayList<CatalogEntry> entries = new ArrayList<CatalogEntry>();
     
     /*
-     * A String, that saves the line, that was last read. Will be updated after each br.readLine().
+     * A String, that saves the line, that was last read. Will be updated after each 
+     * tokens.next().
      */
     String line = null;
     
     /*
-     * A boolean to determine, if the current part of the InputStream contains 
-     * information about the List of Repositories.
-     */
-    boolean list = false;
-    
-    /*
-     * Go through each line of the InputStream to search for the List of Repositories.
+     * Go through each line of the List of Repositories. The Tokenizer stops reading at the End of 
+     * the List.
      */
     try {
-      while ((line = br.readLine()) != null) {
+      if (tokens.begin()) {
+        prt.updateIndicator(++index, "Liste der Anwendungen gefunden!");
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+            "List of Applications found in the " + tokens.getBlock() + " Block");
+      }
+      while ((line = tokens.next()) != null) {
         /*
          * Checks, if the Process was cancelled. If yes, a default state will be given to the 
          * ProgressTask.
          */
         if (isCancelled()) {
-          Platform.runLater(new Runnable() {
-            @Override
-            public void run() {
-              LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-                  "Search for Repositories was cancelled!");
-              LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-                  "Search for Repositories was cancelled!");
-              prt.setResult(false);
-              prt.setRepoNames(new ArrayList<String>());
-              prt.setPublishedRepos(new ArrayList<String>());
-              primary.showUpdateFailed("Zeitberschreitung!");
-            }           
-          });
+          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+              "Search for Repositories was cancelled!");
+          showTimeout();
           return null;
         }
         /*
-         * This String is always at the end of the version information.
-         */
-        if (line.contains("#End List File")) {
-          list = false;
-          prt.updateIndicator(++index, "Liste der Anwendungen abgefragt.");
-          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "List of Applications fetched.");
-        }
-        
-        /*
-         * We are now at the information part of the File. Here begins the allocation of 
-         * all versions that were released.
-         */
-        if (list) {
-          /*
-           * Remove HTML-Code from the String.
-           */
-          while (line.contains(">")) {
-            /*
-             * Checks, if this Task was cancelled, because it took too long. In this case, the User 
-             * will be updated.
-             */
-            if (isCancelled()) {
-              Platform.runLater(new Runnable() {
-                @Override
-                public void run() {
-                  LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-                      "Search for Repositories was cancelled because of a timeout!");
-                  LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-                      "Search for Repositories was cancelled because of a timeout!");
-                  prt.setResult(false);
-                  prt.setRepoNames(new ArrayList<String>());
-                  prt.setPublishedRepos(new ArrayList<String>());
-                  primary.showUpdateFailed("Zeitberschreitung!");
-                }           
-              });
-              return null;
-            }
-            /*
-             * Removes the HTML Tags from the String.
-             */
-            line = line.replaceFirst(line.substring(line.indexOf("<"), 
-                line.indexOf(">") + 1), "");
-          }
-          /*
-           * If the Line still contains Information after removing all HTML-Code, then there 
-           * are Repository Names stored in it. It is added to the String defined before.
-           */
-          if (line.trim().length() != 0) {
-            s = s.concat(line.trim() + System.lineSeparator());
-          }
-        }
-        /*
-         * This Line is always at the start of the Information about the Repositories. This is 
-         * checked here to remove an empty line from s.
+         * Each Line contains the Repository's Name and its clear Name. A Line of the Catalog 
+         * contains the Versions of the Application as well. The Lookup of the Versions is started 
+         * at once, so it runs, while the rest of the List is read and the Launcher is built.
          */
-        if (line.contains("#Begin List File")) {
-          list = true;
-          prt.updateIndicator(++index, "Liste der Anwendungen gefunden!");
-          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "List of Applications found");
+        CatalogEntry entry = CatalogEntry.parse(line);
+        if (entry == null) {
+          LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+              "Skipping malformed Line of the List: " + line);
+          continue;
         }
+        entries.add(entry);
+        primary.lookupVersions(entry);
+      }
+      if (tokens.isComplete()) {
+        prt.updateIndicator(++index, "Liste der Anwendungen abgefragt.");
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "List of Applications fetched.");
       }
     } catch (IOException e) {
+      /*
+       * A cancelled or timed out Request is aborted, so the Read fails instead of returning the 
+       * next Line. In this case, the List is incomplete and can't be used.
+       */
+      if (isCancelled() || e instanceof InterruptedIOException) {
+        showTimeout();
+        return null;
+      }
       /*
        * In case the Line couldn't be read, this catches the Exception.
        */
       e.printStackTrace();
+    } finally {
+      /*
+       * Closes the Tokenizer to prevent Resource Leak, even if the Task was cancelled.
+       */
+      tokens.close();
     }
     /*
-     * Updates the User, that the List was requested and the Task will now separate it.
+     * Updates the User, that the List was requested and the Task will now create the Catalog.
      */
     prt.updateIndicator(++index, "Aufteilen der Liste...");
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Separating the List...");
+    Catalog catalog = new Catalog(entries);
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Catalog contains the Versions of " 
+        + catalog.countVersions() + "/" + entries.size() + " Applications");
     /*
-     * A StringTokenizer to separate each Line in the String of Lists.
+     * Completes the Catalog in the parent ProgressTask and terminates this Task.
      */
-    StringTokenizer st = new StringTokenizer(s, System.lineSeparator());
-    
-    /*
-     * Creates ArrayLists to save the Repositories' Names and their clear Names.
-     */
-    ArrayList<String> repos = new ArrayList<String>();
-    ArrayList<String> names = new ArrayList<String>();
-    
-    /*
-     * As long as there are still Tokens, these Tokens will be separated into the clear Names and 
-     * true Names.
-     */
-    while (st.hasMoreTokens()) {
-      /*
-       * Replaces the Token, that is used in the List to separate the clear Name from the true Name 
-       * with a Single character, that can be used with the Tokenizer.
-       */
-      String tmp = st.nextToken().replace("--SEP--", "|");
-      /*
-       * Creates a Tokenizer to separate each Line into the repository's Name and clear Name and 
-       * adds these Strings into the Lists.
-       */
-      StringTokenizer tokenizer = new StringTokenizer(tmp, "|");
-      repos.add(tokenizer.nextToken());
-      names.add(tokenizer.nextToken());
-    }
-    /*
-     * Updates the Fields in the parent ProgressTask and terminates this Task.
-     */
-    prt.setPublishedRepos(repos);
-    prt.setRepoNames(names);
-    prt.setResult(true);
     prt.updateIndicator(++index, "Liste berprft.");
+    prt.complete(catalog);
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
         "Checking for Applications finished. Terminating this Task.");
     return null;
   }
 
+  /**
+   * Informs the ProgressTask and the Launcher, that the Search for Repositories was cancelled, 
+   * because it took too long.
+
+   * @since 1.0
+   */
+  private void showTimeout() {
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+        "Search for Repositories was cancelled because of a timeout!");
+    LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+        "Search for Repositories was cancelled because of a timeout!");
+    prt.complete(null);
+    Platform.runLater(new Runnable() {
+      @Override
+      public void run() {
+        primary.showUpdateFailed("Zeitberschreitung!");
+      }           
+    });
+  }
+
   /**
    * If an Exception is thrown when connecting to the URL in {@link #call()}, this Method will be 
    * called with the given Text, depending on the Type of Exception that was thrown.
    * <br> When the Operation to search for the List took too long, this Method will be called as 
    * well.
-   * <br> This Method will set all Fields in {@link #prt}, that require ArrayLists as Values to 
-   * empty ArrayLists and sets {@link ProgressTask#success} to false, since no connection could be 
-   * established. This way, this Task can end normally and the parent ProgressTask can continue as 
-   * usual, but it will recognize, that there was an Error and defaults to a save state.
+   * <br> This Method will complete the Catalog of {@link #prt} with {@code null}, since no 
+   * connection could be established. This way, this Task can end normally and the parent 
+   * ProgressTask can continue as usual, but it will recognize, that there was an Error and 
+   * defaults to a save state.
 
    * @param text  The String value that will be displayed to the User with further Information.
    * @since 1.0
    */
   private void updateFailed(String text) {
     /*
-     * Sets all Fields in the ProgressTask to default values. This will ensure, that the 
+     * Completes the Catalog of the ProgressTask without a Catalog. This will ensure, that the 
      * ProgressTask will know, that this Task is finished and still knows, that there was an Error 
      * when checking for the Names.
      */
-    prt.setResult(false);
-    prt.setRepoNames(new ArrayList<String>());
-    prt.setPublishedRepos(new ArrayList<String>());
+    prt.complete(null);
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
         "Update failed. Check previous Messages!");
     LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
@@ -320,6 +278,30 @@ public class CheckerTask extends Task<Void> {
     });
   }
   
+  /**
+   * Called, when this Task stopped for any reason. If it stopped without completing the Catalog 
+   * of {@link #prt}, e.g. because of an unexpected Exception or because it was cancelled before 
+   * it started, the Catalog is completed with {@code null} here, so the ProgressTask doesn't wait 
+   * forever.
+
+   * @since 1.0
+   */
+  @Override
+  protected void done() {
+    super.done();
+    if (isCancelled()) {
+      if (prt.complete(null)) {
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+            "CheckerTask was cancelled before it fetched the List.");
+      }
+    } else if (prt.complete(null)) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "CheckerTask stopped unexpectedly without fetching the List!");
+      updateFailed("Unerwarteter Fehler beim Abfragen der Liste, bitte melden Sie dieses "
+          + "Problem dem Entwickler.");
+    }
+  }
+  
   /**
    * Returns a String to identify this Task.
 
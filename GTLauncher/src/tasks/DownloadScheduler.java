@@ -0,0 +1,355 @@
+package tasks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import loggingtool.LoggingTool;
+import util.LauncherExecutors;
+
+/**
+ * The Scheduler, that runs all DownloadTasks of the Launcher. At most {@link #MAX_CONCURRENT} 
+ * Downloads run at the same time, all others wait in a Queue and are started in the order, they 
+ * were queued.
+ * <br>A Download can be paused and resumed at any time. Pausing cancels its DownloadTask, which 
+ * keeps the already downloaded part of the File, and resuming creates a new DownloadTask, that 
+ * continues at this point.
+ * <br>The State and the position in the Queue of each Download are published as Properties, so 
+ * they can be displayed to the User.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class DownloadScheduler {
+
+  /**
+   * The maximum amount of Downloads, that run at the same time.
+   */
+  private static final int MAX_CONCURRENT = 2;
+
+  /**
+   * The Scheduler of the Launcher.
+   */
+  private static final DownloadScheduler instance = new DownloadScheduler();
+
+  /**
+   * The States of a Download.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  public enum State {
+    /**
+     * The Download waits for a free place.
+     */
+    QUEUED,
+
+    /**
+     * The Download is running.
+     */
+    RUNNING,
+
+    /**
+     * The Download was paused and keeps its downloaded Data until it's resumed.
+     */
+    PAUSED,
+
+    /**
+     * The Download was finished, failed or cancelled.
+     */
+    FINISHED
+  }
+
+  /**
+   * The waiting Downloads in the order, they were queued.
+   */
+  private final ArrayDeque<Job> queue = new ArrayDeque<Job>();
+
+  /**
+   * The running Downloads.
+   */
+  private final ArrayList<Job> running = new ArrayList<Job>();
+
+  /**
+   * Private Constructor, since there is only one Scheduler for the whole Launcher.
+
+   * @since 1.0
+   */
+  private DownloadScheduler() {
+  }
+
+  /**
+   * Returns the Scheduler of the Launcher.
+
+   * @return  The DownloadScheduler.
+   * @since 1.0
+   */
+  public static DownloadScheduler get() {
+    return instance;
+  }
+
+  /**
+   * Adds a new Download to the Queue. It will be started, as soon as there is a free place.
+
+   * @param name  The Name of the Download, used for Logging and the Name of its Thread.
+   * @param factory The Supplier, that creates a new DownloadTask each time, the Download is 
+   *      started or resumed.
+   * @return  The Job, that controls the Download.
+   * @since 1.0
+   */
+  public synchronized Job submit(String name, Supplier<DownloadTask> factory) {
+    Job job = new Job(name, factory);
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Queueing Download of " + name);
+    enqueue(job);
+    dispatch();
+    return job;
+  }
+
+  /**
+   * Cancels all Downloads. This is called, when the Launcher is closed. Downloaded Data is kept, 
+   * so the Downloads can be resumed after the next Start.
+
+   * @since 1.0
+   */
+  public synchronized void cancelAll() {
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Cancelling all Downloads...");
+    for (Job job : queue) {
+      job.setState(State.FINISHED);
+    }
+    queue.clear();
+    for (Job job : running) {
+      job.setState(State.FINISHED);
+      job.task.cancel();
+    }
+  }
+
+  /**
+   * Adds the given Job to the Queue.
+
+   * @param job The Job to be queued.
+   * @since 1.0
+   */
+  private void enqueue(Job job) {
+    job.setState(State.QUEUED);
+    queue.add(job);
+  }
+
+  /**
+   * Starts queued Downloads, until there are no free places left. Afterwards, the positions of 
+   * all queued Downloads are updated.
+
+   * @since 1.0
+   */
+  private void dispatch() {
+    while (running.size() < MAX_CONCURRENT && !queue.isEmpty()) {
+      Job job = queue.poll();
+      job.task = job.factory.get();
+      job.setState(State.RUNNING);
+      running.add(job);
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Starting Download of "
+          + job.name);
+      Thread thread = LauncherExecutors.newThread(() -> {
+        try {
+          job.task.run();
+        } finally {
+          finished(job);
+        }
+      }, "Download-" + job.name, false);
+      thread.start();
+    }
+    /*
+     * Publishes the new positions in the order, the Downloads will be started.
+     */
+    int position = 1;
+    for (Job job : queue) {
+      job.setPosition(position++);
+    }
+  }
+
+  /**
+   * Called, when the Task of the given Job stopped. If the Job was resumed or pushed back into 
+   * the Queue in the meantime, it's queued again.
+
+   * @param job The Job, that stopped.
+   * @since 1.0
+   */
+  private synchronized void finished(Job job) {
+    running.remove(job);
+    if (job.state == State.RUNNING) {
+      job.setState(State.FINISHED);
+    } else if (job.state == State.QUEUED) {
+      enqueue(job);
+    }
+    dispatch();
+  }
+
+  /**
+   * A single Download, that is controlled by the Scheduler.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  public final class Job {
+
+    /**
+     * The Name of the Download.
+     */
+    private final String name;
+
+    /**
+     * The Supplier, that creates the DownloadTask.
+     */
+    private final Supplier<DownloadTask> factory;
+
+    /**
+     * The current State of the Download. Only changed while holding the Lock of the Scheduler.
+     */
+    private volatile State state;
+
+    /**
+     * The DownloadTask of the last Start of this Download.
+     */
+    private DownloadTask task;
+
+    /**
+     * The published State of the Download, updated on the JavaFX Application Thread.
+     */
+    private final ReadOnlyObjectWrapper<State> stateProperty = 
+        new ReadOnlyObjectWrapper<State>(State.QUEUED);
+
+    /**
+     * The published position in the Queue, starting at 1, or 0, if the Download isn't queued. 
+     * Updated on the JavaFX Application Thread.
+     */
+    private final ReadOnlyIntegerWrapper position = new ReadOnlyIntegerWrapper();
+
+    /**
+     * Creates a new Job with the given values.
+
+     * @param name  The Name of the Download.
+     * @param factory The Supplier, that creates the DownloadTask.
+     * @since 1.0
+     */
+    private Job(String name, Supplier<DownloadTask> factory) {
+      this.name = name;
+      this.factory = factory;
+    }
+
+    /**
+     * Pauses the Download. A queued Download is removed from the Queue, a running Download is 
+     * cancelled, while its downloaded Data is kept.
+
+     * @since 1.0
+     */
+    public void pause() {
+      synchronized (DownloadScheduler.this) {
+        if (state == State.QUEUED) {
+          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Pausing queued Download of "
+              + name);
+          queue.remove(this);
+          setState(State.PAUSED);
+          dispatch();
+        } else if (state == State.RUNNING) {
+          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Pausing Download of "
+              + name);
+          setState(State.PAUSED);
+          task.cancel();
+        }
+      }
+    }
+
+    /**
+     * Resumes the paused Download. It's queued again and continues, where it was paused. If the 
+     * cancelled Task is still stopping, the Download is queued as soon as it stopped.
+
+     * @since 1.0
+     */
+    public void resume() {
+      synchronized (DownloadScheduler.this) {
+        if (state != State.PAUSED) {
+          return;
+        }
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Resuming Download of " + name);
+        if (running.contains(this)) {
+          setState(State.QUEUED);
+        } else {
+          enqueue(this);
+          dispatch();
+        }
+      }
+    }
+
+    /**
+     * Returns the current State of this Download.
+
+     * @return  The State of this Download.
+     * @since 1.0
+     */
+    public State getState() {
+      return state;
+    }
+
+    /**
+     * Checks, if this Download waits or runs.
+
+     * @return  {@code true}, if this Download is queued or running, {@code false} if it was 
+     *      paused or finished.
+     * @since 1.0
+     */
+    public boolean isActive() {
+      return state == State.QUEUED || state == State.RUNNING;
+    }
+
+    /**
+     * Returns the published State of this Download. It's updated on the JavaFX Application 
+     * Thread.
+
+     * @return  The State as a read only Property.
+     * @since 1.0
+     */
+    public ReadOnlyObjectProperty<State> stateProperty() {
+      return stateProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the published position of this Download in the Queue. It's updated on the JavaFX 
+     * Application Thread.
+
+     * @return  The position starting at 1 or 0, if the Download isn't queued, as a read only 
+     *      Property.
+     * @since 1.0
+     */
+    public ReadOnlyIntegerProperty positionProperty() {
+      return position.getReadOnlyProperty();
+    }
+
+    /**
+     * Sets the State of this Download and publishes it. A Download, that isn't queued, has no 
+     * position.
+
+     * @param newState  The new State.
+     * @since 1.0
+     */
+    private void setState(State newState) {
+      state = newState;
+      Platform.runLater(() -> stateProperty.set(newState));
+      if (newState != State.QUEUED) {
+        setPosition(0);
+      }
+    }
+
+    /**
+     * Publishes the given position of this Download.
+
+     * @param newPosition The new position in the Queue.
+     * @since 1.0
+     */
+    private void setPosition(int newPosition) {
+      Platform.runLater(() -> position.set(newPosition));
+    }
+  }
+}
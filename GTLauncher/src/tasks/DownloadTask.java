@@ -1,27 +1,37 @@
 package tasks;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
-import java.net.ProtocolException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import javafx.application.Platform;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.beans.property.StringProperty;
 import javafx.concurrent.Task;
-import javafx.scene.control.Label;
 import loggingtool.LoggingTool;
 import util.AppDisplayArea;
+import util.UiUpdateBus;
+import util.download.ArtifactStore;
+import util.download.ContentRange;
+import util.download.DeltaPatch;
+import util.download.DownloadJournal;
+import util.download.DownloadTelemetry;
+import util.download.SegmentedDownload;
+import util.download.StreamingDigest;
+import util.download.TelemetrySnapshot;
+import util.download.TransferEngine;
+import util.network.Deadlines;
+import util.network.HttpService;
 
 
 /**
@@ -49,26 +59,26 @@ public class DownloadTask extends Task<Void> {
   private long downloadLength;
   
   /**
-   * The Size of the File at the Start of the Download. This is used, to ensure the estimated 
-   * time to download the File is correct.
+   * The Size of the File at the Start of the Download. This is used, to log where a cancelled 
+   * Download was resumed.
    */
   private long startingLength;
   
   /**
-   * The Label, that will display update Messages to the User.
+   * The Text, that will display update Messages to the User.
    */
-  private Label updates;
+  private StringProperty updates;
   
   /**
-   * The Label, that will display message about the length of this download to the User.
+   * The Text, that will display message about the length of this download to the User.
    */
-  private Label length;
+  private StringProperty length;
   
   /**
-   * The data, that determines, when this Task started the Download. Used to estimate remaining 
-   * time.
+   * The Telemetry of the running Download. Samples the downloaded bytes and publishes the 
+   * throughput and remaining time to {@link #show(TelemetrySnapshot)}.
    */
-  private long start;
+  private DownloadTelemetry telemetry;
   
   /**
    * The String, that defines the version-Number. This is used to ensure, that the file-Download 
@@ -76,33 +86,84 @@ public class DownloadTask extends Task<Void> {
    */
   private String version;
   
+  /**
+   * The Version of the installed File. If this is set, the Task tries to download a Patch from 
+   * this Version to {@link #version} instead of the whole File. {@code null}, if the whole File 
+   * has to be downloaded.
+   */
+  private String installedVersion;
+  
   /**
    * The AppDisplayArea, this Task was called from. Used to signal the Area, that the Download has 
    * finished and the Area can be altered again.
    */
   private AppDisplayArea area;
   
+  /**
+   * Determines, if the Server announced, that it supports Range-Requests for the File. Only then 
+   * the File can be downloaded in Segments.
+   */
+  private boolean acceptsRanges;
+  
+  /**
+   * The position in the File, where the Data of the Connection returned by 
+   * {@link #addFileResumeFunctionality(String, File, DownloadJournal)} starts.
+   */
+  private long rangeStart;
+  
+  /**
+   * The maximum amount of attempts to download a File, that matches its published Checksum.
+   */
+  private static final int MAX_ATTEMPTS = 3;
+  
+  /**
+   * The SHA-256 Checksum of the File, that was published in the Catalog, or {@code null}, if it 
+   * has to be fetched separately.
+   */
+  private String publishedChecksum;
+  
+  /**
+   * The Length of the File, that was published in the Catalog, or -1, if it's unknown.
+   */
+  private long publishedLength = -1;
+  
   /**
    * The Constructor for this Task. Sets all Fields to the given Parameters.
 
    * @param downloadUrl The URL to download the Launcher from.
    * @param file The File, where the Download will be stored in.
-   * @param updates The Label, that will display Messages to the User.
-   * @param length The Label, that will display Messages about the remaining time to the User.
+   * @param updates The Text, that will display Messages to the User.
+   * @param length The Text, that will display Messages about the remaining time to the User.
    * @param version The Version-String, that defines the version to be downloaded.
+   * @param installedVersion  The Version-String of the installed File, that might be patched or 
+   *      {@code null}, if the whole File has to be downloaded.
    * @param area  The AppDisplayArea, this DownloadTask was called from.
    * @since 1.0
    */
-  public DownloadTask(String downloadUrl, File file, Label updates, Label length, String version, 
-      AppDisplayArea area) {
+  public DownloadTask(String downloadUrl, File file, StringProperty updates, 
+      StringProperty length, String version, String installedVersion, AppDisplayArea area) {
     this.outputFile = file;
     this.downloadUrl = downloadUrl;
     this.updates = updates;
     this.length = length;
     this.version = version;
+    this.installedVersion = installedVersion;
     this.area = area;
   }
   
+  /**
+   * Sets the Length and the Checksum of the File, that were published in the Catalog. Both are 
+   * used instead of separate Requests. Has to be called before this Task is started.
+
+   * @param length  The Length of the File in bytes or -1, if it's unknown.
+   * @param checksum  The SHA-256 Checksum of the File or {@code null}, if it's unknown.
+   * @since 1.0
+   */
+  public void setPublished(long length, String checksum) {
+    this.publishedLength = length;
+    this.publishedChecksum = checksum;
+  }
+  
   @Override
   protected Void call() throws Exception {
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Downloading File from: " 
@@ -127,115 +188,71 @@ public class DownloadTask extends Task<Void> {
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Starting DownloadTask for " + name);
     
     /*
-     * Creates a new File, that will be used to create a temporary File, which will replace the old 
-     * File after downloading. If a jar-File already exists at the given path of outputFile, this 
-     * will create a new temporary File, if no File exists, then newFile only references outputFile.
+     * Takes over the partial File of an older Launcher, that only stored the Version of the 
+     * Download in a temporary Text-File.
      */
-    File tmpFile;
+    migrateLegacyResume(new File(p + "tmp.txt"));
     /*
-     * Creates a temporary Text-File at the saved path to make resuming the Download possible.
+     * Determines the File, the Data will be downloaded to. If a jar-File already exists at the 
+     * given path of outputFile, the Data is downloaded to a temporary File, which will replace the 
+     * old File after downloading. If no File exists or the existing File is the partial File of an 
+     * interrupted first Installation, the Data is downloaded to outputFile directly.
      */
-    File f = new File(p + "tmp.txt");
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-        "Creating temporary Text File at: " + f.getPath());
-    if (outputFile.exists()) {
-      if (!f.exists()) {
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Creating new temporary File");
-        tmpFile = new File(p + name.replace(".jar", "(tmp).jar"));
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-            "temp File created at: " + tmpFile.getPath());
-      } else {
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-            "No new temporary File has to be created since download was cancelled");
-        if (new File(p + name.replace(".jar", "(tmp).jar")).exists()) {
-          tmpFile = new File(p + name.replace(".jar", "(tmp).jar"));
-        } else {
-          tmpFile = outputFile;
-        }
-      }
+    File tmpFile;
+    if (outputFile.exists() && !DownloadJournal.journalFor(outputFile).exists()) {
+      tmpFile = DownloadJournal.partFileFor(outputFile);
     } else {
-      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-          "No temporary File has to be created");
       tmpFile = outputFile;
     }
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
         "File will be downloaded to: " + tmpFile.getPath());
     /*
-     * Boolean Value, that will determine, if the current File has to be deleted or not.
+     * Reads the Journal of an interrupted Download. The partial File is only kept, if the Journal 
+     * belongs to the same Version, otherwise the Download starts over.
      */
-    boolean deleteFile;
-    /*
-     * Checks, if a Text-File with the given path of f already exists. In this case, the content 
-     * has to be compared to the version to be downloaded to ensure that the already existing part 
-     * of the download is up to date.
-     */
-    if (f.exists()) {
-      try {
-        /*
-         * Creates a BufferedReader, that will read the single line in the File. Afterwards, it 
-         * compares this Line to the given version-String to determine, if the File has to be 
-         * deleted (both are equal means no deletion, different means deletion of the File).
-         */
-        BufferedReader br = new BufferedReader(new FileReader(f));
-        String readVers = br.readLine();
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-            "TextFile exists, read Version is " + readVers);
-        deleteFile = !readVers.equals(version);
-        br.close();
-      } catch (IOException e) {
-        /*
-         * If an error was caused when reading the File, this Task will default back to deleting 
-         * the File for safety measures.
-         */
-        deleteFile = true;
-        e.printStackTrace();
-      }
+    DownloadJournal journal = DownloadJournal.read(tmpFile);
+    if (journal != null && journal.belongsTo(downloadUrl, version)) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Resuming Download with " 
+          + journal.completedBytes() + "B from the Journal");
     } else {
-      try {
-        /*
-         * If there is no existing File, the Data has to be deleted by default, since there is no 
-         * possible check for compatibility in this case. Also, a new File will be created, where 
-         * the version of the download is stored in.
-         */
-        BufferedWriter bw = new BufferedWriter(new FileWriter(f));
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-            "No TextFile exists, creating new File with Version " + version);
-        deleteFile = true;
-        bw.write(version);
-        bw.close();
-      } catch (IOException e) {
-        /*
-         * If an error was caused when writing the File, this Task will default back to deleting 
-         * the File for safety measures.
-         */
-        deleteFile = true;
-        e.printStackTrace();
-      }
-    }
-    
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-        "Temporary File has to be deleted? " + deleteFile);
-    if (deleteFile) {
-      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Deleting temporary File...");
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "No matching Journal, deleting temporary File...");
+      DownloadJournal.journalFor(tmpFile).delete();
       tmpFile.delete();
+      journal = new DownloadJournal(tmpFile, downloadUrl, version);
     }
     /*
-     * Sets start to the current time to be able to determine remaining time later on.
+     * Installs the Version from the local Store, if it was downloaded before. In this case, 
+     * nothing has to be downloaded.
      */
-    start = System.currentTimeMillis();
-    
+    String app = name.replace(".jar", "");
+    ArtifactStore store = ArtifactStore.forApplication(outputFile);
+    boolean fromStore = installFromStore(store, app, tmpFile);
     /*
-     * Opens a URLConnection to the given URL, adds functionality to resume the download and 
-     * downloads the Data from the URL.
+     * Fetches the published Checksum of the File, unless it was published in the Catalog. If there 
+     * is none, the downloaded File can only be checked for its Length.
      */
-    //Change to outputFile if not working, for both methods!
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-        "Starting Download of " + name + " to " + tmpFile.getPath());
-    URLConnection downloadFileConnection = addFileResumeFunctionality(downloadUrl, tmpFile);
-    try {
-      transferDataAndGetBytesDownloaded(downloadFileConnection, tmpFile);
-    } catch (IOException e) {
-      e.printStackTrace();
+    String checksum = null;
+    if (!fromStore) {
+      checksum = publishedChecksum != null ? publishedChecksum : fetchChecksum();
+    }
+    /*
+     * Downloads the File until it was verified or the maximum amount of attempts was reached. The 
+     * older File stays untouched until then.
+     */
+    boolean verified = fromStore;
+    /*
+     * If a known older Version is installed and no Download of the whole File is pending, a 
+     * published Patch for this Version is tried first.
+     */
+    if (!verified && installedVersion != null && tmpFile != outputFile 
+        && journal.completedBytes() == 0) {
+      verified = tryDeltaUpdate(tmpFile, checksum);
+    }
+    for (int attempt = 1; attempt <= MAX_ATTEMPTS && !verified && !isCancelled(); attempt++) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Starting Download of " + name 
+          + " to " + tmpFile.getPath() + " (Attempt " + attempt + "/" + MAX_ATTEMPTS + ")");
+      verified = downloadAndVerify(tmpFile, checksum, journal);
     }
     
     /*
@@ -248,6 +265,16 @@ public class DownloadTask extends Task<Void> {
       area.downloadFinished("Download unterbrochen!");
       return null;
     }
+    
+    /*
+     * If the File couldn't be verified, it won't replace the older File.
+     */
+    if (!verified) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "Download of " + name + " couldn't be verified, keeping the installed File!");
+      area.downloadFinished("Download fehlerhaft! Die installierte Version wurde behalten.");
+      return null;
+    }
 
     /*
      * Tries to start the downloaded Launcher and exits this Application. If this Start fails, an 
@@ -255,19 +282,34 @@ public class DownloadTask extends Task<Void> {
      */
     try {
       /*
-       * Deletes the temporary File, where the version was stored, since it's not needed after 
-       * completing the Download.
+       * Deletes the Journal, since it's not needed after completing the Download.
        */
       LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-          "Deleting temporary Text File of \"" + name + "\"...");
-      f.delete();
+          "Deleting Journal of \"" + name + "\"...");
+      journal.delete();
       /*
        * Renames the downloaded File, to replace the older executable.
        */
       if (outputFile != tmpFile) {
         LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Replacing older File of " + name);
+        /*
+         * Keeps the older Version in the Store, so it can be installed again without a Download.
+         */
+        if (installedVersion != null) {
+          keepInStore(store, app, installedVersion, outputFile);
+        }
         outputFile.delete();
-        tmpFile.renameTo(outputFile);
+        if (!tmpFile.renameTo(outputFile)) {
+          /*
+           * If the File can't be renamed (e.g. because it's on another File System), it will be 
+           * copied instead.
+           */
+          TransferEngine.copy(tmpFile, outputFile);
+          tmpFile.delete();
+        }
+      }
+      if (!fromStore) {
+        keepInStore(store, app, version, outputFile);
       }
     } catch (Exception e) {
       e.printStackTrace();
@@ -278,29 +320,302 @@ public class DownloadTask extends Task<Void> {
   }
 
   /**
-   * Downloads the File from the given URLConnection to the given outputFile. 
-   * Also updates the Progress while doing so to be able to show this progress to the User.
+   * Downloads the File to the given temporary File and verifies it. The Data is hashed while it 
+   * is written, so the File doesn't have to be read again. If the Download is resumed, only the 
+   * already existing part of the File is hashed from the hard drive.
+   * <br>If the Download failed or was incomplete, the temporary File and its Journal are kept, so 
+   * the next attempt can resume it. If the Checksum didn't match, both are deleted.
 
-   * @param downloadFileConnection  The URLConnection, the Data will be downloaded from.
+   * @param tmpFile The File, the Data will be downloaded to.
+   * @param checksum  The published SHA-256 Checksum of the File or {@code null}, if there is none.
+   * @param journal The Journal, that records the downloaded Blocks of the temporary File.
+   * @return  {@code true}, if the File was downloaded completely and matches the Checksum, 
+   *      {@code false} if not.
+   * @throws IOException  If the Connection to the URL couldn't be established correctly or the 
+   *      URL was malformed.
+   * @since 1.0
+   */
+  private boolean downloadAndVerify(File tmpFile, String checksum, DownloadJournal journal) 
+      throws IOException {
+    /*
+     * Opens a Request to the given URL, adds functionality to resume the download and 
+     * downloads the Data from the URL.
+     */
+    HttpService.Exchange downloadFileConnection = addFileResumeFunctionality(downloadUrl, 
+        tmpFile, journal);
+    /*
+     * Larger Files are downloaded over several Connections at the same time, if the Server 
+     * supports it. Otherwise, the File is downloaded over the single resumable Connection, that 
+     * continues after the gap-free Part of the File.
+     */
+    boolean segmented = SegmentedDownload.isApplicable(acceptsRanges, downloadLength);
+    boolean complete = downloadFileConnection == null || journal.isComplete();
+    /*
+     * Hashes the part of the File, that was already downloaded before. Segmented Downloads hash 
+     * the gap-free part of the File themselves.
+     */
+    StreamingDigest digest = new StreamingDigest();
+    if (!segmented) {
+      digest.advance(tmpFile, complete ? tmpFile.length() : rangeStart);
+    }
+    /*
+     * Starts the Telemetry, that will display the Progress, throughput and remaining time to the 
+     * User while the Data is transferred.
+     */
+    telemetry = new DownloadTelemetry(downloadLength, 
+        segmented ? journal.completedBytes() : journal.contiguousLength(), this::show);
+    telemetry.start();
+    try {
+      if (segmented) {
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+            "Downloading " + tmpFile.getName() + " in Segments");
+        startingLength = journal.completedBytes();
+        updateProgress(startingLength, downloadLength);
+        new SegmentedDownload(downloadUrl, tmpFile, downloadLength, digest, journal)
+            .download(downloadFileConnection, rangeStart, telemetry::record, this::isCancelled);
+      } else if (!complete) {
+        transferDataAndGetBytesDownloaded(downloadFileConnection, tmpFile, digest, journal);
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    } finally {
+      telemetry.stop();
+      if (downloadFileConnection != null) {
+        downloadFileConnection.close();
+      }
+    }
+    if (isCancelled()) {
+      return false;
+    }
+    
+    /*
+     * Checks the Length of the File first, since an incomplete File can simply be resumed.
+     */
+    if (downloadLength > 0 && tmpFile.length() != downloadLength) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), "Downloaded " 
+          + tmpFile.length() + "B instead of " + downloadLength + "B, Download is incomplete!");
+      /*
+       * A File, that is larger than expected, can't be resumed and has to be downloaded again.
+       */
+      if (tmpFile.length() > downloadLength) {
+        journal.reset();
+        journal.delete();
+        tmpFile.delete();
+      }
+      return false;
+    }
+    if (checksum == null) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "No Checksum published, only the Length of the File was verified.");
+      return true;
+    }
+    String computed = digest.finish();
+    if (StreamingDigest.matches(checksum, computed)) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Checksum verified: " + computed);
+      return true;
+    }
+    /*
+     * The File is corrupt, so it can't be resumed and has to be downloaded again.
+     */
+    LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), "Checksum mismatch! Expected " 
+        + checksum + ", computed " + computed + ". Deleting " + tmpFile.getPath());
+    journal.reset();
+    journal.delete();
+    tmpFile.delete();
+    return false;
+  }
+  
+  /**
+   * Tries to download the Patch from the {@link #installedVersion} to the {@link #version} and to 
+   * apply it to the installed File. The patched File is written to the given temporary File.
+
+   * @param tmpFile The File, the patched Version will be written to.
+   * @param checksum  The published SHA-256 Checksum of the new Version or {@code null}, if there 
+   *      is none.
+   * @return  {@code true}, if the Patch was applied and the result was verified, {@code false} if 
+   *      no Patch was published or it couldn't be applied. In this case, the whole File has to be 
+   *      downloaded.
+   * @since 1.0
+   */
+  private boolean tryDeltaUpdate(File tmpFile, String checksum) {
+    String patchUrl = DeltaPatch.urlFor(downloadUrl, installedVersion);
+    File patchFile = new File(tmpFile.getPath() + ".delta");
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Trying Patch from " 
+        + installedVersion + " to " + version + " at " + patchUrl);
+    try (HttpService.Exchange exchange = HttpService.open(patchUrl, Deadlines.TRANSFER, 
+        this::isCancelled)) {
+      if (exchange.getResponseCode() != HttpURLConnection.HTTP_OK) {
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "No Patch published (" 
+            + exchange.getResponseCode() + "), downloading the whole File.");
+        return false;
+      }
+      /*
+       * Downloads the Patch. Patches are small, so they aren't resumed or split into Segments.
+       */
+      telemetry = new DownloadTelemetry(exchange.getConnection().getContentLengthLong(), 0, 
+          this::show);
+      telemetry.start();
+      try (ReadableByteChannel in = Channels.newChannel(exchange.getInputStream()); 
+          FileChannel out = FileChannel.open(patchFile.toPath(), StandardOpenOption.CREATE, 
+              StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        TransferEngine.transfer(in, TransferEngine.toChannel(out, 0), telemetry::record, 
+            this::isCancelled);
+      } finally {
+        telemetry.stop();
+      }
+      if (isCancelled()) {
+        return false;
+      }
+      /*
+       * Applies the Patch. The Patch checks the installed File as well as the result itself, the 
+       * published Checksum is checked additionally.
+       */
+      String computed = DeltaPatch.apply(outputFile, patchFile, tmpFile);
+      if (checksum != null && !StreamingDigest.matches(checksum, computed)) {
+        throw new IOException("Patched File doesn't match the published Checksum");
+      }
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Patch applied: " + computed);
+      return true;
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "Patch couldn't be applied, downloading the whole File: " + e.getMessage());
+      tmpFile.delete();
+      return false;
+    } finally {
+      patchFile.delete();
+    }
+  }
+  
+  /**
+   * Installs the {@link #version} of the given Application from the given Store into the given 
+   * temporary File, if it's in the Store.
+
+   * @param store The Store of the Launcher.
+   * @param app The Name of the Application.
+   * @param tmpFile The File, the Version will be written to.
+   * @return  {@code true}, if the Version was written and verified by the Store, {@code false} if 
+   *      it has to be downloaded.
+   * @since 1.0
+   */
+  private boolean installFromStore(ArtifactStore store, String app, File tmpFile) {
+    if (!store.contains(app, version)) {
+      return false;
+    }
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Installing Version " + version 
+        + " of " + app + " from the local Store");
+    try {
+      return store.materialize(app, version, tmpFile);
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "Store couldn't install " + app + ", downloading the File: " + e.getMessage());
+      return false;
+    }
+  }
+  
+  /**
+   * Adds the given File as the given Version of the given Application to the given Store. If this 
+   * fails, the Download isn't affected.
+
+   * @param store The Store of the Launcher.
+   * @param app The Name of the Application.
+   * @param version The Version of the File.
+   * @param file  The File to be stored.
+   * @since 1.0
+   */
+  private void keepInStore(ArtifactStore store, String app, String version, File file) {
+    try {
+      String hash = store.put(app, version, file);
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Stored Version " + version 
+          + " of " + app + " as " + hash);
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "Version " + version + " of " + app + " couldn't be stored: " + e.getMessage());
+    }
+  }
+  
+  /**
+   * Fetches the published SHA-256 Checksum of the File to be downloaded. The Checksum is 
+   * published next to the File with the additional ending ".sha256".
+
+   * @return  The first Line of the Checksum File or {@code null}, if no Checksum was published or 
+   *      it couldn't be fetched.
+   * @since 1.0
+   */
+  private String fetchChecksum() {
+    try (HttpService.Exchange exchange = HttpService.open(downloadUrl + ".sha256", 
+        Deadlines.METADATA, this::isCancelled)) {
+      if (exchange.getResponseCode() != HttpURLConnection.HTTP_OK) {
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "No Checksum published for " 
+            + downloadUrl + " (" + exchange.getResponseCode() + ")");
+        return null;
+      }
+      try (BufferedReader br = new BufferedReader(new InputStreamReader(
+          exchange.getInputStream(), StandardCharsets.UTF_8))) {
+        String checksum = br.readLine();
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Published Checksum: " + checksum);
+        return checksum;
+      }
+    } catch (IOException e) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "Couldn't fetch the Checksum: " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Takes over the partial File of an interrupted Download of an older Launcher. These stored the 
+   * Version of the Download in a temporary Text-File next to the partial File. If the Version is 
+   * still the one to be downloaded, a Journal is created for the partial File, otherwise the 
+   * partial File is deleted. The Text-File is deleted in both cases.
+
+   * @param f The temporary Text-File of the older Launcher.
+   * @since 1.0
+   */
+  private void migrateLegacyResume(File f) {
+    if (!f.exists()) {
+      return;
+    }
+    File partial = DownloadJournal.partFileFor(outputFile);
+    if (!partial.exists()) {
+      partial = outputFile;
+    }
+    try (BufferedReader br = new BufferedReader(new FileReader(f))) {
+      String readVers = br.readLine();
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "Old TextFile exists, read Version is " + readVers);
+      if (version.equals(readVers) && !DownloadJournal.journalFor(partial).exists()) {
+        DownloadJournal.adopt(partial, downloadUrl, version);
+      } else if (partial != outputFile) {
+        partial.delete();
+      }
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "Couldn't take over the partial File: " + e.getMessage());
+    }
+    f.delete();
+  }
+
+  /**
+   * Downloads the File from the given Request to the given outputFile. The Download 
+   * continues after the part of the File, that was downloaded without gaps according to the 
+   * Journal. While downloading, the Journal is written regularly, so an interruption loses at 
+   * most the Data of the last few seconds.
+   * <br>Also updates the Progress while doing so to be able to show this progress to the User.
+
+   * @param downloadFileConnection  The Request, the Data will be downloaded from.
    * @param outputFile  The File, where the Data will be stored in.
+   * @param digest  The Digest, that will hash the Data while it's written.
+   * @param journal The Journal of the File.
    * @return  The Size of the downloaded Data in bytes as a long.
-   * @throws IOException  If there was an Error in getting the I/O-Streams from the URLConnection 
+   * @throws IOException  If there was an Error in getting the I/O-Streams from the Request 
    *      or writing the Data to the File.
    * @since 1.0
    */
-  private long transferDataAndGetBytesDownloaded(URLConnection downloadFileConnection, 
-      File outputFile) throws IOException {
-    /*
-     * Gets the path of the outputFile and checks the size of the File to enable resuming the 
-     * Download.
-     */
+  private long transferDataAndGetBytesDownloaded(HttpService.Exchange downloadFileConnection, 
+      File outputFile, StreamingDigest digest, DownloadJournal journal) throws IOException {
     Path p = Paths.get(outputFile.getAbsolutePath());
-    long bytesDownloaded;
-    if (Files.exists(p)) {
-      bytesDownloaded = Files.size(p);
-    } else {
-      bytesDownloaded = 0;
-    }
+    long bytesDownloaded = digest.getLength();
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
         "Filesize downloaded: " + bytesDownloaded + "B");
     startingLength = bytesDownloaded;
@@ -312,118 +627,135 @@ public class DownloadTask extends Task<Void> {
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
         "Starting at: " + startingLength + "/" + downloadLength + "B");
     /*
-     * Tries to get the Input-Stream from the URLConnection and a new FileOutputStream to the 
+     * Tries to get a Channel from the Input-Stream of the Request and a new FileChannel to the 
      * OuputFile. Throws an IOException, if these can't be obtained/created.
      */
-    try (InputStream is = downloadFileConnection.getInputStream(); 
-        OutputStream os = new FileOutputStream(outputFile, true)) {
-
+    final long offset = bytesDownloaded;
+    try (ReadableByteChannel in = Channels.newChannel(downloadFileConnection.getInputStream()); 
+        FileChannel out = FileChannel.open(p, StandardOpenOption.CREATE, 
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
       /*
-       * Creates a new Byte-Array, which will store the Data read in each Download-Cycle.
+       * Everything after the gap-free part may have been written after the last Checkpoint and 
+       * is therefore discarded.
        */
-      byte[] buffer = new byte[1024];
-
+      out.truncate(offset);
+      journal.truncate(offset);
       /*
-       * Creates a new Integer, which will store the amount of downloaded bytes in this Cycle.
+       * Transfers the Data into the File, starting after the already downloaded part. The 
+       * Telemetry records the Progress after each Chunk written by the TransferEngine and the 
+       * Journal is written, whenever a Checkpoint is due.
        */
-      int bytesCount;
-      /*
-       * While there is still Data to read in is, this Loop will continue. The size of the data 
-       * read will be stored in bytesCount for each iteration.
-       */
-      while ((bytesCount = is.read(buffer)) > 0) {
-        /*
-         * Checks, if this Task was cancelled since the last iteration.
-         */
-        if (!isCancelled()) {
-          /*
-           * Writes the content of buffer into the FileOutputStream.
-           */
-          os.write(buffer, 0, bytesCount);
-          /*
-           * Adds the size of the Data read this cycle to bytesDownloaded.
-           */
-          bytesDownloaded += bytesCount;
-          /*
-           * Updates the Progress with the new data.
-           */
-          updateProgress(bytesDownloaded, downloadLength);
-          /*
-           * Updates the User about the estimated remaining time.
-           */
-          update(bytesDownloaded);
-        } else {
-          /*
-           * If the Task was cancelled, this Loop will break and thus the Task will finish.
-           */
-          break;
-        }
+      AtomicLong written = new AtomicLong(offset);
+      try {
+        bytesDownloaded += TransferEngine.transfer(in, 
+            digest.wrap(TransferEngine.toChannel(out, offset)), 
+            bytes -> {
+              written.set(offset + bytes);
+              telemetry.record(offset + bytes);
+              if (journal.isCheckpointDue()) {
+                checkpoint(journal, out, offset, offset + bytes);
+              }
+            }, this::isCancelled);
+      } finally {
+        finalCheckpoint(journal, out, p, offset, written.get());
       }
     }
     return bytesDownloaded;
   }
 
   /**
-   * Updates the User about the estimated time remaining to download the Data.
+   * Marks the given Range of the File as downloaded and writes the Journal. Errors are only 
+   * logged, since the Download itself can continue without the Journal.
 
-   * @param bytesDownloaded The size of the Data downloaded so far.
+   * @param journal The Journal of the File.
+   * @param out The Channel to the File.
+   * @param from  The first byte, that was downloaded.
+   * @param to  The byte after the last downloaded byte.
    * @since 1.0
    */
-  private void update(long bytesDownloaded) {
-    /*
-     * Since the download might start with an existing File, the size of this existing File must be 
-     * subtracted from the current File size, that is bytesDownloaded to ensure correct values for 
-     * performance.
-     */
-    bytesDownloaded -= startingLength;
-    /*
-     * Calculates the difference between the current Time and the Time, this Task started.
-     */
-    long diff = System.currentTimeMillis() - start;
-    /*
-     * Calculates the performance of this Download. The double Value describes bytes downloaded per 
-     * ms.
-     */
-    double perf = bytesDownloaded / diff;
-    /*
-     * Calculates the estimated time left to download the rest of the data based on the current 
-     * performance.
-     */
-    double needed = (downloadLength - bytesDownloaded) / perf;
-    /*
-     * Stores the perf-Value as a String, that describes it in kbit/s instead of B/ms.
-     */
-    String performance = "" + (7.8125 * perf);
-    /*
-     * Stores the bytesDownloaded-Value as a String, that describes it in MB instead of bytes.
-     */
-    String downloaded = "" + ((bytesDownloaded + startingLength) / 1048576.0);
-    /*
-     * Stores the downloadLength-Value as a String, that describes it in MB instead of bytes.
-     */
-    String max = "" + (downloadLength / 1048576.0);
-    /*
-     * Stores the needed-Value as a String, that descibes it in seconds instead of ms.
-     */
-    String rest = "" + (needed / 1000);
-    /*
-     * Stores the index of the '.' in the Strings. This is used to cut off the numbers displayed 
-     * after two decimals to reduce information overflow.
-     */
-    int indexPerformance = performance.indexOf('.');
-    int indexMax = max.indexOf('.');
-    int indexDownloaded = downloaded.indexOf('.');
-    int indexRest = rest.indexOf('.');
+  private void checkpoint(DownloadJournal journal, FileChannel out, long from, long to) {
+    try {
+      journal.markComplete(out, from, to);
+      journal.checkpoint(out);
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "Couldn't write the Journal: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Writes the last Checkpoint of a Transfer, that stopped. Pausing or cancelling the Download 
+   * interrupts this Thread, which closes the Channel to the File. In this case, the Interrupt is 
+   * cleared for the time of the Checkpoint and the File is opened again, so the Journal still 
+   * covers all written Data. Errors are only logged, so they don't hide the Cause of the stop.
+
+   * @param journal The Journal of the File.
+   * @param out The Channel, the Data was written to.
+   * @param file  The Path to the File.
+   * @param from  The first byte, that was downloaded.
+   * @param to  The byte after the last written byte.
+   * @since 1.0
+   */
+  private void finalCheckpoint(DownloadJournal journal, FileChannel out, Path file, long from, 
+      long to) {
+    boolean interrupted = Thread.interrupted();
+    try {
+      if (out.isOpen()) {
+        checkpoint(journal, out, from, to);
+      } else {
+        try (FileChannel reopened = FileChannel.open(file, StandardOpenOption.READ, 
+            StandardOpenOption.WRITE)) {
+          checkpoint(journal, reopened, from, to);
+        } catch (IOException e) {
+          LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+              "Couldn't reopen the File for the Journal: " + e.getMessage());
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Updates the ProgressBar and informs the User about the throughput and the estimated time 
+   * remaining to download the Data. Called by the {@link #telemetry} for each Snapshot. The Texts 
+   * are published to the {@link UiUpdateBus} under the Key, that the Area discards, when it 
+   * displays a paused or queued Download.
+
+   * @param snapshot  The latest State of the Download.
+   * @since 1.0
+   */
+  private void show(TelemetrySnapshot snapshot) {
+    updateProgress(snapshot.getDownloaded(), snapshot.getTotal());
+    /*
+     * Formats the Texts once per Snapshot. The throughput is displayed in kbit/s, the sizes in MB.
+     */
+    String progressText = String.format(Locale.ROOT, "Heruntergeladen: %.1f/%.1fMB (%.1f kBit/s)", 
+        snapshot.getDownloaded() / 1048576.0, snapshot.getTotal() / 1048576.0, 
+        snapshot.getBytesPerSecond() * 0.0078125);
+    String remainingText;
+    if (snapshot.isStalled()) {
+      remainingText = "Download stockt, warte auf Daten...";
+    } else if (snapshot.getEtaSeconds() < 0) {
+      remainingText = "Voraussichtliche Restzeit: wird berechnet...";
+    } else {
+      remainingText = String.format(Locale.ROOT, "Voraussichtliche Restzeit: %.1fs", 
+          snapshot.getEtaSeconds());
+    }
     /*
-     * Sets the Labels to display the newly calculated data.
+     * Sets the Texts to display the newly calculated data. A Snapshot of a paused or cancelled 
+     * Download is dropped, so it doesn't replace the State, the Area displays instead.
      */
-    Platform.runLater(new Runnable() {
+    UiUpdateBus.publish(area, "downloadText", new Runnable() {
       @Override
       public void run() {
-        updates.setText("Heruntergeladen: " + downloaded.substring(0, indexDownloaded + 2) + "/" 
-            + max.substring(0, indexMax + 2) + "MB (" + performance.substring(0, indexPerformance 
-                + 2) + " kBit/s)");
-        length.setText("Voraussichtliche Restzeit: " + rest.substring(0, indexRest + 2) + "s");
+        if (isCancelled()) {
+          return;
+        }
+        updates.set(progressText);
+        length.set(remainingText);
       }
     });
   }
@@ -439,97 +771,130 @@ public class DownloadTask extends Task<Void> {
 
   /**
    * Adds the Functionality to resume the Download to the File and calculates the Size of the 
-   * Download.
+   * Download. Only a single Request is sent, which asks for the Data after the gap-free part of 
+   * the File. The Length of the File and the Validators, that detect a changed remote File, are 
+   * taken from the Answer to this Request, so the returned Connection already delivers the Data.
+   * <br>Only if the Server doesn't tell the Length of the File in its Answer, it's requested by a 
+   * separate HEAD-Request.
 
    * @param downloadUrl The URL, that will be downloaded as a String.
    * @param outputFile  The File, the data will be saved in.
-   * @return  A new URLConnection to the given URL with the ability to resume the download.
+   * @param journal The Journal of the File, that will be checked against the remote File.
+   * @return  A new Request to the given URL, that delivers the Data from {@link #rangeStart} on, 
+   *      or {@code null}, if the File was already downloaded completely.
    * @throws IOException  If the Connection to the URL couldn't be established correctly or 
-   *      the downloadURL doesn't support the 'GET'-Request.
-   * @throws URISyntaxException If the downloadURL was malformed, so no new URI could be created 
-   *      from it.
-   * @throws ProtocolException  If the downloadURL doesn't support the 'GET'-Request. Since it's 
-   *      not possible to determine, which Exception will be called first from the 
-   *      requestMethod-Method, both Exceptions are needed (IO and Protocol).
-   * @see URI
+   *      the Server answered with an Error.
    * @since 1.0
    */
-  private URLConnection addFileResumeFunctionality(String downloadUrl, File outputFile) 
-      throws IOException, URISyntaxException, ProtocolException {
-    
-    /*
-     * Creates a new URLConnection to the given downloadUrl.
-     */
-    URLConnection downloadFileConnection = new URI(downloadUrl).toURL()
-        .openConnection();
-
-    /*
-     * Stores the Path of the directory, the outputFile will be saved in.
-     */
-    String pathS = outputFile.getPath().substring(0, 
-        outputFile.getPath().lastIndexOf(File.separator) + 1);
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-        "outputFile will be saved in " + pathS);
-    
-    /*
-     * Creates a new File, that describes the Path to the outputFile.
-     */
-    File path = new File(pathS);
-    
+  private HttpService.Exchange addFileResumeFunctionality(String downloadUrl, File outputFile, 
+      DownloadJournal journal) throws IOException {
     /*
      * If the Path doesn't exist, it will be created.
      */
+    File path = outputFile.getAbsoluteFile().getParentFile();
     if (!path.exists()) {
       path.mkdirs();
     }
-    
-    /*
-     * Creates a HTTP URL Connection to the given downloadUrl, to request the property to resume 
-     * the download.
-     */
-    HttpURLConnection httpFileConnection = (HttpURLConnection) downloadFileConnection;
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "HttpUrlConnection established");
-    /*
-     * Creates a temporary HTTP URL Connection, that is needed to get the total Size of the Data.
-     */
-    HttpURLConnection tmpFileConn = (HttpURLConnection) new URI(downloadUrl).toURL()
-        .openConnection();
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "TmpFileConnection established");
     /*
-     * Sets the RequestMethod of the temporary Connection and gets the Length of it's Content as a 
-     * long.
+     * Requests the Data after the gap-free part of the File. The Server only sends this Range, if 
+     * the File didn't change in the meantime. Otherwise, it sends the whole File.
      */
-    tmpFileConn.setRequestMethod("GET");
-    long fileLength = tmpFileConn.getContentLengthLong();
+    long existingFileSize = Math.min(outputFile.length(), journal.contiguousLength());
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-        "FileLength to be downloaded is " + fileLength + "B");
+        "Existing File Size is " + existingFileSize + "B");
+    HttpService.Exchange exchange = HttpService.open(downloadUrl, Deadlines.TRANSFER, 
+        this::isCancelled);
+    HttpURLConnection con = exchange.getConnection();
+    con.setRequestProperty("Range", "bytes=" + existingFileSize + "-");
+    if (existingFileSize > 0 && journal.getValidator() != null) {
+      con.setRequestProperty("If-Range", journal.getValidator());
+    }
+    int code = exchange.getResponseCode();
+    ContentRange range = ContentRange.parse(con.getHeaderField("Content-Range"));
+    String etag = con.getHeaderField("ETag");
+    String lastModified = con.getHeaderField("Last-Modified");
+    long fileLength;
+    if (code == HttpURLConnection.HTTP_PARTIAL && range != null && range.getFirst() >= 0) {
+      /*
+       * The Server sent the requested Range, so it supports Ranges for this File.
+       */
+      fileLength = range.getTotal();
+      rangeStart = range.getFirst();
+      acceptsRanges = true;
+    } else if (code == HttpURLConnection.HTTP_OK) {
+      /*
+       * The Server sent the whole File, either because the File changed or it ignores Ranges.
+       */
+      fileLength = con.getContentLengthLong();
+      rangeStart = 0;
+      acceptsRanges = "bytes".equalsIgnoreCase(con.getHeaderField("Accept-Ranges"));
+    } else if (code == 416 && range != null) {
+      /*
+       * The requested Range starts behind the end of the File, so there is nothing left to 
+       * download or the File became shorter.
+       */
+      exchange.close();
+      exchange = null;
+      fileLength = range.getTotal();
+      rangeStart = fileLength;
+      acceptsRanges = true;
+    } else {
+      exchange.close();
+      throw new IOException("Server answered with " + code + " for " + downloadUrl);
+    }
     /*
-     * Stores the Length of the Content in downloadLength and the length of the OutputFile in a new 
-     * long to compare these two values.
+     * Takes the Length of the File from the Catalog, if the Answer didn't contain it. Only if it 
+     * wasn't published either, the Length is asked for separately.
      */
+    if (fileLength < 0) {
+      fileLength = publishedLength >= 0 ? publishedLength : probeLength(downloadUrl);
+    }
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "FileLength to be downloaded is " 
+        + fileLength + "B, starting at " + rangeStart + "B, Ranges supported: " + acceptsRanges);
     downloadLength = fileLength;
-    long existingFileSize = outputFile.length();
-
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-        "Existing File Size is " + existingFileSize + "B");
-    
     /*
-     * Checks, if the existing File's size is smaller than the Length of the File to be downloaded.
-     * If yes, it requests the Download Range from there on, if not it updates the Progress to 
-     * display the finished state.
+     * Compares the remote File with the one, the Journal was written for. If it changed, the 
+     * already downloaded Data is discarded. If the Server sent a Range of the changed File, the 
+     * Request is repeated for the whole File.
      */
-    if (existingFileSize < fileLength) {
-      httpFileConnection.setRequestProperty("Range", "bytes=" + existingFileSize + "-" 
-          + fileLength);
-    } else {
+    if (!journal.setRemote(fileLength, etag, lastModified)) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "Remote File changed, discarding the downloaded Data...");
+      outputFile.delete();
+      if (rangeStart > 0) {
+        if (exchange != null) {
+          exchange.close();
+        }
+        return addFileResumeFunctionality(downloadUrl, outputFile, journal);
+      }
+    } else if (rangeStart == 0) {
+      journal.reset();
+    }
+    if (exchange == null) {
       updateProgress(fileLength, fileLength);
-      httpFileConnection.setRequestProperty("Range", "bytes=" + existingFileSize + "-" 
-          + fileLength);
     }
-    /*
-     * Returns the newly created Connection with the Property to resume the Download.
-     */
-    return downloadFileConnection;
+    return exchange;
+  }
+
+  /**
+   * Requests the Length of the File at the given URL by a HEAD-Request. Only used, if the Server 
+   * didn't tell the Length in its Answer to the Download-Request.
+
+   * @param downloadUrl The URL of the File.
+   * @return  The Length of the File in bytes or -1, if the Server didn't tell it either.
+   * @since 1.0
+   */
+  private long probeLength(String downloadUrl) {
+    try (HttpService.Exchange head = HttpService.open(downloadUrl, 
+        Deadlines.METADATA, this::isCancelled)) {
+      head.getConnection().setRequestMethod("HEAD");
+      return head.getResponseCode() == HttpURLConnection.HTTP_OK 
+          ? head.getConnection().getContentLengthLong() : -1;
+    } catch (IOException e) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "Couldn't request the Length of the File: " + e.getMessage());
+      return -1;
+    }
   }
   
   @Override
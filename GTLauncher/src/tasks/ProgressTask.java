@@ -1,13 +1,19 @@
 package tasks;
 
 import java.util.ArrayList;
-import javafx.application.Platform;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import javafx.concurrent.Task;
 import javafx.scene.control.Label;
 import launcher.GastroToolsLauncher;
 import loggingtool.LoggingTool;
 import settingstool.Settings;
 import settingstool.SettingsTool;
+import util.LauncherExecutors;
+import util.UiUpdateBus;
+import util.catalog.Catalog;
+import util.catalog.CatalogEntry;
 
 /**
  * A Task, that will call a CheckerTask and controls the Execution of that Task. Afterwards this 
@@ -41,19 +47,11 @@ public class ProgressTask extends Task<Void> {
   private int max;
   
   /**
-   * The List of Repositories, that were published to the Launcher.
+   * The Catalog of all Applications, that were published to the Launcher. It's completed by the 
+   * CheckerTask, with {@code null}, if the List couldn't be fetched. Completing the Future makes 
+   * the Catalog visible to this Task without further Synchronization.
    */
-  private ArrayList<String> publishedRepos;
-  
-  /**
-   * The clear Names of the Repositories, that were published to the Launcher.
-   */
-  private ArrayList<String> repoNames;
-  
-  /**
-   * A boolean value, that determines, if the CheckerTask was executed successfully.
-   */
-  private boolean success;
+  private final CompletableFuture<Catalog> fetched = new CompletableFuture<Catalog>();
   
   /**
    * The time before the CheckerTask will be cancelled in milliseconds.
@@ -88,40 +86,39 @@ public class ProgressTask extends Task<Void> {
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
         "Starting a new CheckerTask to get the List of supported Applications. Timeout is: " 
             + timeout + "ms");
-    new Thread(task).start();
     /*
-     * Starts a second Thread, that will cancel the CheckerTask after the specified Time.
+     * Runs the CheckerTask with the shared Workers. It will be cancelled, if it didn't finish 
+     * within the specified Time.
      */
-    new Thread(() -> {
-      try {
-        Thread.sleep(timeout);
-      } catch (InterruptedException ie) {
-        //Testing Purposes, shouldn't be called.
-        ie.printStackTrace();
-      }
-      task.cancel();
-    }).start();
+    LauncherExecutors.submit(task, timeout);
     /*
-     * As long as the Lists are null, the CheckerTask isn't finished. So this Task will wait for 
-     * 50ms and check again.
+     * Waits, until the CheckerTask completed the Catalog. If this Task was cancelled, the 
+     * CheckerTask is cancelled as well, which aborts its Request.
      */
-    while (publishedRepos == null) {
-      try {
-        Thread.sleep(50);
-      } catch (InterruptedException ie) {
-        //Nothing to do here, since this shouldn't be called at any time.
-      }
+    Catalog catalog;
+    try {
+      catalog = fetched.get();
+    } catch (InterruptedException | CancellationException | ExecutionException e) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "ProgressTask was cancelled, cancelling the CheckerTask...");
+      task.cancel();
+      return null;
     }
     /*
-     * If the CheckerTask finished successfully, the User will be informed, if not the current Text 
-     * of the updates-Label is used as Text. This ensures, that a potential Error Message gets 
-     * passed to the Launcher. Either way, the Launcher will be updated with the Lists and this 
-     * Task is terminated.
+     * If the CheckerTask finished successfully, the Launcher will be updated with the Lists and 
+     * built. If not, the current Text of the updates-Label is used as Text. This ensures, that a 
+     * potential Error Message gets passed to the Launcher.
      */
-    //TODO: Check if this works! Else: add these lists in the if-clause.
-    primary.setNames(repoNames);
-    primary.setRepos(publishedRepos);
-    if (success) {
+    if (catalog != null) {
+      ArrayList<String> repos = new ArrayList<String>();
+      ArrayList<String> names = new ArrayList<String>();
+      for (CatalogEntry entry : catalog.getEntries()) {
+        repos.add(entry.getRepo());
+        names.add(entry.getName());
+      }
+      primary.setNames(names);
+      primary.setRepos(repos);
+      primary.setCatalog(catalog);
       updateIndicator(max, "Liste aller Anwendungen gefunden!");
       primary.buildLauncher(true);
     } else {
@@ -132,7 +129,8 @@ public class ProgressTask extends Task<Void> {
   }
   
   /**
-   * Updates the ProgressIndicator with the given value and Text to be displayed.
+   * Updates the ProgressIndicator with the given value and Text to be displayed. The Update is 
+   * drawn in the next Frame and replaced, if a newer Update is published before.
 
    * @param value The Value, the Indicator will be updated with. The Percentage displayed will be 
    *      {@code (value/max)}%
@@ -143,7 +141,7 @@ public class ProgressTask extends Task<Void> {
    */
   protected void updateIndicator(int value, String text) {
     index = value;
-    Platform.runLater(new Runnable() {
+    UiUpdateBus.publish(this, "indicator", new Runnable() {
       @Override
       public void run() {
         updates.setText(text);
@@ -153,34 +151,16 @@ public class ProgressTask extends Task<Void> {
   }
   
   /**
-   * Sets {@link #success} to the given value. This determines, if the CheckerTask terminated 
-   * successfully or ran into an Exception.
-
-   * @param success The new value of {@link #success}. Determines, if the Task was successful.
-   * @since 1.0
-   */
-  protected void setResult(boolean success) {
-    this.success = success;
-  }
-  
-  /**
-   * Sets {@link #publishedRepos} to the given value. This is done in the CheckerTask.
-
-   * @param repos The new value of {@link #publishedRepos}.
-   * @since 1.0
-   */
-  protected void setPublishedRepos(ArrayList<String> repos) {
-    this.publishedRepos = repos;
-  }
-  
-  /**
-   * Sets {@link #repoNames} to the given value. This is done in the CheckerTask.
+   * Completes the Catalog, that was fetched by the CheckerTask. This lets this Task continue. 
+   * Only the first call has an effect.
 
-   * @param repoNames The new value of {@link #repoNames}.
+   * @param catalog The fetched Catalog or {@code null}, if the List couldn't be fetched.
+   * @return  {@code true}, if this call completed the Catalog, {@code false}, if it was already 
+   *      completed before.
    * @since 1.0
    */
-  protected void setRepoNames(ArrayList<String> repoNames) {
-    this.repoNames = repoNames;
+  protected boolean complete(Catalog catalog) {
+    return fetched.complete(catalog);
   }
   
   @Override
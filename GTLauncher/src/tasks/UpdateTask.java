@@ -4,33 +4,31 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.net.URLConnection;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
-import java.util.StringTokenizer;
 import javafx.concurrent.Task;
 import javafx.event.EventHandler;
 import javafx.scene.input.MouseEvent;
 import launcher.GastroToolsLauncher;
 import loggingtool.LoggingTool;
 import util.AppDisplayArea;
+import util.catalog.CatalogEntry;
+import util.catalog.UpgradePath;
+import util.catalog.VersionIndex;
+import util.catalog.VersionLookup;
+import util.download.DownloadJournal;
+import util.network.Deadlines;
+import util.network.ManifestTokenizer;
 
 /**
- * A Task to check, if there is an update available for a specified Repository.
+ * A Task to check, if there is an update available for a specified Repository. When the Check 
+ * finished, the Task returns the last Status, that was shown to the User.
 
  * @author Haeldeus
  * @version {@value launcher.GastroToolsLauncher#version}
  */
-public class UpdateTask extends Task<Void> {
+public class UpdateTask extends Task<String> {
 
-  /**
-   * The Path to the GitHub-Repository of the Repository, this Task was assigned to to check for an 
-   * update.
-   */
-  private String path;
-  
   /**
    * The path on the hard drive, the Application is working on. This has to be "some/dir/app/" and 
    * will later be used to check for an already installed Application and it's version.
@@ -88,6 +86,17 @@ public class UpdateTask extends Task<Void> {
    */
   private boolean autoUpdate;
   
+  /**
+   * The Entry of this Repository in the Catalog or the Result of its {@link VersionLookup}. If it 
+   * contains the Versions of the Application, the Version File doesn't have to be requested.
+   */
+  private CatalogEntry published;
+  
+  /**
+   * The last Status, that was shown to the User in the {@link #area}.
+   */
+  private String status;
+  
   /**
    * Creates a new Task, that will check for updates for the specified {@code repo} with the given 
    * {@code name}.
@@ -121,8 +130,6 @@ public class UpdateTask extends Task<Void> {
     this.repo = repo;
     this.name = name;
     this.localPath = localPath;
-    //TODO: Support MultiDeveloping?
-    path = "https://github.com/Haeldeus/" + repo + "/blob/master/version.txt";
     this.area = area;
     /*
      * A given Maximum of steps, that was chosen by the Developer.
@@ -134,30 +141,206 @@ public class UpdateTask extends Task<Void> {
     this.autoUpdate = autoUpdate;
   }
   
+  /**
+   * Sets the Entry of this Repository in the Catalog, that was fetched with the List of 
+   * Applications. Has to be called before this Task is started.
+
+   * @param entry The Entry of this Repository or {@code null}, if it isn't in the Catalog.
+   * @since 1.0
+   */
+  public void setPublished(CatalogEntry entry) {
+    this.published = entry;
+  }
+  
   @Override
-  protected Void call() throws Exception {
+  protected String call() throws Exception {
     /*
      * If this Task was restarted by the Launcher, an EventHandler was added before. Since, as of 
      * now, it is not wanted to stop a running UpdateTask, this Handler has to be removed to 
      * prevent premature restarts.
-     * Has to be executed in a try-catch Block to prevent Errors, when this Task is started for the 
-     * first Time, since we don't want the Task to stop.
      */
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
         "Removing possible Listener from the Message Label of " + name + "...");
-    try {
-      area.getMessageLabel().removeEventHandler(MouseEvent.MOUSE_CLICKED, 
-          area.getMessageLabel().getOnMouseClicked());
-    } catch (NullPointerException e) {
-      //Nothing to do here, since the EventHandler wasn't yet added.
+    area.setOnMessageClicked(null);
+    /*
+     * Takes the Versions from the Entry of this Repository, if they were published with the List 
+     * of Applications or looked up in advance. Only otherwise, the Version File of the Repository 
+     * has to be requested.
+     */
+    CatalogEntry entry = published;
+    if (entry != null && entry.hasVersion()) {
+      /*
+       * Skips the Steps of reading the Version File, since all Versions are already known.
+       */
+      counter += 5;
+      updateProgress(counter, max);
+      showStatus("Versionsnummern bereits abgefragt.");
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "Versions of " + name + " are already known.");
+    } else {
+      /*
+       * Requests the Version File. If it couldn't be read, the User was already informed.
+       */
+      ArrayList<String> lines = fetchVersionFile();
+      if (lines == null) {
+        return null;
+      }
+      /*
+       * Updates the User, that the Found version Information are now compared to the installed 
+       * version.
+       */
+      updateProgress(++counter, max);
+      showStatus("Verarbeite Versionsnummern...");
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Processing Version Strings...");
+      entry = VersionLookup.parse(repo, name, lines);
+      if (entry == null) {
+        LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+            "The Version File of " + repo + " contains no Version");
+        offerRestart("Keine Versionsnummer gefunden. Hier klicken fr Neuversuch.");
+        return null;
+      }
+    }
+    final String publishedVersion = entry.getVersion();
+    ArrayList<String> oldVersions = new ArrayList<String>(entry.getOldVersions());
+    String downloadUrl = entry.getDownloadUrl();
+    area.setPublishedArtifact(entry.getSize(), entry.getChecksum());
+    /*
+     * Informs the User, that the published Version Information was checked.
+     */
+    updateProgress(++counter, max);
+    showStatus("Version berprft.");
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version checked!");
+    
+    //Space for possible Additions, that might be necessary in the future between these Steps.
+    
+    /*
+     * Informs the User, that the Task will now check for an installed Version.
+     */
+    updateProgress(++counter, max);
+    showStatus("berprfe installierte Version...");
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Checking installed version...");
+    
+    /*
+     * Checks for an installed Version via checkVersion(). If no Version is installed, it updates 
+     * the User and stops the Task.
+     */
+    if (!checkVersion()) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "No Version File for " + name + " found!");
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "No version File for " + name + " found!");
+      updateProgress(max, max);
+      showStatus("Keine Versionsdatei gefunden. Neuinstallation empfohlen!");
+      area.enableDownload(downloadUrl, publishedVersion);
+      offerResume(publishedVersion);
+      area.hideProgressBar();
+      area.setPath(localPath + name + File.separator + repo + ".jar");
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "No Version File found, Path set to: " + area.getPath());
+      return status;
+    }
+    
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version Check completed!");
+    
+    /*
+     * Determines the Path from the installed to the latest Version. The Index of the published 
+     * Versions is cached, so a restarted Task doesn't have to build it again.
+     */
+    UpgradePath upgrade = VersionIndex.of(repo, publishedVersion, oldVersions).pathFrom(version);
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Installed: " + version 
+        + ", Latest: " + publishedVersion + ", Path: " + upgrade);
+    
+    if (!autoUpdate) {
+      /*
+       * Checks, if the latest published Version is installed or an older version is installed. In 
+       * any other case (wrong version Information, or some yet unknown errors), this If-Clause 
+       * will go to the else-Part.
+       */
+      if (upgrade.isCurrent()) {
+        /*
+         * Informs the User, that the latest Version is installed and disables the DownloadButton.
+         */
+        updateProgress(max, max);
+        showStatus("Neuste Version vorhanden!");
+        area.switchDownloadButton(true);
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Latest Version installed!");
+      } else if (upgrade.getKind() == UpgradePath.Kind.UPGRADE) {
+        /*
+         * Informs the User, that an update was found and enables the Download for this Update.
+         */
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Outdated Version installed!");
+        updateProgress(++counter, max + 1);
+        showStatus("Update gefunden!");
+        /*
+         * If a published Version is installed, the Download can try to fetch a Patch from this 
+         * Version instead of the whole File.
+         */
+        area.enableDownload(downloadUrl, publishedVersion, upgrade.canPatch() ? version : null);
+        updateProgress(max, max);
+      } else if (upgrade.getKind() == UpgradePath.Kind.NEWER) {
+        /*
+         * Informs the User, that a newer Version than the published one is installed. The 
+         * Download is still enabled to be able to return to the published Version.
+         */
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+            "Newer Version installed! Installed: "  + version + ", Latest: " + publishedVersion);
+        updateProgress(++counter, max + 1);
+        showStatus("Neuere Version als die verffentlichte installiert.");
+        area.enableDownload(downloadUrl, publishedVersion);
+        updateProgress(max, max);
+      } else {
+        /*
+         * Informs the User, that the installed version might be flawed and recommends an Update.
+         * Also enables the Download to be able to update the Version.
+         */
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+            "Flawed Version installed! Installed: "  + version + ", Latest: " + publishedVersion);
+        LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+            "Flawed Version of " + name + " installed! Installed: "  + version + ", Latest: " 
+            + publishedVersion);
+        updateProgress(++counter, max + 1);
+        showStatus("Fehlerhafte Versionsnummer gefunden. Update empfohlen!");
+        area.enableDownload(downloadUrl, publishedVersion);
+        updateProgress(max, max);
+      }
+    } else {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "AutoUpdate triggered!");
+      updateProgress(++counter, max + 1);
+      showStatus("Fehlerhafte Installation gefunden. Update notwendig!");
+      area.enableDownload(downloadUrl, publishedVersion);
+      updateProgress(max, max);
     }
     /*
-     * Creates all needed variables for the Task. An URL, where the given path will be saved in, a 
-     * BufferedReader to read the File on the Website and a boolean value, if a connection was 
-     * established.
+     * If a Download was enabled, an interrupted Download of the published Version can be resumed.
      */
-    URL url;
-    BufferedReader br;
+    if (autoUpdate || !upgrade.isCurrent()) {
+      offerResume(publishedVersion);
+    }
+    /*
+     * Sets the Path in the AppDisplayArea to the Executable File in the Folder, hides the 
+     * ProgressBar, since this Task is finished and stops this Task.
+     */
+    area.setPath(localPath + name + File.separator + repo + ".jar");
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "UpdateTask finished!");
+    area.hideProgressBar();
+    return status;
+  }
+  
+  /**
+   * Requests the Version File of the Repository and reads all Lines of its Version Information. 
+   * If the Version File couldn't be requested or the Request was cancelled, the User is informed 
+   * and this Task can be restarted via the Message Label.
+
+   * @return  All Lines of the Version Information or {@code null}, if this Task has to stop.
+   * @throws IOException  If the Tokenizer couldn't be closed.
+   * @since 1.0
+   */
+  private ArrayList<String> fetchVersionFile() throws IOException {
+    /*
+     * Creates all needed variables for the Task. A Tokenizer to read the Version File of the 
+     * Repository and a boolean value, if a connection was established.
+     */
+    ManifestTokenizer tokens;
     boolean connected = true;
     /*
      * Tries to connect to the Website. If no connection could be established, this Try-Block will 
@@ -165,32 +348,28 @@ public class UpdateTask extends Task<Void> {
      */
     try {
       /*
-       * Tries to open a connection to the given path and connects to the Website.
-       */
-      url = new URL(path);
-      // Get the input stream through URL Connection
-      URLConnection con = url.openConnection();
-      con.connect();
-      /*
-       * Gets the InputStream from the Connection and creates a new BufferedReader to read from it.
+       * Tries to fetch the Version File through the HttpCache, which only downloads it, if it was 
+       * modified since the last Start. Closing the Tokenizer returns the Connection to the 
+       * HttpService.
        */
-      InputStream is = con.getInputStream();
-      br = new BufferedReader(new InputStreamReader(is));
+      //TODO: Support MultiDeveloping?
+      tokens = ManifestTokenizer.fetch(repo, "version.txt", Deadlines.METADATA, this::isCancelled, 
+          VersionLookup.VERSION_BLOCK);
       /*
        * Updates the User.
        */
       updateProgress(++counter, max);
       LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
           "Connection to the Website of " + name + " established!");
-      area.updateMessage("Verbindung hergestellt");
+      showStatus("Verbindung hergestellt");
     } catch (IOException e) {
       /*
        * If an Error was thrown when connecting to the Website, this Catch-Block will be executed.
        * 
-       * Adds an EventHandler to the Label in AppDisplayArea, which will be able to restart this 
-       * Task, when the User clicks on the Label.
+       * Adds an EventHandler to the Message in AppDisplayArea, which will be able to restart this 
+       * Task, when the User clicks on the Message.
        */
-      area.getMessageLabel().setOnMouseClicked(new EventHandler<MouseEvent>() {
+      area.setOnMessageClicked(new EventHandler<MouseEvent>() {
         @Override
         public void handle(MouseEvent arg0) {
           /*
@@ -208,21 +387,21 @@ public class UpdateTask extends Task<Void> {
       /*
        * Updates the User, that no connection could be established.
        */
-      area.updateMessage("Keine Internetverbindung entdeckt. Hier klicken fr Neuversuch.");
+      showStatus("Keine Internetverbindung entdeckt. Hier klicken fr Neuversuch.");
       area.hideProgressBar();
       LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
           "Connection to the Website failed! " + name + " couldn't be updated!");
       LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
           "Connection to the Website failed! " + name + " couldn't be updated!");
       /*
-       * Since there is no connection to the Website, this Reader cannot be created. Since it is 
+       * Since there is no connection to the Website, this Tokenizer cannot be created. Since it is 
        * used later on, it has to be set to null to prevent errors. Also sets connected to false to 
        * be able to hide the ProgressBar in the next step.
        */
-      br = null;
+      tokens = null;
       connected = false;
     }
-    
+  
     /*
      * If this Task couldn't connect to the Webpage, there is need for the ProgressBar anymore, so 
      * it will be hidden in this step.
@@ -234,292 +413,183 @@ public class UpdateTask extends Task<Void> {
       return null;
     }
     /*
-     * Creates an empty String to store version numbers.
+     * Creates an empty List to store version numbers.
      */
-    String s = "";
-    
+    ArrayList<String> lines = new ArrayList<String>();
+  
     /*
-     * A String, that saves the line, that was last read. Will be updated after each br.readLine().
+     * A String, that saves the line, that was last read. Will be updated after each 
+     * tokens.next().
      */
     String line = null;
-    
-    /*
-     * A boolean to determine, if the current part of the InputStream contains 
-     * information about the Version.
-     */
-    boolean list = false;
-    
+  
     /*
-     * Go through each line of the InputStream to search for version information.
+     * Go through each line of the version information. The Tokenizer stops reading at the End of 
+     * the version information.
      */
     try {
-      while ((line = br.readLine()) != null) {
+      /*
+       * This Line is always at the start of the Information about versions.
+       */
+      if (tokens.begin()) {
+        /*
+         * Updates the User, that the Version Information was found.
+         */
+        updateProgress(++counter, max);
+        showStatus("Versionsnummern gefunden.");
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Found list of Versions!");
+      }
+      while ((line = tokens.next()) != null) {
         /*
          * Checks if the Task was cancelled in the meantime to prevent deadlocks. In this case a 
          * new EventHandler is created, that is able to restart The Task. 
          */
         if (isCancelled()) {
-          area.getMessageLabel().setOnMouseClicked(new EventHandler<MouseEvent>() {
-            @Override
-            public void handle(MouseEvent arg0) {
-              /*
-               * Restarts this Task.
-               */
-              ArrayList<Integer> list = new ArrayList<Integer>();
-              list.add(index);
-              LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-                  "Restarting UpdateTask for " + name);
-              LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-                  "Restarting UpdateTask for " + name);
-              primary.startSpecificUpdateTasks(list);
-            }  
-          });
-          /*
-           * Updates the User, that the Time limit was exceeded and he can try for a Restart of 
-           * this Task.
-           * Also stops the further execution of this Task by returning null.
-           */
-          area.updateMessage("Zeitberschreitung! Hier klicken fr Neuversuch");
-          area.hideProgressBar();
-          area.setPath(localPath + name + File.separator + repo + ".jar");
-          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-              "TIMEOUT! Path set to: " + area.getPath());
-          LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-              "TIMEOUT! Path set to: " + area.getPath());
+          showTimeout();
           return null;
         }
         /*
-         * This String is always at the end of the version information.
+         * To prevent multiple executions of this updating process, this part checks, if this is 
+         * the first Line found, so it has to be the first version Information found.
          */
-        if (line.contains("#End Version File")) {
-          /*
-           * Sets list to false to stop further reading from the File and updates the User, that 
-           * the reading was finished.
-           */
-          list = false;
-          updateProgress(++counter, max);
-          area.updateMessage("Versionsabfrage abgeschlossen.");
-          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version check finished");
-        }
-        
-        /*
-         * We are now at the information part of the File. Here begins the allocation of 
-         * all versions that were released.
-         */
-        if (list) {
-          /*
-           * Remove HTML-Code from the String.
-           */
-          while (line.contains(">")) {
-            /*
-             * Checks if the Task was cancelled in the meantime to prevent deadlocks. In this case 
-             * a new EventHandler is created, that is able to restart The Task. 
-             */
-            if (isCancelled()) {
-              area.getMessageLabel().setOnMouseClicked(new EventHandler<MouseEvent>() {
-                @Override
-                public void handle(MouseEvent arg0) {
-                  /*
-                   * Restarts this Task.
-                   */
-                  ArrayList<Integer> list = new ArrayList<Integer>();
-                  list.add(index);
-                  LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-                      "Restarting UpdateTask for " + name);
-                  LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-                      "Restarting UpdateTask for " + name);
-                  primary.startSpecificUpdateTasks(list);
-                }  
-              });
-              /*
-               * Updates the User, that the Time limit was exceeded and he can try for a Restart of 
-               * this Task.
-               * Also stops the further execution of this Task by returning null.
-               */
-              area.updateMessage("Zeitberschreitung! Hier klicken fr Neuversuch");
-              area.hideProgressBar();
-              area.setPath(localPath + name + File.separator + repo + ".jar");
-              LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-                  "TIMEOUT! Path set to: " + area.getPath());
-              LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-                  "TIMEOUT! Path set to: " + area.getPath());
-              return null;
-            }
-            /*
-             * Removes the HTML-Code from the String.
-             */
-            line = line.replaceFirst(line.substring(line.indexOf("<"), 
-                line.indexOf(">") + 1), "");
-          }
-          /*
-           * If the Line still contains Information after removing all HTML-Code, then there 
-           * are version numbers stored in it. It is added to the String defined before with a line 
-           * Separator at the end to prevent malformed version Information.
-           */
-          if (line.trim().length() != 0) {
-            /*
-             * To prevent multiple executions of this updating process, this part checks, if this 
-             * is the first addition to s, so it has to be the first version Information found.
-             */
-            if (s.length() == 0) {
-              /*
-               * Updates the User, that the version Information was read. Next Line will be 
-               * #End Version File, so the Loop will now be stopped.
-               */
-              updateProgress(++counter, max);
-              area.updateMessage("Versionsnummer wurde ausgelesen");
-              LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version found!");
-            }
-            
-            s = s.concat(line.trim() + System.lineSeparator());
-          }
-        }
-        /*
-         * This Line is always at the start of the Information about versions. This is checked 
-         * here to remove a line from s.
-         */
-        if (line.contains("#Begin Version File")) {
-          list = true;
-          /*
-           * Updates the User, that the Version Information was found.
-           */
+        if (lines.isEmpty()) {
           updateProgress(++counter, max);
-          area.updateMessage("Versionsnummern gefunden.");
-          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Found list of Versions!");
+          showStatus("Versionsnummer wurde ausgelesen");
+          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version found!");
         }
+        lines.add(line);
+      }
+      /*
+       * This String is always at the end of the version information. Updates the User, that the 
+       * reading was finished.
+       */
+      if (tokens.isComplete()) {
+        updateProgress(++counter, max);
+        showStatus("Versionsabfrage abgeschlossen.");
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version check finished");
       }
     } catch (IOException e) {
-      e.printStackTrace();
-    }
-    /*
-     * Closes the Reader to prevent Resource Leak.
-     */
-    br.close();
-    
-    /*
-     * Updates the User, that the Found version Information are now compared to the installed 
-     * version.
-     */
-    updateProgress(++counter, max);
-    area.updateMessage("Verarbeite Versionsnummern...");
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Processing Version Strings...");
-    /*
-     * Creates a new StringTokenizer to separate single versions from the the Version Information 
-     * found beforehand. Also deletes the first Token, since this will always be "Current Version:" 
-     * and is not useful for the further Steps.
-     */
-    StringTokenizer st = new StringTokenizer(s, System.lineSeparator());
-    st.nextToken();
-    /*
-     * Saves the second Token, which contains the latest published Version. Also deletes the next 
-     * Token, since this will be an empty line.
-     */
-    final String publishedVersion = st.nextToken();
-    st.nextToken();
-    /*
-     * Creates a new ArrayList, that will save all older Versions.
-     */
-    ArrayList<String> oldVersions = new ArrayList<String>();
-    /*
-     * Adds all remaining Tokens to the ArrayList.
-     */
-    while (st.hasMoreTokens()) {
-      oldVersions.add(st.nextToken());
-    }
-    /*
-     * Informs the User, that the published Version Information was checked.
-     */
-    updateProgress(++counter, max);
-    area.updateMessage("Version berprft.");
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version checked!");
-    
-    //Space for possible Additions, that might be necessary in the future between these Steps.
-    
-    /*
-     * Informs the User, that the Task will now check for an installed Version.
-     */
-    updateProgress(++counter, max);
-    area.updateMessage("berprfe installierte Version...");
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Checking installed version...");
-    
-    /*
-     * Checks for an installed Version via checkVersion(). If no Version is installed, it updates 
-     * the User and stops the Task.
-     */
-    if (!checkVersion()) {
-      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-          "No Version File for " + name + " found!");
+      /*
+       * A cancelled or timed out Request is aborted, so the Read fails instead of returning the 
+       * next Line. In this case, the Version Information is incomplete and can't be used.
+       */
+      if (isCancelled() || e instanceof InterruptedIOException) {
+        showTimeout();
+        return null;
+      }
+      /*
+       * Any other Error leaves the Version Information incomplete as well. Instead of processing 
+       * the Lines read so far, a Restart is offered to the User.
+       */
       LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-          "No version File for " + name + " found!");
-      updateProgress(max, max);
-      area.updateMessage("Keine Versionsdatei gefunden. Neuinstallation empfohlen!");
-      area.enableDownload("https://github.com/Haeldeus/" + repo + "/releases/download/v" 
-          + publishedVersion + "/" + name + ".jar", publishedVersion);
-      area.hideProgressBar();
-      area.setPath(localPath + name + File.separator + repo + ".jar");
+          "Reading the Version File of " + name + " failed: " + e.getMessage());
+      offerRestart("Versionsabfrage fehlgeschlagen. Hier klicken fr Neuversuch.");
       LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-          "No Version File found, Path set to: " + area.getPath());
+          "Version File couldn't be read, Path set to: " + area.getPath());
       return null;
-    }
-    
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Version Check completed!");
-    
-    if (!autoUpdate) {
+    } finally {
       /*
-       * Checks, if the latest published Version is installed or an older version is installed. In 
-       * any other case (wrong version Information, or some yet unknown errors), this If-Clause 
-       * will go to the else-Part.
+       * Closes the Tokenizer to prevent Resource Leak, even if the Task was cancelled.
        */
-      if (publishedVersion.contentEquals(version)) {
-        /*
-         * Informs the User, that the latest Version is installed and disables the DownloadButton.
-         */
-        updateProgress(max, max);
-        area.updateMessage("Neuste Version vorhanden!");
-        area.switchDownloadButton(true);
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Latest Version installed!");
-      } else if (oldVersions.contains(version)) {
-        /*
-         * Informs the User, that an update was found and enables the Download for this Update.
-         */
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Outdated Version installed!");
-        updateProgress(++counter, max + 1);
-        area.updateMessage("Update gefunden!");
-        area.enableDownload("https://github.com/Haeldeus/" + repo + "/releases/download/v" 
-            + publishedVersion + "/" + name + ".jar", publishedVersion);
-        updateProgress(max, max);
-      } else {
+      tokens.close();
+    }
+    return lines;
+  }
+  
+  /**
+   * Informs the User, that the Time limit was exceeded, and adds an EventHandler to the Label in 
+   * the AppDisplayArea, which is able to restart this Task.
+
+   * @since 1.0
+   */
+  private void showTimeout() {
+    /*
+     * Updates the User, that the Time limit was exceeded and he can try for a Restart of 
+     * this Task.
+     */
+    offerRestart("Zeitberschreitung! Hier klicken fr Neuversuch");
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+        "TIMEOUT! Path set to: " + area.getPath());
+    LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+        "TIMEOUT! Path set to: " + area.getPath());
+  }
+  
+  /**
+   * Displays the given Message, hides the ProgressBar and adds an EventHandler to the Label in 
+   * the AppDisplayArea, which is able to restart this Task. The Path is set to the installed 
+   * Application, so it can still be started.
+
+   * @param message The Message, that tells the User, why the Task stopped.
+   * @since 1.0
+   */
+  private void offerRestart(String message) {
+    area.setOnMessageClicked(new EventHandler<MouseEvent>() {
+      @Override
+      public void handle(MouseEvent arg0) {
         /*
-         * Informs the User, that the installed version might be flawed and recommends an Update.
-         * Also enables the Download to be able to update the Version.
+         * Restarts this Task.
          */
+        ArrayList<Integer> list = new ArrayList<Integer>();
+        list.add(index);
         LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-            "Flawed Version installed! Installed: "  + version + ", Latest: " + publishedVersion);
+            "Restarting UpdateTask for " + name);
         LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-            "Flawed Version of " + name + " installed! Installed: "  + version + ", Latest: " 
-            + publishedVersion);
-        updateProgress(++counter, max + 1);
-        area.updateMessage("Fehlerhafte Versionsnummer gefunden. Update empfohlen!");
-        area.enableDownload("https://github.com/Haeldeus/" + repo + "/releases/download/v" 
-            + publishedVersion + "/" + name + ".jar", publishedVersion);
-        updateProgress(max, max);
-      }
-    } else {
-      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "AutoUpdate triggered!");
-      updateProgress(++counter, max + 1);
-      area.updateMessage("Fehlerhafte Installation gefunden. Update notwendig!");
-      area.enableDownload("https://github.com/Haeldeus/" + repo + "/releases/download/v" 
-          + publishedVersion + "/" + name + ".jar", publishedVersion);
-      updateProgress(max, max);
-    }
-    /*
-     * Sets the Path in the AppDisplayArea to the Executable File in the Folder, hides the 
-     * ProgressBar, since this Task is finished and stops this Task.
-     */
-    area.setPath(localPath + name + File.separator + repo + ".jar");
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "UpdateTask finished!");
+            "Restarting UpdateTask for " + name);
+        primary.startSpecificUpdateTasks(list);
+      }  
+    });
+    showStatus(message);
     area.hideProgressBar();
-    return null;
+    area.setPath(localPath + name + File.separator + repo + ".jar");
+  }
+  
+  /**
+   * Shows the given Status to the User and remembers it as the last Status of this Task.
+
+   * @param message The Status to be shown.
+   * @since 1.0
+   */
+  private void showStatus(String message) {
+    status = message;
+    area.updateMessage(message);
+  }
+  
+  /**
+   * Checks, if a Download of this Application was interrupted, e.g. by a power cut. The already 
+   * downloaded Blocks are checked against the Journal, so damaged Blocks will be downloaded again. 
+   * If the interrupted Download belongs to an older Version, it's discarded. Otherwise, the User 
+   * is informed, that the Download can be resumed.
+
+   * @param publishedVersion  The latest published Version of the Application.
+   * @since 1.0
+   */
+  private void offerResume(String publishedVersion) {
+    DownloadJournal journal = DownloadJournal.find(
+        new File(localPath + name + File.separator + repo + ".jar"));
+    if (journal == null) {
+      return;
+    }
+    if (!publishedVersion.equals(journal.getVersion())) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+          "Discarding interrupted Download of Version " + journal.getVersion());
+      journal.discard();
+      return;
+    }
+    long valid;
+    try {
+      valid = journal.validate();
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+          "Couldn't check the interrupted Download: " + e.getMessage());
+      journal.discard();
+      return;
+    }
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+        "Interrupted Download found with " + valid + "B");
+    if (valid > 0 && journal.getLength() > 0) {
+      showStatus("Unterbrochener Download gefunden (" + valid * 100 / journal.getLength() 
+          + "%). Zum Fortsetzen auf Download klicken.");
+    }
   }
   
   /**
@@ -535,7 +605,7 @@ public class UpdateTask extends Task<Void> {
      * Updates the User, that the local Version is being read.
      */
     updateProgress(++counter, max);
-    area.updateMessage("Lade lokale Versionsdatei...");
+    showStatus("Lade lokale Versionsdatei...");
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Reading local Version File...");
     /*
      * Creates a String that contains the path to the Version-File.
@@ -545,7 +615,7 @@ public class UpdateTask extends Task<Void> {
      * Updates the User, that the File is being checked.
      */
     updateProgress(++counter, max);
-    area.updateMessage("berprfe installierte Version");
+    showStatus("berprfe installierte Version");
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Checking installed Version...");
     /*
      * If no Version-File exists, an Error will be thrown when trying to read from it. To prevent 
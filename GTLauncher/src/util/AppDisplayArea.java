@@ -2,34 +2,37 @@ package util;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 import javafx.application.Platform;
-import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
-import javafx.scene.control.Button;
-import javafx.scene.control.Label;
-import javafx.scene.control.ProgressBar;
-import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.GridPane;
-import javafx.scene.layout.HBox;
+import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import loggingtool.LoggingTool;
+import tasks.DownloadScheduler;
 import tasks.DownloadTask;
+import util.icons.IconService;
 
 /**
  * The Area that displays each single Application added to the Launcher. Every Area can also 
  * display the Update News for this Application.
+ * <br>The Area only holds the State of the Application in Properties. It's displayed by an 
+ * {@link AppListCell}, that binds its Nodes to these Properties, as long as the Area is visible. 
+ * This way, only the visible Areas have Nodes, no matter how many Applications were published. 
+ * All Properties are changed on the JavaFX Application Thread. Changes requested by Tasks are 
+ * published to the {@link UiUpdateBus}, so only the latest Change of each Property is drawn per 
+ * Frame.
 
  * @author Haeldeus
  * @version {@value launcher.GastroToolsLauncher#version}
@@ -47,49 +50,117 @@ public class AppDisplayArea {
   private String pathToIcon;
   
   /**
-   * A Label, where potential Message will be displayed.
+   * The Path to the executable File.
    */
-  private Label messageLabel;
+  private String path;
   
   /**
-   * The Path to the executable File.
+   * The name of the Repository for this Application.
    */
-  private String path;
+  private String repo;
   
   /**
-   * The Buttons, that are embedded in this Area in an ArrayList.
+   * The primary Stage, that contains this DisplayArea.
    */
-  private ArrayList<Button> buttons;
+  private Stage primary;
   
   /**
-   * The ProgressBar, which indicates the Progress of the Update.
+   * The current amount of tries increased by one to reach the Server for this specific 
+   * Application. Is used in the CheckerTask to increase the timeout.
    */
-  private ProgressBar pb;
+  private int iteration;
   
   /**
-   * The Grid, that contains the bottom Part of the DisplayArea.
+   * The Download of this Application, that is controlled by the {@link DownloadScheduler}. 
+   * {@code null}, if no Download was started yet.
    */
-  private GridPane bottomGrid;
+  private DownloadScheduler.Job download;
   
   /**
-   * The name of the Repository for this Application.
+   * The Length of the published File in bytes or -1, if it wasn't published in the Catalog.
    */
-  private String repo;
+  private long publishedLength = -1;
   
   /**
-   * The primary Stage, that contains this DisplayArea.
+   * The SHA-256 Checksum of the published File or {@code null}, if it wasn't published in the 
+   * Catalog.
    */
-  private Stage primary;
+  private String publishedChecksum;
   
   /**
-   * The current amount of tries increased by one to reach the Server for this specific 
-   * Application. Is used in the CheckerTask to increase the timeout.
+   * Determines, if the Icon was requested, because the Area was displayed.
    */
-  private int iteration;
-
+  private boolean iconRequested;
+  
+  /**
+   * The Future of the Icon, that is loaded right now, or {@code null}, if no Icon is loaded.
+   */
+  private CompletableFuture<Image> iconLoad;
+  
+  /**
+   * The Message, that is displayed to the User.
+   */
+  private final StringProperty message = new SimpleStringProperty("");
+  
+  /**
+   * The Handler, that is called, when the User clicks on the Message.
+   */
+  private final ObjectProperty<EventHandler<MouseEvent>> onMessageClicked = 
+      new SimpleObjectProperty<EventHandler<MouseEvent>>();
+  
+  /**
+   * The Progress of the Update or the Download.
+   */
+  private final DoubleProperty progress = new SimpleDoubleProperty(-1);
+  
+  /**
+   * Determines, if the Progress is displayed.
+   */
+  private final BooleanProperty progressVisible = new SimpleBooleanProperty(true);
+  
+  /**
+   * The disabled Status of the Start Button.
+   */
+  private final BooleanProperty startDisabled = new SimpleBooleanProperty();
+  
+  /**
+   * The disabled Status of the Download Button.
+   */
+  private final BooleanProperty downloadDisabled = new SimpleBooleanProperty();
+  
+  /**
+   * The disabled Status of the Delete Button.
+   */
+  private final BooleanProperty deleteDisabled = new SimpleBooleanProperty();
+  
+  /**
+   * The Handler of the Download Button or {@code null}, if the Download wasn't enabled yet.
+   */
+  private final ObjectProperty<EventHandler<ActionEvent>> downloadAction = 
+      new SimpleObjectProperty<EventHandler<ActionEvent>>();
+  
+  /**
+   * The Icon of the Application or {@code null}, if the Area wasn't displayed yet.
+   */
+  private final ObjectProperty<Image> icon = new SimpleObjectProperty<Image>();
+  
+  /**
+   * Determines, if the Download is displayed instead of the Message.
+   */
+  private final BooleanProperty downloading = new SimpleBooleanProperty();
+  
+  /**
+   * The Progress of the Download as a Text.
+   */
+  private final StringProperty downloadText = new SimpleStringProperty("");
+  
   /**
-   * A Constructor for the Area. This will set all Fields to the given values and initiates 
-   * {@link #messageLabel} and {@link #buttons} to default values.
+   * The remaining Time of the Download as a Text.
+   */
+  private final StringProperty downloadTime = new SimpleStringProperty("");
+  
+  /**
+   * A Constructor for the Area. This will set all Fields to the given values.
 
    * @param name  The name of the Application in this Area.
    * @param pathToIcon  The Path to the Icon for the Application.
@@ -104,8 +175,6 @@ public class AppDisplayArea {
     this.pathToIcon = pathToIcon;
     this.repo = repo;
     this.primary = primary;
-    messageLabel = new Label("");
-    buttons = new ArrayList<Button>();
     iteration = 1;
   }
   
@@ -120,246 +189,170 @@ public class AppDisplayArea {
     this.setName("Placeholder");
     this.setPath("");
     this.setRepo("");
-    messageLabel = new Label("");
-    buttons = new ArrayList<Button>();
     iteration = 1;
   }
   
   /**
-   * Creates the DisplayArea as a BorderPane.
+   * Starts the Application of this Area. If the path isn't an empty String, there is an 
+   * executable File, that will be executed and the Launcher will be closed afterwards. In case 
+   * there wasn't an executable File, nothing happens, except for an Error Message.
 
-   * @return The Area as a BorderPane.
    * @since 1.0
    */
-  public BorderPane createDisplayArea() {
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Creating AppDisplayArea...");
-    /*
-     * Creates a new BorderPane, that will inherit the DisplayArea.
-     */
-    BorderPane bp = new BorderPane();
-    /*
-     * Creates a new Label, that will display the Application in this DisplayArea and adds it to 
-     * the top of the BorderPane.
-     */
-    Label lbName = new Label(name);
-    lbName.setMaxWidth(300);
-    lbName.setAlignment(Pos.CENTER);
-    bp.setTop(lbName);
-    
-    /*
-     * Creates an ImageView for the Icon of the Application in this DisplayArea. If the Path to 
-     * the Icon was wrongly set or is null, the Default Icon will be used instead.
-     */
-    Image img;
-    if (urlExists(pathToIcon)) {
-      img = new Image(pathToIcon);
-    } else {
-      img = new Image("/res/Default.png");
-    }
-    ImageView iw = new ImageView(img);
-    iw.setFitWidth(50);
-    iw.setFitHeight(50);
-    
-    HBox hboxImage = new HBox();
-    hboxImage.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-border-style: solid;");
-    hboxImage.getChildren().add(iw);
-    
-    /*
-     * Creates a GridPane, that will contain the Icon and the Buttons for this DisplayArea.
-     * It will be added to the Center of the BorderPane later.
-     */
-    GridPane grid = new GridPane();
-    grid.setHgap(10);
-    grid.setVgap(10);
-    grid.setPadding(new Insets(10, 10, 10, 10));
-    /*
-     * Adds the ImageView to the Grid.
-     */
-    grid.add(hboxImage, 0, 0);
-    
-    /*
-     * Creates a GridPane, that will contain all Buttons for this DisplayArea.
-     */
-    GridPane buttonPane = new GridPane();
-    buttonPane.setHgap(10);
-    buttonPane.setVgap(10);
-    buttonPane.setAlignment(Pos.CENTER);
-    
-    /*
-     * Adds a Start Button to the DisplayArea with the defined ActionHandler.
-     */
-    Button start = new Button();    
-    Image startImg = new Image("/res/Start.png");
-    ImageView startView = new ImageView(startImg);
-    startView.setFitWidth(20);
-    startView.setFitHeight(20);
-    start.setTooltip(new Tooltip("Anwendung starten"));
-    start.setGraphic(startView);
-    start.setOnAction(new EventHandler<ActionEvent>() {
-      @Override
-      public void handle(ActionEvent arg0) {
+  public void start() {
+    if (!path.equals("")) {
+      try {
+        // Run a java application in a separate system process
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+            "Running executable File for " + name);
+        Runtime.getRuntime().exec("java -jar " + path, null, 
+            new File(path.substring(0, path.lastIndexOf(File.separator))));
         /*
-         * If the path isn't an empty String, there is an executable File, that will be executed 
-         * and the Launcher will be closed afterwards. In case there wasn't an executable File, 
-         * nothing happens, except for an Error Message in the Label.
+         * Exits this Process with the default integer 0.
          */
-        if (!path.equals("")) {
-          try {
-            // Run a java application in a separate system process
-            LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-                "Running executable File for " + name);
-            Runtime.getRuntime().exec("java -jar " + path, null, 
-                new File(path.substring(0, path.lastIndexOf(File.separator))));
-            /*
-             * Exits this Process with the default integer 0.
-             */
-            //TODO: Make this editable by the User.
-            System.exit(0);
-          } catch (IOException e) {
-            /*
-             * This catch shouldn't happen. But in case a Path was set despite no executable File 
-             * exists, this catch is necessary.
-             */
-            e.printStackTrace();
-            messageLabel.setText("Fehler beim Starten von " + name + "!");
-            LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
-                "Error when starting " + name + "! Check previous Logs for possible Causes.");
-            LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
-                "Error when starting " + name + "! Check previous Logs for possible Causes.");
-          }
-        } else {
-          messageLabel.setText("Konnte Anwendung nicht starten, da keine ausfhrbare Datei "
-              + "vorhanden ist!");
-          LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Tried to execute " + name 
-              + ", but no executable File was found!");
-        }
+        //TODO: Make this editable by the User.
+        System.exit(0);
+      } catch (IOException e) {
+        /*
+         * This catch shouldn't happen. But in case a Path was set despite no executable File 
+         * exists, this catch is necessary.
+         */
+        e.printStackTrace();
+        message.set("Fehler beim Starten von " + name + "!");
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
+            "Error when starting " + name + "! Check previous Logs for possible Causes.");
+        LoggingTool.logError(getClass(), LoggingTool.getLineNumber(), 
+            "Error when starting " + name + "! Check previous Logs for possible Causes.");
       }    
-    }); 
-    buttonPane.add(start, 0, 0);
-    buttons.add(start);
-    
-    /*
-     * Adds a Download Button to the Area. Since the Handler will be added later, when the 
-     * Download Path is known, it won't be added here.
-     */
-    Button download = new Button();    
-    Image downloadImg = new Image("/res/Download.png");
-    ImageView downloadView = new ImageView(downloadImg);
-    downloadView.setFitWidth(20);
-    downloadView.setFitHeight(20);
-    download.setTooltip(new Tooltip("Neue Version herunterladen"));
-    download.setGraphic(downloadView);
-    buttonPane.add(download, 1, 0);
-    buttons.add(download);
-    
-    /*
-     * Adds a Delete Button to the Area. A Handler is added to it as well, which will delete the 
-     * Folder of this Application when pressed.
-     */
-    Button delete = new Button();    
-    Image deleteImg = new Image("/res/Delete.png");
-    ImageView deleteView = new ImageView(deleteImg);
-    deleteView.setFitWidth(20);
-    deleteView.setFitHeight(20);
-    delete.setTooltip(new Tooltip("Anwendung lschen"));
-    delete.setGraphic(deleteView);
-    delete.setOnAction(new EventHandler<ActionEvent>() {
-      @Override
-      public void handle(ActionEvent arg0) {
-        //TODO: Implement Deleting Folders.
-        messageLabel.setText("Lschen ist bislang noch nicht implementiert. Bitte manuell den "
-            + "Ordner entfernen.");
-      }
-    });
-    buttonPane.add(delete, 2, 0);
-    buttons.add(delete);
-    
-    /*
-     * Adds the Button Pane to the Grid and lets it fill the remaining space in the width.
-     */
-    grid.add(buttonPane, 1, 0);
-    GridPane.setFillWidth(buttonPane, true);
-    
-    /*
-     * Adds the Grid to the BorderPane.
-     */
-    bp.setCenter(grid);
-    
-    /*
-     * Creates a new Grid where information can be displayed as well as a ProgressBar, that is 
-     * needed when the Application is updated.
-     * Adds the MessageLabel to this Grid.
-     */
-    bottomGrid = new GridPane();
-    bottomGrid.add(messageLabel, 0, 0);
-    
-    /*
-     * Creates a new ProgressBar and adds it to the Grid.
-     */
-    pb = new ProgressBar();
-    bottomGrid.add(pb, 0, 1);
-    
-    /*
-     * Adds the Grid to the Bottom of the BorderPane and returns said BorderPane afterwards.
-     */
-    bp.setBottom(bottomGrid);
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "AppDisplayArea created!");
-    return bp;
+    } else {
+      message.set("Konnte Anwendung nicht starten, da keine ausfhrbare Datei vorhanden ist!");
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Tried to execute " + name 
+          + ", but no executable File was found!");
+    }
   }
+  
+  /**
+   * Deletes the Folder of the Application of this Area.
 
+   * @since 1.0
+   */
+  public void delete() {
+    //TODO: Implement Deleting Folders.
+    message.set("Lschen ist bislang noch nicht implementiert. Bitte manuell den Ordner " 
+        + "entfernen.");
+  }
+  
   /**
-   * Prepares the Area for the Download by removing all unwanted content from the BottomGrid and 
-   * adding a ProgressBar to it.
+   * Requests the Icon of this Area, when it's displayed for the first Time. Unless the Icon was 
+   * already loaded, the Default Icon is shown, until the Icon was loaded in the Background. Has 
+   * to be called on the JavaFX Application Thread.
+
+   * @since 1.0
+   */
+  public void requestIcon() {
+    if (iconRequested) {
+      return;
+    }
+    iconRequested = true;
+    Image img = IconService.cached(pathToIcon);
+    icon.set(img == null ? IconService.placeholder() : img);
+    if (img == null) {
+      reloadIcon();
+    }
+  }
+  
+  /**
+   * Cancels loading the Icon of this Area, because it isn't displayed anymore. If the Icon wasn't 
+   * loaded yet, it's requested again, when the Area is displayed next time. Has to be called on 
+   * the JavaFX Application Thread.
+
+   * @since 1.0
+   */
+  public void cancelIcon() {
+    if (iconLoad != null && !iconLoad.isDone()) {
+      iconLoad.cancel(true);
+      iconRequested = false;
+    }
+    iconLoad = null;
+  }
+  
+  /**
+   * Prepares the Area for the Download by displaying the Progress of the Download instead of the 
+   * Message. Called by the Download Button on the JavaFX Application Thread, so the Area is 
+   * prepared at once and the Scheduler can display the position in the Queue right away.
 
    * @param downloadPath  The URL to the File to be downloaded.
    * @param version The Version of the File to be downloaded.
+   * @param installedVersion  The installed Version, that might be patched to the new Version or 
+   *      {@code null}, if the whole File has to be downloaded.
    * @since 1.0
    */
-  private void prepareDownload(String downloadPath, String version) {
-    
+  private void prepareDownload(String downloadPath, String version, String installedVersion) {
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Preparing download...");
     /*
-     * Adds two new Labels to the bottomGrid to display information to the Client.
+     * Shows the Progress and the two Texts of the Download instead of the Message. A pending 
+     * Update of a previous Download is discarded, so it doesn't hide this Download.
      */
-    Label updates = new Label();
-    Label length = new Label();
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Preparing download...");
-    Platform.runLater(new Runnable() {
-      @Override
-      public void run() {
-        /*
-         * Removes the first Child from the bottomGrid until there are no more Children to remove.
-         */
-        while (bottomGrid.getChildren().size() != 0) {
-          bottomGrid.getChildren().remove(0);
-        }
-        /*
-         * Adds a new ProgressBar to the BottomGrid.
-         */
-        pb = new ProgressBar();
-        bottomGrid.add(pb, 0, 0);
-        
-        bottomGrid.add(updates, 0, 1);
-        
-        bottomGrid.add(length, 0, 2);
-        
-      }
-    });
-    DownloadTask task = new DownloadTask(downloadPath, new File(path), updates, length, 
-        version, this);
-    bindProgressBar(task);
-    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Starting DownloadTask");
-    new Thread(task).start();
+    UiUpdateBus.discard(this, "download");
+    UiUpdateBus.discard(this, "downloadText");
+    progress.unbind();
+    progress.set(-1);
+    progressVisible.set(true);
+    downloadText.set("");
+    downloadTime.set("");
+    downloading.set(true);
     /*
-     * Adds a new EventHandler to the onCloseRequest to cancel the Update, when the User closes the 
-     * Application.
+     * Hands the Download to the Scheduler. Each Start and Resume of the Download creates a new 
+     * DownloadTask, that continues with the already downloaded Data.
+     */
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Queueing DownloadTask");
+    AppDisplayArea area = this;
+    long fileLength = publishedLength;
+    String checksum = publishedChecksum;
+    download = DownloadScheduler.get().submit(name, () -> {
+      DownloadTask task = new DownloadTask(downloadPath, new File(path), downloadText, 
+          downloadTime, version, installedVersion, area);
+      task.setPublished(fileLength, checksum);
+      bindProgressBar(task);
+      return task;
+    }); 
+    download.positionProperty().addListener((observable, oldValue, newValue) -> 
+        showSuspended());
+    download.stateProperty().addListener((observable, oldValue, newValue) -> showSuspended());
+    /*
+     * Adds a new EventHandler to the onCloseRequest to cancel all Downloads, when the User closes 
+     * the Application.
      */
     primary.setOnCloseRequest(new EventHandler<WindowEvent>() {
       @Override
       public void handle(WindowEvent event) {
-        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Cancelling DownloadTask...");
-        task.cancel();
-      }
-    });
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Cancelling DownloadTasks...");
+        DownloadScheduler.get().cancelAll();
+      }    
+    }); 
+  }
+  
+  /**
+   * Displays the State of the Download, if it's waiting in the Queue or paused. A Progress of the 
+   * Download, that is still pending in the {@link UiUpdateBus}, is discarded, so it doesn't 
+   * replace the State. Has to be called on the JavaFX Application Thread.
+
+   * @since 1.0
+   */
+  private void showSuspended() {
+    if (download == null) {
+      return;
+    }
+    if (download.getState() == DownloadScheduler.State.PAUSED) {
+      UiUpdateBus.discard(this, "downloadText");
+      downloadText.set("Download pausiert. Zum Fortsetzen erneut klicken.");
+      downloadTime.set("");
+    } else if (download.getState() == DownloadScheduler.State.QUEUED 
+        && download.positionProperty().get() > 0) {
+      UiUpdateBus.discard(this, "downloadText");
+      downloadText.set("In Warteschlange (" + download.positionProperty().get() + ".)");
+      downloadTime.set("");
+    }
   }
   
   /**
@@ -370,28 +363,44 @@ public class AppDisplayArea {
    * @since 1.0
    */
   public void downloadFinished(String text) {
-    Platform.runLater(new Runnable() {
+    /*
+     * If the Download was only paused or pushed back into the Queue, the Area keeps displaying the 
+     * Download.
+     */
+    if (download != null && (download.getState() == DownloadScheduler.State.PAUSED 
+        || download.getState() == DownloadScheduler.State.QUEUED)) {
+      UiUpdateBus.publish(this, "download", () -> showSuspended());
+      return;
+    }
+    UiUpdateBus.publish(this, "download", new Runnable() {
       @Override
       public void run() {
         /*
-         * Removes the first Child from the bottomGrid until there are no more Children to remove.
+         * Shows the Message instead of the Download again.
          */
-        while (bottomGrid.getChildren().size() != 0) {
-          bottomGrid.getChildren().remove(0);
-        }
-        
-        messageLabel.setText(text);
-        bottomGrid.add(messageLabel, 0, 0);
-        
-        pb = new ProgressBar();
-        bottomGrid.add(pb, 0, 1);
-        hideProgressBar();
-        
+        downloading.set(false);
+        message.set(text);
+        progress.unbind();
+        progressVisible.set(false);
+
         switchButtons(false, true, false);
         LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Download of " + name 
             + " finished with Message: \"" + text + "\"");
-      }
-    });
+      }    
+    }); 
+  }
+  
+  /**
+   * Sets the Length and the Checksum of the File, that will be downloaded, as they were published 
+   * in the Catalog. Has to be called before the Download is enabled.
+
+   * @param length  The Length of the File in bytes or -1, if it's unknown.
+   * @param checksum  The SHA-256 Checksum of the File or {@code null}, if it's unknown.
+   * @since 1.0
+   */
+  public void setPublishedArtifact(long length, String checksum) {
+    this.publishedLength = length;
+    this.publishedChecksum = checksum;
   }
   
   /**
@@ -402,95 +411,107 @@ public class AppDisplayArea {
    * @since 1.0
    */
   public void enableDownload(String downloadPath, String version) {
+    enableDownload(downloadPath, version, null);
+  }
+  
+  /**
+   * Adds a Handler to the DownloadButton to enable the Download. If a Patch from the given 
+   * installed Version to the new Version was published, only this Patch will be downloaded.
+   * <br>While the Download is queued or running, the DownloadButton pauses it, a paused Download 
+   * is resumed by it.
+
+   * @param downloadPath  The Path to the File to be downloaded.
+   * @param version The Version String of the File to be downloaded.
+   * @param installedVersion  The Version String of the installed File or {@code null}, if the 
+   *      whole File has to be downloaded.
+   * @since 1.0
+   */
+  public void enableDownload(String downloadPath, String version, String installedVersion) {
     LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Enabling Download...");
     switchDownloadButton(false);
-    /*
-     * Since the order of the Buttons is fixed, the Download Button can be called directly by 
-     * getting Button 1 from the ArrayList of Buttons.
-     */
-    buttons.get(1).setOnAction(new EventHandler<ActionEvent>() {
+    runOnFxThread(() -> downloadAction.set(new EventHandler<ActionEvent>() {
       @Override
       public void handle(ActionEvent arg0) {
-        /*
-         * Testing Purposes. Will be deleted afterwards.
-         */
-        prepareDownload(downloadPath, version);
-      }     
-    });
+        if (download != null && download.isActive()) {
+          download.pause();
+        } else if (download != null 
+            && download.getState() == DownloadScheduler.State.PAUSED) {
+          download.resume();
+        } else {
+          prepareDownload(downloadPath, version, installedVersion);
+        }
+      }    
+    }));
   }
   
   /**
-   * Binds the ProgressBar to the given Task's ProgressProperty. This enables the Task to update 
-   * the ProgressBar. Currently, this is only enabled for Void-Tasks, since there are no other 
-   * Tasks, that have to be bound to the ProgressBar.
+   * Binds the Progress to the given Task's ProgressProperty. This enables the Task to update 
+   * the ProgressBar.
 
-   * @param task  The Task, the ProgressBar will be bound to.
+   * @param task  The Task, the Progress will be bound to.
    * @since 1.0
    */
-  public void bindProgressBar(Task<Void> task) {
-    Platform.runLater(new Runnable() {
+  public void bindProgressBar(Task<?> task) {
+    UiUpdateBus.publish(this, "progress", new Runnable() {
       @Override
       public void run() {
         LoggingTool.log(getClass(), LoggingTool.getLineNumber(), 
             "Binding ProgressBar to following Task: " + task.toString());
-        pb.setVisible(true);
-
-        pb.progressProperty().addListener(new ChangeListener<Number>() {
-          @Override
-          public void changed(ObservableValue<? extends Number> observable, Number oldValue, 
-              Number newValue) {
-            pb.getStyleClass().removeAll();
-            double progress = newValue == null ? 0 : newValue.doubleValue();
-            int offset = (int) (progress * 255);
-            pb.setStyle("-fx-accent: rgb(" + (255 - offset) + ", " + offset + ",0);");
-          }          
-        });
-        
-        pb.progressProperty().bind(task.progressProperty());
-      }
-    });
+        progressVisible.set(true);
+        progress.bind(task.progressProperty());
+      }    
+    }); 
   }
   
   /**
-   * Sets the given Message as Text for the {@link #messageLabel} to inform the User with a Text.
+   * Sets the given Message to inform the User with a Text.
 
    * @param message The Message to be displayed as a String.
    * @since 1.0
    */
   public void updateMessage(String message) {
-    Platform.runLater(new Runnable() {
+    UiUpdateBus.publish(this, "message", new Runnable() {
       @Override
       public void run() {
-        messageLabel.setText(message);
+        AppDisplayArea.this.message.set(message);
       }    
-    });
+    }); 
   }
   
   /**
-   * Hides the ProgressBar from the BottomGrid. Since a new ProgressBar is added every time, it has 
-   * to be shown again, it will also be removed from the BottomGrid to ensure it is correctly 
-   * hidden. This might be fixed later to a better workaround.
+   * Hides the ProgressBar of this Area.
 
    * @since 1.0
    */
   public void hideProgressBar() {
-    Platform.runLater(new Runnable() {
+    UiUpdateBus.publish(this, "progressVisible", new Runnable() {
       @Override
       public void run() {
-        pb.setVisible(false);
-      }
-    });
+        progressVisible.set(false);
+      }    
+    }); 
   }
   
   /**
-   * Returns the {@link #messageLabel}. This is used in the UpdateTask to edit the EventHandlers of 
-   * the Label.
+   * Returns the Message, that is displayed to the User. Has to be called on the JavaFX 
+   * Application Thread.
 
-   * @return  The MessageLabel.
+   * @return  The current Message.
    * @since 1.0
    */
-  public Label getMessageLabel() {
-    return this.messageLabel;
+  public String getMessage() {
+    return message.get();
+  }
+  
+  /**
+   * Sets the Handler, that is called, when the User clicks on the Message. This is used in the 
+   * UpdateTask to restart the Task.
+
+   * @param handler The Handler or {@code null} to remove the current Handler.
+   * @since 1.0
+   */
+  public void setOnMessageClicked(EventHandler<MouseEvent> handler) {
+    runOnFxThread(() -> onMessageClicked.set(handler));
   }
   
   /**
@@ -503,7 +524,7 @@ public class AppDisplayArea {
   public String getName() {
     return name;
   }
-
+  
   /**
    * Sets the Name of the Application. This is used, if the Name wasn't set upon creating a new 
    * DisplayArea.
@@ -515,7 +536,27 @@ public class AppDisplayArea {
   public void setName(String name) {
     this.name = name;
   }
+  
+  /**
+   * Loads the Icon from {@link #pathToIcon} in the Background and displays it, once it was 
+   * loaded. If the Icon couldn't be loaded, the current Icon is kept. An Icon, that is still 
+   * loaded, isn't needed anymore and is cancelled.
 
+   * @since 1.0
+   */
+  public void reloadIcon() {
+    String url = pathToIcon;
+    if (iconLoad != null) {
+      iconLoad.cancel(true);
+    }
+    iconLoad = IconService.load(url);
+    iconLoad.thenAccept(img -> {
+      if (img != null) {
+        Platform.runLater(() -> icon.set(img));
+      }    
+    }); 
+  }
+  
   /**
    * Returns the Path to the Icon of the Application, that was added to this Area.
 
@@ -526,18 +567,22 @@ public class AppDisplayArea {
   public String getPathToIcon() {
     return pathToIcon;
   }
-
+  
   /**
    * Sets the Path to the Icon of the Application. This is used, if the Path wasn't set upon 
-   * creating a new DisplayArea.
+   * creating a new DisplayArea. If the Area was already displayed, the new Icon is loaded at 
+   * once.
 
    * @param pathToIcon  The Path to the Icon. This might be a local Path or a URL.
    * @since 1.0
    */
   public void setPathToIcon(String pathToIcon) {
     this.pathToIcon = pathToIcon;
+    if (iconRequested) {
+      reloadIcon();
+    }
   }
-
+  
   /**
    * Returns the Path to the Executable File.
 
@@ -547,7 +592,7 @@ public class AppDisplayArea {
   public String getPath() {
     return path;
   }
-
+  
   /**
    * Sets the Path to the executable File. If the sub Folders don't exist, they will be created.
 
@@ -560,7 +605,7 @@ public class AppDisplayArea {
       File pathEx = new File(this.path.substring(0, path.lastIndexOf(File.separator)));
       if (!pathEx.exists()) {
         pathEx.mkdirs();
-      }
+      }    
     }
   }
   
@@ -573,9 +618,11 @@ public class AppDisplayArea {
    * @since 1.0
    */
   public void switchButtons(boolean start, boolean download, boolean delete) {
-    this.buttons.get(0).setDisable(start);
-    this.buttons.get(1).setDisable(download);
-    this.buttons.get(2).setDisable(delete);
+    runOnFxThread(() -> {
+      startDisabled.set(start);
+      downloadDisabled.set(download);
+      deleteDisabled.set(delete);
+    }); 
   }
   
   /**
@@ -585,7 +632,7 @@ public class AppDisplayArea {
    * @since 1.0
    */
   public void switchDownloadButton(boolean disable) {
-    this.buttons.get(1).setDisable(disable);
+    runOnFxThread(() -> downloadDisabled.set(disable));
   }
   
   /**
@@ -596,9 +643,24 @@ public class AppDisplayArea {
    * @since 1.0
    */
   public boolean isStartDisabled() {
-    return this.buttons.get(0).isDisabled();
+    return startDisabled.get();
   }
+  
+  /**
+   * Runs the given Job at once, if this is the JavaFX Application Thread, or later on it 
+   * otherwise, since the Properties are bound to the displayed Nodes.
 
+   * @param job The Job, that changes the Properties.
+   * @since 1.0
+   */
+  private static void runOnFxThread(Runnable job) {
+    if (Platform.isFxApplicationThread()) {
+      job.run();
+    } else {
+      Platform.runLater(job);
+    }
+  }
+  
   /**
    * Returns the Name of the Repository.
 
@@ -609,7 +671,7 @@ public class AppDisplayArea {
   public String getRepo() {
     return repo;
   }
-
+  
   /**
    * Sets the Name of the Repository to the given String.
 
@@ -645,6 +707,126 @@ public class AppDisplayArea {
     return this.iteration - 1;
   }
   
+  /**
+   * Returns the Property of the Message.
+
+   * @return  The Message, that is displayed to the User.
+   * @since 1.0
+   */
+  public StringProperty messageProperty() {
+    return message;
+  }
+  
+  /**
+   * Returns the Property of the Handler, that is called, when the User clicks on the Message.
+
+   * @return  The Handler of the Message.
+   * @since 1.0
+   */
+  public ObjectProperty<EventHandler<MouseEvent>> onMessageClickedProperty() {
+    return onMessageClicked;
+  }
+  
+  /**
+   * Returns the Property of the Progress.
+
+   * @return  The Progress of the Update or the Download.
+   * @since 1.0
+   */
+  public DoubleProperty progressProperty() {
+    return progress;
+  }
+  
+  /**
+   * Returns the Property, that determines, if the Progress is displayed.
+
+   * @return  The Visibility of the Progress.
+   * @since 1.0
+   */
+  public BooleanProperty progressVisibleProperty() {
+    return progressVisible;
+  }
+  
+  /**
+   * Returns the Property of the disabled Status of the Start Button.
+
+   * @return  The disabled Status of the Start Button.
+   * @since 1.0
+   */
+  public BooleanProperty startDisabledProperty() {
+    return startDisabled;
+  }
+  
+  /**
+   * Returns the Property of the disabled Status of the Download Button.
+
+   * @return  The disabled Status of the Download Button.
+   * @since 1.0
+   */
+  public BooleanProperty downloadDisabledProperty() {
+    return downloadDisabled;
+  }
+  
+  /**
+   * Returns the Property of the disabled Status of the Delete Button.
+
+   * @return  The disabled Status of the Delete Button.
+   * @since 1.0
+   */
+  public BooleanProperty deleteDisabledProperty() {
+    return deleteDisabled;
+  }
+  
+  /**
+   * Returns the Property of the Handler of the Download Button.
+
+   * @return  The Handler of the Download Button.
+   * @since 1.0
+   */
+  public ObjectProperty<EventHandler<ActionEvent>> downloadActionProperty() {
+    return downloadAction;
+  }
+  
+  /**
+   * Returns the Property of the Icon.
+
+   * @return  The Icon of the Application.
+   * @since 1.0
+   */
+  public ObjectProperty<Image> iconProperty() {
+    return icon;
+  }
+  
+  /**
+   * Returns the Property, that determines, if the Download is displayed instead of the Message.
+
+   * @return  {@code true}, while the Download is displayed.
+   * @since 1.0
+   */
+  public BooleanProperty downloadingProperty() {
+    return downloading;
+  }
+  
+  /**
+   * Returns the Property of the Progress of the Download as a Text.
+
+   * @return  The Progress of the Download.
+   * @since 1.0
+   */
+  public StringProperty downloadTextProperty() {
+    return downloadText;
+  }
+  
+  /**
+   * Returns the Property of the remaining Time of the Download as a Text.
+
+   * @return  The remaining Time of the Download.
+   * @since 1.0
+   */
+  public StringProperty downloadTimeProperty() {
+    return downloadTime;
+  }
+  
   /**
    * Returns a String Representation of this Object. It consists of the Name of the Application and 
    * Repository as well as important Information about the Paths.
@@ -659,20 +841,4 @@ public class AppDisplayArea {
     res = res.concat("Path to Icon: " + pathToIcon);
     return res;
   }
-  
-  /**
-   * Checks if the given URL exists.
-
-   * @param url The URL to check
-   * @return  {@code true}, if the given URL is valid, {@code false} if not.
-   * @since 1.0
-   */
-  private boolean urlExists(String url) {
-    try {
-      ((HttpURLConnection) (new URL(url).openConnection())).getResponseCode();
-      return true;
-    } catch (Exception e) {
-      return false;
-    }
-  } 
-}
\ No newline at end of file
+}
@@ -0,0 +1,250 @@
+package util;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import util.icons.ImageRegistry;
+
+/**
+ * The Cell, that displays an {@link AppDisplayArea} in the List of the Launcher. The Nodes of the
+ * Cell are created once and bound to the Properties of the Area, that is displayed right now.
+ * When the User scrolls, the Cell is reused for another Area, so only the visible Areas have
+ * Nodes.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class AppListCell extends ListCell<AppDisplayArea> {
+
+  /**
+   * The Content of this Cell.
+   */
+  private final BorderPane content;
+
+  /**
+   * The Label, that displays the Name of the Application.
+   */
+  private final Label lbName;
+
+  /**
+   * The ImageView, that displays the Icon of the Application.
+   */
+  private final ImageView iconView;
+
+  /**
+   * The Button to start the Application.
+   */
+  private final Button start;
+
+  /**
+   * The Button to download the Application.
+   */
+  private final Button download;
+
+  /**
+   * The Button to delete the Application.
+   */
+  private final Button delete;
+
+  /**
+   * The Label, that displays the Message of the Area.
+   */
+  private final Label messageLabel;
+
+  /**
+   * The ProgressBar, which indicates the Progress of the Update or the Download.
+   */
+  private final ProgressBar pb;
+
+  /**
+   * The Renderer, that displays the Progress of the Area in {@link #pb}.
+   */
+  private final ProgressRenderer renderer;
+
+  /**
+   * The Label, that displays the Progress of the Download.
+   */
+  private final Label downloadUpdates;
+
+  /**
+   * The Label, that displays the remaining time of the Download.
+   */
+  private final Label downloadLength;
+
+  /**
+   * The Area, the Nodes are bound to, or {@code null}, if the Cell is empty.
+   */
+  private AppDisplayArea bound;
+
+  /**
+   * Creates a new Cell and its Nodes.
+
+   * @since 1.0
+   */
+  public AppListCell() {
+    /*
+     * Creates a new Label, that will display the Application and adds it to the top.
+     */
+    content = new BorderPane();
+    lbName = new Label();
+    lbName.setMaxWidth(300);
+    lbName.setAlignment(Pos.CENTER);
+    content.setTop(lbName);
+
+    /*
+     * Creates an ImageView for the Icon of the Application.
+     */
+    iconView = new ImageView();
+    iconView.setFitWidth(ImageRegistry.ICON_SIZE);
+    iconView.setFitHeight(ImageRegistry.ICON_SIZE);
+    HBox hboxImage = new HBox();
+    hboxImage.setStyle("-fx-border-color: black; -fx-border-width: 1; -fx-border-style: solid;");
+    hboxImage.getChildren().add(iconView);
+
+    /*
+     * Creates a GridPane, that will contain the Icon and the Buttons.
+     */
+    GridPane grid = new GridPane();
+    grid.setHgap(10);
+    grid.setVgap(10);
+    grid.setPadding(new Insets(10, 10, 10, 10));
+    grid.add(hboxImage, 0, 0);
+
+    /*
+     * Creates the Buttons. The Start and the Delete Button call the Area, that is displayed, the
+     * Handler of the Download Button is bound to the Area.
+     */
+    start = createButton("/res/Start.png", "Anwendung starten");
+    start.setOnAction(event -> getItem().start());
+    download = createButton("/res/Download.png", "Neue Version herunterladen");
+    delete = createButton("/res/Delete.png", "Anwendung lschen");
+    delete.setOnAction(event -> getItem().delete());
+    GridPane buttonPane = new GridPane();
+    buttonPane.setHgap(10);
+    buttonPane.setVgap(10);
+    buttonPane.setAlignment(Pos.CENTER);
+    buttonPane.add(start, 0, 0);
+    buttonPane.add(download, 1, 0);
+    buttonPane.add(delete, 2, 0);
+    grid.add(buttonPane, 1, 0);
+    GridPane.setFillWidth(buttonPane, true);
+    content.setCenter(grid);
+
+    /*
+     * Creates the bottom Part, that displays either the Message and the Progress of the Update or
+     * the Progress of the Download.
+     */
+    messageLabel = new Label();
+    pb = new ProgressBar();
+    renderer = new ProgressRenderer(pb);
+    downloadUpdates = new Label();
+    downloadLength = new Label();
+    VBox bottom = new VBox(messageLabel, pb, downloadUpdates, downloadLength);
+    content.setBottom(bottom);
+
+    setText(null);
+  }
+
+  /**
+   * Creates a Button with the given Graphic.
+
+   * @param graphic The Path to the Resource of the Graphic.
+   * @param tooltip The Text of the Tooltip.
+   * @return  The new Button.
+   * @since 1.0
+   */
+  private static Button createButton(String graphic, String tooltip) {
+    Button button = new Button();
+    ImageView view = new ImageView(ImageRegistry.get(graphic, ImageRegistry.BUTTON_SIZE));
+    view.setFitWidth(ImageRegistry.BUTTON_SIZE);
+    view.setFitHeight(ImageRegistry.BUTTON_SIZE);
+    button.setTooltip(new Tooltip(tooltip));
+    button.setGraphic(view);
+    return button;
+  }
+
+  @Override
+  protected void updateItem(AppDisplayArea area, boolean empty) {
+    super.updateItem(area, empty);
+    if (area == bound && !empty) {
+      return;
+    }
+    unbind();
+    if (empty || area == null) {
+      setGraphic(null);
+      return;
+    }
+    bind(area);
+    setGraphic(content);
+  }
+
+  /**
+   * Binds the Nodes of this Cell to the Properties of the given Area and requests its Icon, if it
+   * wasn't displayed before.
+
+   * @param area  The Area to be displayed.
+   * @since 1.0
+   */
+  private void bind(AppDisplayArea area) {
+    bound = area;
+    area.requestIcon();
+    lbName.setText(area.getName());
+    iconView.imageProperty().bind(area.iconProperty());
+    start.disableProperty().bind(area.startDisabledProperty());
+    download.disableProperty().bind(area.downloadDisabledProperty());
+    download.onActionProperty().bind(area.downloadActionProperty());
+    delete.disableProperty().bind(area.deleteDisabledProperty());
+    messageLabel.textProperty().bind(area.messageProperty());
+    messageLabel.onMouseClickedProperty().bind(area.onMessageClickedProperty());
+    messageLabel.visibleProperty().bind(area.downloadingProperty().not());
+    messageLabel.managedProperty().bind(area.downloadingProperty().not());
+    renderer.attach(area.progressProperty());
+    pb.visibleProperty().bind(area.progressVisibleProperty());
+    downloadUpdates.textProperty().bind(area.downloadTextProperty());
+    downloadUpdates.visibleProperty().bind(area.downloadingProperty());
+    downloadUpdates.managedProperty().bind(area.downloadingProperty());
+    downloadLength.textProperty().bind(area.downloadTimeProperty());
+    downloadLength.visibleProperty().bind(area.downloadingProperty());
+    downloadLength.managedProperty().bind(area.downloadingProperty());
+  }
+
+  /**
+   * Unbinds the Nodes of this Cell from the Area, that was displayed, so the Area doesn't keep
+   * this Cell alive. If the Icon of the Area is still loaded, it's cancelled.
+
+   * @since 1.0
+   */
+  private void unbind() {
+    if (bound == null) {
+      return;
+    }
+    bound.cancelIcon();
+    bound = null;
+    iconView.imageProperty().unbind();
+    start.disableProperty().unbind();
+    download.disableProperty().unbind();
+    download.onActionProperty().unbind();
+    delete.disableProperty().unbind();
+    messageLabel.textProperty().unbind();
+    messageLabel.onMouseClickedProperty().unbind();
+    messageLabel.visibleProperty().unbind();
+    messageLabel.managedProperty().unbind();
+    renderer.detach();
+    pb.visibleProperty().unbind();
+    downloadUpdates.textProperty().unbind();
+    downloadUpdates.visibleProperty().unbind();
+    downloadUpdates.managedProperty().unbind();
+    downloadLength.textProperty().unbind();
+    downloadLength.visibleProperty().unbind();
+    downloadLength.managedProperty().unbind();
+  }
+}
@@ -0,0 +1,201 @@
+package util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import loggingtool.LoggingTool;
+
+/**
+ * Holds the Executors, that are shared by the whole Launcher. Using shared Executors instead of 
+ * new Threads for every small periodic Job keeps the amount of Threads constant.
+ * <br>Tasks with a Time limit are run by the Workers via {@link #submit(RunnableFuture, long)}. 
+ * Their Deadline is a scheduled Job of the Scheduler, that is cancelled, as soon as the Task 
+ * finished, so no Thread waits for the Time limit of a finished Task.
+ * <br>On Java 21 and later, the Workers can be replaced by Virtual Threads via 
+ * {@link #useVirtualThreads(boolean)}. Every Task then gets its own Virtual Thread, so hundreds of 
+ * Applications can be checked at once. On older Runtimes the bounded Workers are kept.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class LauncherExecutors {
+
+  /**
+   * The Scheduler for short periodic or delayed Jobs. Jobs submitted to this Scheduler mustn't 
+   * block, since all of them share a single Thread. Cancelled Jobs are removed at once, so the 
+   * Deadlines of finished Tasks don't pile up.
+   */
+  private static final ScheduledThreadPoolExecutor scheduler = 
+      new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "Launcher-Scheduler");
+        t.setDaemon(true);
+        return t;
+      });
+
+  /**
+   * The maximum amount of Workers. Further Tasks wait, until a Worker is free.
+   */
+  private static final int WORKERS = 6;
+
+  /**
+   * The Number of the next Worker, used to name its Thread.
+   */
+  private static final AtomicInteger workerCount = new AtomicInteger();
+
+  /**
+   * The bounded Workers, that run the Tasks of the Launcher, unless Virtual Threads are used. Idle 
+   * Workers are stopped after 30 seconds.
+   */
+  private static final ThreadPoolExecutor pool = new ThreadPoolExecutor(WORKERS, WORKERS, 
+      30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), r -> {
+        Thread t = new Thread(r, "Launcher-Worker-" + workerCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      });
+
+  /**
+   * The Factory of Virtual Threads or {@code null}, if the bounded Workers are used.
+   */
+  private static volatile ThreadFactory virtualThreads;
+
+  /**
+   * The Workers, that run the Tasks of the Launcher. These are either the bounded 
+   * {@link #pool} or an Executor, that starts a Virtual Thread for every Task.
+   */
+  private static volatile ExecutorService workers = pool;
+
+  static {
+    scheduler.setRemoveOnCancelPolicy(true);
+    pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private LauncherExecutors() {
+  }
+
+  /**
+   * Returns the shared Scheduler for short periodic or delayed Jobs.
+
+   * @return  The shared ScheduledExecutorService.
+   * @since 1.0
+   */
+  public static ScheduledExecutorService scheduler() {
+    return scheduler;
+  }
+
+  /**
+   * Returns the shared Workers for Tasks, that might block.
+
+   * @return  The shared ExecutorService.
+   * @since 1.0
+   */
+  public static ExecutorService workers() {
+    return workers;
+  }
+
+  /**
+   * Switches the Workers to Virtual Threads or back to the bounded Workers. Virtual Threads are 
+   * created via Reflection, since the Launcher is compiled for Java 8. If the Runtime doesn't 
+   * support them, the bounded Workers are kept. Tasks, that were already submitted, are finished 
+   * by the Workers, that accepted them. The Executor of the Virtual Threads is shut down, when 
+   * switching back, so it terminates, as soon as its Tasks finished.
+
+   * @param virtual {@code true}, if Virtual Threads should be used.
+   * @return  {@code true}, if Virtual Threads are used now.
+   * @since 1.0
+   */
+  public static synchronized boolean useVirtualThreads(boolean virtual) {
+    if (!virtual) {
+      ExecutorService previous = workers;
+      virtualThreads = null;
+      workers = pool;
+      if (previous != pool) {
+        previous.shutdown();
+        LoggingTool.log(LauncherExecutors.class, LoggingTool.getLineNumber(), 
+            "Using " + WORKERS + " Workers for all Tasks.");
+      }
+      return false;
+    }
+    if (virtualThreads != null) {
+      return true;
+    }
+    try {
+      /*
+       * Equivalent to Thread.ofVirtual().name("Launcher-Virtual-", 1).factory() and 
+       * Executors.newThreadPerTaskExecutor(factory) on Java 21.
+       */
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      Object ofVirtual = Thread.class.getMethod("ofVirtual").invoke(null);
+      ofVirtual = builder.getMethod("name", String.class, long.class).invoke(ofVirtual, 
+          "Launcher-Virtual-", 1L);
+      ThreadFactory factory = (ThreadFactory) builder.getMethod("factory").invoke(ofVirtual);
+      workers = (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", 
+          ThreadFactory.class).invoke(null, factory);
+      virtualThreads = factory;
+      LoggingTool.log(LauncherExecutors.class, LoggingTool.getLineNumber(), 
+          "Using Virtual Threads for all Tasks.");
+      return true;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LoggingTool.log(LauncherExecutors.class, LoggingTool.getLineNumber(), 
+          "Virtual Threads aren't supported by this Runtime, using " + WORKERS + " Workers.");
+      return false;
+    }
+  }
+
+  /**
+   * Creates a new Thread, that will run the given Job. If Virtual Threads are used, the Thread is 
+   * a Virtual Thread, which is always a Daemon.
+
+   * @param job The Job to be run by the Thread.
+   * @param name  The Name of the Thread.
+   * @param daemon  {@code true}, if a Platform Thread should be a Daemon.
+   * @return  The new Thread, that wasn't started yet.
+   * @since 1.0
+   */
+  public static Thread newThread(Runnable job, String name, boolean daemon) {
+    ThreadFactory factory = virtualThreads;
+    Thread thread;
+    if (factory != null) {
+      thread = factory.newThread(job);
+      thread.setName(name);
+    } else {
+      thread = new Thread(job, name);
+      thread.setDaemon(daemon);
+    }
+    return thread;
+  }
+
+  /**
+   * Runs the given Task with one of the Workers and cancels it, if it didn't finish within the 
+   * given Time limit. The Time limit starts, when a Worker starts the Task. The Deadline is 
+   * cancelled, as soon as the Task finished.
+
+   * @param task  The Task to be run.
+   * @param timeout The Time limit in milliseconds.
+   * @since 1.0
+   */
+  public static void submit(RunnableFuture<?> task, long timeout) {
+    workers.execute(() -> {
+      ScheduledFuture<?> deadline = scheduler.schedule(() -> {
+        task.cancel(true);
+      }, timeout, TimeUnit.MILLISECONDS);
+      try {
+        task.run();
+      } finally {
+        deadline.cancel(false);
+      }
+    });
+  }
+}
@@ -0,0 +1,150 @@
+package util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import loggingtool.LoggingTool;
+import util.download.BandwidthGovernor;
+
+/**
+ * The Preferences of the Launcher, that aren't part of the {@link settingstool.Settings} of the
+ * SettingsTool. They are stored in a Properties File in the working directory.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class LauncherPreferences {
+
+  /**
+   * The Key of the global Bandwidth Limit of all Downloads in kB/s. 0 means full speed.
+   */
+  public static final String BANDWIDTH_LIMIT = "bandwidth.limit";
+
+  /**
+   * The Key of the Bandwidth Profiles for certain times of the day, as described in
+   * {@link BandwidthGovernor#configure(long, String)}.
+   */
+  public static final String BANDWIDTH_PROFILES = "bandwidth.profiles";
+
+  /**
+   * The Key of the Preference, if all Tasks should be run by Virtual Threads. Only Java 21 and 
+   * later supports them.
+   */
+  public static final String VIRTUAL_THREADS = "executor.virtualThreads";
+
+  /**
+   * The Name of the File, the Preferences are stored in.
+   */
+  private static final String FILE_NAME = "LauncherPreferences.properties";
+
+  /**
+   * The default Values of all Preferences.
+   */
+  private static final HashMap<String, String> defaults = new HashMap<String, String>();
+
+  static {
+    defaults.put(BANDWIDTH_LIMIT, "0");
+    defaults.put(BANDWIDTH_PROFILES, "");
+    defaults.put(VIRTUAL_THREADS, "false");
+  }
+
+  /**
+   * The File, the Preferences are stored in.
+   */
+  private final File file;
+
+  /**
+   * The current Values of the Preferences.
+   */
+  private final Properties properties;
+
+  /**
+   * Creates new Preferences and reads them from the File in the working directory. If the File
+   * doesn't exist or can't be read, the default Values are used.
+
+   * @since 1.0
+   */
+  public LauncherPreferences() {
+    this.file = Paths.get("").toAbsolutePath().resolve(FILE_NAME).toFile();
+    this.properties = new Properties();
+    if (file.exists()) {
+      try (InputStream in = new FileInputStream(file)) {
+        properties.load(in);
+      } catch (IOException e) {
+        LoggingTool.logError(getClass(), LoggingTool.getLineNumber(),
+            "Couldn't read the Preferences, using the defaults: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns the Value of the given Preference.
+
+   * @param key The Key of the Preference.
+   * @return  The Value of the Preference or its default Value, if it wasn't set.
+   * @since 1.0
+   */
+  public synchronized String getValue(String key) {
+    return properties.getProperty(key, defaults.getOrDefault(key, ""));
+  }
+
+  /**
+   * Sets the given Preferences and writes them to the File. The File is replaced at once, so it
+   * can't be damaged, if the Launcher is closed while writing.
+
+   * @param values  The Preferences to be set.
+   * @since 1.0
+   */
+  public synchronized void setValues(Map<String, String> values) {
+    properties.putAll(values);
+    File tmp = new File(file.getPath() + ".tmp");
+    try (OutputStream out = new FileOutputStream(tmp)) {
+      properties.store(out, "GastroTools Launcher");
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(),
+          "Couldn't write the Preferences: " + e.getMessage());
+      return;
+    }
+    try {
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(),
+          "Couldn't replace the Preferences: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Applies the Bandwidth Preferences to the {@link BandwidthGovernor}. Running Downloads will
+   * follow the new Limit immediately.
+
+   * @since 1.0
+   */
+  public void applyBandwidth() {
+    long limit;
+    try {
+      limit = Long.parseLong(getValue(BANDWIDTH_LIMIT).trim());
+    } catch (NumberFormatException e) {
+      limit = 0;
+    }
+    BandwidthGovernor.configure(limit * 1024, getValue(BANDWIDTH_PROFILES));
+  }
+
+  /**
+   * Applies the Preference for Virtual Threads to the {@link LauncherExecutors}. If the Runtime 
+   * doesn't support them, the bounded Workers are used.
+
+   * @since 1.0
+   */
+  public void applyExecution() {
+    LauncherExecutors.useVirtualThreads(Boolean.parseBoolean(getValue(VIRTUAL_THREADS).trim()));
+  }
+}
@@ -0,0 +1,116 @@
+package util;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ObservableDoubleValue;
+import javafx.css.PseudoClass;
+import javafx.scene.control.ProgressBar;
+
+/**
+ * Renders a Progress in a ProgressBar. The Color of the Bar changes from red to green in
+ * {@link #BUCKETS} steps, which are switched by the Pseudo Classes {@code progress-0} to
+ * {@code progress-10} of the Stylesheet, instead of parsing a new Style for every Change.
+ * <br>Changes of the Progress are published to the {@link UiUpdateBus}, so they are drawn at most
+ * once per Frame. The Renderer listens to at most one Progress at a time, so attaching it to
+ * another Progress never piles up Listeners. All Methods have to be called on the JavaFX
+ * Application Thread.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class ProgressRenderer {
+
+  /**
+   * The amount of Color steps between no Progress and a finished Progress.
+   */
+  public static final int BUCKETS = 10;
+
+  /**
+   * The Pseudo Classes of all Color steps.
+   */
+  private static final PseudoClass[] STATES = new PseudoClass[BUCKETS + 1];
+
+  static {
+    for (int i = 0; i <= BUCKETS; i++) {
+      STATES[i] = PseudoClass.getPseudoClass("progress-" + i);
+    }
+  }
+
+  /**
+   * The ProgressBar, that displays the Progress.
+   */
+  private final ProgressBar bar;
+
+  /**
+   * The Listener, that publishes a Redraw of this Renderer. The same Listener is added to every
+   * Progress, so it can always be removed again.
+   */
+  private final InvalidationListener listener =
+      observable -> UiUpdateBus.publish(this, "progress", this::render);
+
+  /**
+   * The displayed Progress or {@code null}, if the Renderer is detached.
+   */
+  private ObservableDoubleValue source;
+
+  /**
+   * The current Color step of the ProgressBar or -1, if none was set yet.
+   */
+  private int bucket = -1;
+
+  /**
+   * Creates a new Renderer for the given ProgressBar.
+
+   * @param bar The ProgressBar, that displays the Progress.
+   * @since 1.0
+   */
+  public ProgressRenderer(ProgressBar bar) {
+    this.bar = bar;
+  }
+
+  /**
+   * Displays the given Progress. The Progress, that was displayed before, isn't observed anymore.
+
+   * @param progress  The Progress to be displayed.
+   * @since 1.0
+   */
+  public void attach(ObservableDoubleValue progress) {
+    detach();
+    source = progress;
+    progress.addListener(listener);
+    render();
+  }
+
+  /**
+   * Stops observing the displayed Progress, so it doesn't keep this Renderer alive.
+
+   * @since 1.0
+   */
+  public void detach() {
+    if (source != null) {
+      source.removeListener(listener);
+      source = null;
+    }
+  }
+
+  /**
+   * Draws the current Progress. The Pseudo Classes are only switched, if the Color step changed.
+   * Nothing is drawn, if the Renderer was detached in the meantime.
+
+   * @since 1.0
+   */
+  private void render() {
+    if (source == null) {
+      return;
+    }
+    double progress = source.get();
+    bar.setProgress(progress);
+    int step = progress < 0 ? 0 : (int) Math.min(BUCKETS, Math.floor(progress * BUCKETS));
+    if (step != bucket) {
+      if (bucket >= 0) {
+        bar.pseudoClassStateChanged(STATES[bucket], false);
+      }
+      bar.pseudoClassStateChanged(STATES[step], true);
+      bucket = step;
+    }
+  }
+}
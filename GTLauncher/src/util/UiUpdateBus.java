@@ -0,0 +1,202 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * Collects the Updates of the displayed State and applies them once per Frame. Tasks publish
+ * each Update for a Property of a Target, e.g. the Message of an Area. If a newer Update for the
+ * same Property is published, before the Frame is drawn, the older one is dropped, so the JavaFX
+ * Application Thread never works through stale Updates.
+ * <br>The Updates of a Frame are applied in the Order, they were published last. A single
+ * {@link AnimationTimer} applies them, which only runs, while there are Updates to apply.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class UiUpdateBus {
+
+  /**
+   * The pending Updates mapped to their Target and Property in the Order, they were published
+   * last. Guarded by itself.
+   */
+  private static final LinkedHashMap<Key, Runnable> pending = new LinkedHashMap<Key, Runnable>();
+
+  /**
+   * Determines, if the {@link #frames Timer} was started. Guarded by {@link #pending}.
+   */
+  private static boolean running;
+
+  /**
+   * The amount of published Updates.
+   */
+  private static final AtomicLong published = new AtomicLong();
+
+  /**
+   * The amount of Updates, that were dropped, because a newer Update or Change replaced them.
+   */
+  private static final AtomicLong coalesced = new AtomicLong();
+
+  /**
+   * The amount of applied Updates.
+   */
+  private static final AtomicLong applied = new AtomicLong();
+
+  /**
+   * The Timer, that applies the pending Updates once per Frame. It's stopped, when there was
+   * nothing to apply during a Frame.
+   */
+  private static final AnimationTimer frames = new AnimationTimer() {
+    @Override
+    public void handle(long now) {
+      ArrayList<Runnable> updates;
+      synchronized (pending) {
+        if (pending.isEmpty()) {
+          stop();
+          running = false;
+          return;
+        }
+        updates = new ArrayList<Runnable>(pending.values());
+        pending.clear();
+      }
+      for (Runnable update : updates) {
+        update.run();
+      }
+      applied.addAndGet(updates.size());
+    }
+  };
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private UiUpdateBus() {
+  }
+
+  /**
+   * Publishes an Update of the given Property of the given Target. The Update is applied on the
+   * JavaFX Application Thread in the next Frame, unless a newer Update for the same Property is
+   * published before.
+
+   * @param target  The Object, whose State is updated, e.g. an Area.
+   * @param property  The Name of the updated Property.
+   * @param update  The Update, that changes the displayed State.
+   * @since 1.0
+   */
+  public static void publish(Object target, String property, Runnable update) {
+    published.incrementAndGet();
+    Key key = new Key(target, property);
+    synchronized (pending) {
+      if (pending.remove(key) != null) {
+        coalesced.incrementAndGet();
+      }
+      pending.put(key, update);
+      if (running) {
+        return;
+      }
+      running = true;
+    }
+    if (Platform.isFxApplicationThread()) {
+      frames.start();
+    } else {
+      Platform.runLater(frames::start);
+    }
+  }
+
+  /**
+   * Discards the pending Update of the given Property of the given Target, if there is one. This 
+   * is used, when the Property is changed directly on the JavaFX Application Thread, so the 
+   * pending Update doesn't replace the newer Value in the next Frame.
+
+   * @param target  The Object, whose State was changed.
+   * @param property  The Name of the changed Property.
+   * @since 1.0
+   */
+  public static void discard(Object target, String property) {
+    synchronized (pending) {
+      if (pending.remove(new Key(target, property)) != null) {
+        coalesced.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Returns the amount of published Updates.
+
+   * @return  The amount of Updates, that were published since the Start.
+   * @since 1.0
+   */
+  public static long getPublished() {
+    return published.get();
+  }
+
+  /**
+   * Returns the amount of Updates, that were dropped, because a newer Update or Change replaced 
+   * them.
+
+   * @return  The amount of coalesced Updates since the Start.
+   * @since 1.0
+   */
+  public static long getCoalesced() {
+    return coalesced.get();
+  }
+
+  /**
+   * Returns the amount of applied Updates.
+
+   * @return  The amount of Updates, that were applied since the Start.
+   * @since 1.0
+   */
+  public static long getApplied() {
+    return applied.get();
+  }
+
+  /**
+   * The Target and the Name of the Property of an Update. Targets are compared by Identity.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  private static final class Key {
+
+    /**
+     * The Object, whose State is updated.
+     */
+    private final Object target;
+
+    /**
+     * The Name of the updated Property.
+     */
+    private final String property;
+
+    /**
+     * Creates a new Key for the given Property of the given Target.
+
+     * @param target  The Object, whose State is updated.
+     * @param property  The Name of the updated Property.
+     * @since 1.0
+     */
+    private Key(Object target, String property) {
+      this.target = target;
+      this.property = property;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return target == other.target && property.equals(other.property);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(target) + property.hashCode();
+    }
+  }
+}
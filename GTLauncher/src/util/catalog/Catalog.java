@@ -0,0 +1,105 @@
+package util.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All Applications published to the Launcher, in the Order of the List. The Catalog is read from
+ * the {@code "#Begin Catalog File"} Block of the List, which contains the Versions of all
+ * Applications, so the Launcher needs a single Request to check all of them for Updates. If only
+ * the old {@code "#Begin List File"} Block was published, the Catalog only contains the Names and
+ * each Repository is checked on its own.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class Catalog {
+
+  /**
+   * The Catalog without any Applications, used until the List was fetched.
+   */
+  public static final Catalog EMPTY = new Catalog(Collections.<CatalogEntry>emptyList());
+
+  /**
+   * The Entries of all Applications mapped to the Names of their Repositories.
+   */
+  private final Map<String, CatalogEntry> entries;
+
+  /**
+   * Creates a new Catalog with the given Entries. If a Repository is listed more than once, only
+   * its first Entry is kept.
+
+   * @param entries The Entries of all Applications.
+   * @since 1.0
+   */
+  public Catalog(List<CatalogEntry> entries) {
+    Map<String, CatalogEntry> map = new LinkedHashMap<String, CatalogEntry>();
+    for (CatalogEntry entry : entries) {
+      map.putIfAbsent(entry.getRepo(), entry);
+    }
+    this.entries = Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * Returns the Entry of the given Repository.
+
+   * @param repo  The Name of the Repository.
+   * @return  The Entry or {@code null}, if the Repository isn't in this Catalog.
+   * @since 1.0
+   */
+  public CatalogEntry get(String repo) {
+    return entries.get(repo);
+  }
+
+  /**
+   * Returns all Entries in the Order of the List.
+
+   * @return  A new List of all Entries.
+   * @since 1.0
+   */
+  public List<CatalogEntry> getEntries() {
+    return new ArrayList<CatalogEntry>(entries.values());
+  }
+
+  /**
+   * Determines, if the given Catalog contains the same Applications in the same Order. The
+   * Versions of the Applications aren't compared.
+
+   * @param other The Catalog to be compared.
+   * @return  {@code true}, if both Catalogs list the same Repositories with the same Names.
+   * @since 1.0
+   */
+  public boolean hasSameApplications(Catalog other) {
+    if (entries.size() != other.entries.size()) {
+      return false;
+    }
+    Iterator<CatalogEntry> it = other.entries.values().iterator();
+    for (CatalogEntry entry : entries.values()) {
+      CatalogEntry next = it.next();
+      if (!entry.getRepo().equals(next.getRepo()) || !entry.getName().equals(next.getName())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the amount of Entries, that contain a Version.
+
+   * @return  The amount of Applications, that can be checked without further Requests.
+   * @since 1.0
+   */
+  public int countVersions() {
+    int count = 0;
+    for (CatalogEntry entry : entries.values()) {
+      if (entry.hasVersion()) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,235 @@
+package util.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A single Application in the {@link Catalog}. An Entry is read from a Line of the List of
+ * Applications, whose Fields are separated by {@code "--SEP--"}:
+ * <br>{@code Repo--SEP--Name--SEP--Version--SEP--Old1,Old2--SEP--URL--SEP--Size--SEP--SHA256}
+ * <br>Only the Repository and the Name are required, so every Line of the old List is a valid
+ * Entry as well. All other Fields may be empty or missing. An Entry without a Version has to be
+ * checked by requesting the Version File of its Repository.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class CatalogEntry {
+
+  /**
+   * The Separator between the Fields of a Line.
+   */
+  private static final Pattern SEPARATOR = Pattern.compile(Pattern.quote("--SEP--"));
+
+  /**
+   * The Name of the Repository.
+   */
+  private final String repo;
+
+  /**
+   * The clear Name of the Application.
+   */
+  private final String name;
+
+  /**
+   * The latest published Version or {@code null}, if the Entry contains no Version.
+   */
+  private final String version;
+
+  /**
+   * All older Versions, that were published.
+   */
+  private final List<String> oldVersions;
+
+  /**
+   * The URL of the latest Version or {@code null}, if the default URL is used.
+   */
+  private final String url;
+
+  /**
+   * The Size of the latest Version in bytes or -1, if it's unknown.
+   */
+  private final long size;
+
+  /**
+   * The SHA-256 Checksum of the latest Version or {@code null}, if it's unknown.
+   */
+  private final String checksum;
+
+  /**
+   * Creates a new Entry with the given values.
+
+   * @param repo  The Name of the Repository.
+   * @param name  The clear Name of the Application.
+   * @param version The latest published Version, may be {@code null}.
+   * @param oldVersions All older Versions.
+   * @param url The URL of the latest Version, may be {@code null}.
+   * @param size  The Size of the latest Version or -1.
+   * @param checksum  The SHA-256 Checksum of the latest Version, may be {@code null}.
+   * @since 1.0
+   */
+  public CatalogEntry(String repo, String name, String version, List<String> oldVersions,
+      String url, long size, String checksum) {
+    this.repo = repo;
+    this.name = name;
+    this.version = version;
+    this.oldVersions = Collections.unmodifiableList(new ArrayList<String>(oldVersions));
+    this.url = url;
+    this.size = size;
+    this.checksum = checksum;
+  }
+
+  /**
+   * Parses the given Line of the List of Applications.
+
+   * @param line  The Line to be parsed.
+   * @return  The Entry or {@code null}, if the Line doesn't contain a Repository and a Name.
+   * @since 1.0
+   */
+  public static CatalogEntry parse(String line) {
+    String[] fields = SEPARATOR.split(line, -1);
+    if (fields.length < 2 || fields[0].trim().isEmpty() || fields[1].trim().isEmpty()) {
+      return null;
+    }
+    String version = field(fields, 2);
+    List<String> oldVersions = new ArrayList<String>();
+    String old = field(fields, 3);
+    if (old != null) {
+      for (String v : old.split(",")) {
+        if (!v.trim().isEmpty()) {
+          oldVersions.add(v.trim());
+        }
+      }
+    }
+    long size = -1;
+    String length = field(fields, 5);
+    if (length != null) {
+      try {
+        size = Long.parseLong(length);
+      } catch (NumberFormatException e) {
+        size = -1;
+      }
+    }
+    return new CatalogEntry(fields[0].trim(), fields[1].trim(), version, oldVersions,
+        field(fields, 4), size, field(fields, 6));
+  }
+
+  /**
+   * Returns the trimmed Field at the given Index.
+
+   * @param fields  All Fields of the Line.
+   * @param index The Index of the Field.
+   * @return  The Field or {@code null}, if it's missing or empty.
+   * @since 1.0
+   */
+  private static String field(String[] fields, int index) {
+    if (index >= fields.length || fields[index].trim().isEmpty()) {
+      return null;
+    }
+    return fields[index].trim();
+  }
+
+  /**
+   * Returns the default URL of the given Version of an Application, which is the Release of the
+   * Version in its Repository.
+
+   * @param repo  The Name of the Repository.
+   * @param name  The clear Name of the Application.
+   * @param version The Version to be downloaded.
+   * @return  The URL of the Version.
+   * @since 1.0
+   */
+  public static String defaultUrl(String repo, String name, String version) {
+    return "https://github.com/Haeldeus/" + repo + "/releases/download/v" + version + "/" + name
+        + ".jar";
+  }
+
+  /**
+   * Returns the Name of the Repository.
+
+   * @return  The Name of the Repository.
+   * @since 1.0
+   */
+  public String getRepo() {
+    return repo;
+  }
+
+  /**
+   * Returns the clear Name of the Application.
+
+   * @return  The clear Name.
+   * @since 1.0
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Determines, if this Entry contains the latest Version, so the Version File of the Repository
+   * doesn't have to be requested.
+
+   * @return  {@code true}, if the Entry contains a Version.
+   * @since 1.0
+   */
+  public boolean hasVersion() {
+    return version != null;
+  }
+
+  /**
+   * Returns the latest published Version.
+
+   * @return  The latest Version or {@code null}, if the Entry contains no Version.
+   * @since 1.0
+   */
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns all older Versions, that were published.
+
+   * @return  An unmodifiable List of the older Versions.
+   * @since 1.0
+   */
+  public List<String> getOldVersions() {
+    return oldVersions;
+  }
+
+  /**
+   * Returns the URL of the latest Version.
+
+   * @return  The published URL or the {@link #defaultUrl(String, String, String) default URL},
+   *      if none was published.
+   * @since 1.0
+   */
+  public String getDownloadUrl() {
+    return url != null ? url : defaultUrl(repo, name, version);
+  }
+
+  /**
+   * Returns the Size of the latest Version.
+
+   * @return  The Size in bytes or -1, if it's unknown.
+   * @since 1.0
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the SHA-256 Checksum of the latest Version.
+
+   * @return  The Checksum or {@code null}, if it's unknown.
+   * @since 1.0
+   */
+  public String getChecksum() {
+    return checksum;
+  }
+
+  @Override
+  public String toString() {
+    return repo + " (" + name + ") " + (version == null ? "without Version" : "v" + version);
+  }
+}
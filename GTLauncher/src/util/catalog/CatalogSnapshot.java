@@ -0,0 +1,330 @@
+package util.catalog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import loggingtool.LoggingTool;
+import util.LauncherExecutors;
+
+/**
+ * The last Catalog, that was fetched successfully, together with the last Status of each
+ * Application. The Launcher is built from the Snapshot at once, while the List is fetched in the
+ * Background, so the Applications can be started without waiting for the Server.
+ * <br>The Snapshot is stored in a compact binary File with a CRC32 Checksum at its end, so a
+ * damaged Snapshot is never used. Changes are collected and written a second later, the File is
+ * replaced at once.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class CatalogSnapshot {
+
+  /**
+   * The first bytes of every Snapshot.
+   */
+  private static final byte[] MAGIC = {'G', 'T', 'C', 'T', 'L', 'G', '1'};
+
+  /**
+   * The maximum Size of a Snapshot, that will be read.
+   */
+  private static final int MAX_SIZE = 1024 * 1024;
+
+  /**
+   * The Time in milliseconds, changes are collected before the Snapshot is written.
+   */
+  private static final long WRITE_DELAY = 1000;
+
+  /**
+   * The File of the Snapshot.
+   */
+  private final File file;
+
+  /**
+   * The Catalog of the Snapshot.
+   */
+  private Catalog catalog;
+
+  /**
+   * The last Status of each Application mapped to the Name of its Repository.
+   */
+  private final Map<String, String> statuses;
+
+  /**
+   * The Time, the Catalog was fetched, in milliseconds or 0, if the Snapshot is empty.
+   */
+  private long fetched;
+
+  /**
+   * The scheduled Write of the Snapshot or {@code null}, if nothing has to be written.
+   */
+  private ScheduledFuture<?> pendingWrite;
+
+  /**
+   * Creates a new, empty Snapshot, that will be stored in the given File.
+
+   * @param file  The File of the Snapshot.
+   * @since 1.0
+   */
+  public CatalogSnapshot(File file) {
+    this.file = file;
+    this.catalog = Catalog.EMPTY;
+    this.statuses = new HashMap<String, String>();
+  }
+
+  /**
+   * Reads the Snapshot from the given File.
+
+   * @param file  The File of the Snapshot.
+   * @return  The Snapshot, which is empty, if there is no Snapshot or it's damaged.
+   * @since 1.0
+   */
+  public static CatalogSnapshot read(File file) {
+    CatalogSnapshot snapshot = new CatalogSnapshot(file);
+    if (!file.isFile() || file.length() > MAX_SIZE) {
+      return snapshot;
+    }
+    try {
+      byte[] bytes = Files.readAllBytes(file.toPath());
+      /*
+       * Checks the Checksum at the end of the Snapshot, so a damaged Snapshot is never used.
+       */
+      if (bytes.length < MAGIC.length + Long.BYTES) {
+        return snapshot;
+      }
+      CRC32 crc = new CRC32();
+      crc.update(bytes, 0, bytes.length - Long.BYTES);
+      if (ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong()
+          != crc.getValue()) {
+        return snapshot;
+      }
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      for (byte b : MAGIC) {
+        if (in.readByte() != b) {
+          return snapshot;
+        }
+      }
+      long fetched = in.readLong();
+      int count = in.readInt();
+      List<CatalogEntry> entries = new ArrayList<CatalogEntry>();
+      Map<String, String> statuses = new HashMap<String, String>();
+      for (int i = 0; i < count; i++) {
+        String repo = in.readUTF();
+        String name = in.readUTF();
+        String version = readText(in);
+        List<String> oldVersions = new ArrayList<String>();
+        for (int j = in.readInt(); j > 0; j--) {
+          oldVersions.add(in.readUTF());
+        }
+        String url = readText(in);
+        long size = in.readLong();
+        String checksum = readText(in);
+        String status = readText(in);
+        entries.add(new CatalogEntry(repo, name, version, oldVersions, url, size, checksum));
+        if (status != null) {
+          statuses.put(repo, status);
+        }
+      }
+      snapshot.catalog = new Catalog(entries);
+      snapshot.statuses.putAll(statuses);
+      snapshot.fetched = fetched;
+      return snapshot;
+    } catch (IOException e) {
+      LoggingTool.log(CatalogSnapshot.class, LoggingTool.getLineNumber(),
+          "Couldn't read the Snapshot: " + e.getMessage());
+      return new CatalogSnapshot(file);
+    }
+  }
+
+  /**
+   * Determines, if this Snapshot contains no Applications.
+
+   * @return  {@code true}, if no Catalog was fetched yet.
+   * @since 1.0
+   */
+  public synchronized boolean isEmpty() {
+    return catalog.getEntries().isEmpty();
+  }
+
+  /**
+   * Returns the Catalog of this Snapshot.
+
+   * @return  The Catalog, that was fetched last.
+   * @since 1.0
+   */
+  public synchronized Catalog getCatalog() {
+    return catalog;
+  }
+
+  /**
+   * Returns the Time, the Catalog was fetched.
+
+   * @return  The Time in milliseconds or 0, if the Snapshot is empty.
+   * @since 1.0
+   */
+  public synchronized long getFetched() {
+    return fetched;
+  }
+
+  /**
+   * Returns the last Status of the given Application.
+
+   * @param repo  The Name of the Repository.
+   * @return  The last Status or {@code null}, if none was recorded.
+   * @since 1.0
+   */
+  public synchronized String getStatus(String repo) {
+    return statuses.get(repo);
+  }
+
+  /**
+   * Replaces the Catalog of this Snapshot with a newly fetched one. The Status of all Applications,
+   * that aren't published anymore, is removed.
+
+   * @param catalog The fetched Catalog.
+   * @since 1.0
+   */
+  public synchronized void setCatalog(Catalog catalog) {
+    this.catalog = catalog;
+    this.fetched = System.currentTimeMillis();
+    Set<String> repos = new HashSet<String>();
+    for (CatalogEntry entry : catalog.getEntries()) {
+      repos.add(entry.getRepo());
+    }
+    statuses.keySet().retainAll(repos);
+    scheduleWrite();
+  }
+
+  /**
+   * Records the Status of the given Application, after it was checked for Updates.
+
+   * @param repo  The Name of the Repository.
+   * @param status  The Status, that was shown to the User.
+   * @since 1.0
+   */
+  public synchronized void setStatus(String repo, String status) {
+    if (status == null || status.equals(statuses.get(repo))) {
+      return;
+    }
+    statuses.put(repo, status);
+    scheduleWrite();
+  }
+
+  /**
+   * Schedules the Write of this Snapshot, unless a Write is already pending.
+
+   * @since 1.0
+   */
+  private void scheduleWrite() {
+    if (pendingWrite == null || pendingWrite.isDone()) {
+      pendingWrite = LauncherExecutors.scheduler().schedule(this::write, WRITE_DELAY,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Writes this Snapshot to its File. The Snapshot is written to a temporary File, that replaces
+   * the Snapshot at once.
+
+   * @since 1.0
+   */
+  public void write() {
+    byte[] bytes;
+    try {
+      bytes = encode();
+    } catch (IOException e) {
+      return;
+    }
+    File tmp = new File(file.getPath() + ".tmp");
+    try {
+      file.getParentFile().mkdirs();
+      Files.write(tmp.toPath(), bytes);
+      try {
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(),
+          "Couldn't write the Snapshot: " + e.getMessage());
+      tmp.delete();
+    }
+  }
+
+  /**
+   * Encodes this Snapshot.
+
+   * @return  The bytes of the Snapshot including its Checksum.
+   * @throws IOException  If the Snapshot couldn't be encoded.
+   * @since 1.0
+   */
+  private synchronized byte[] encode() throws IOException {
+    pendingWrite = null;
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.write(MAGIC);
+    out.writeLong(fetched);
+    List<CatalogEntry> entries = catalog.getEntries();
+    out.writeInt(entries.size());
+    for (CatalogEntry entry : entries) {
+      out.writeUTF(entry.getRepo());
+      out.writeUTF(entry.getName());
+      writeText(out, entry.getVersion());
+      out.writeInt(entry.getOldVersions().size());
+      for (String old : entry.getOldVersions()) {
+        out.writeUTF(old);
+      }
+      writeText(out, entry.hasVersion() ? entry.getDownloadUrl() : null);
+      out.writeLong(entry.getSize());
+      writeText(out, entry.getChecksum());
+      writeText(out, statuses.get(entry.getRepo()));
+    }
+    CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray());
+    out.writeLong(crc.getValue());
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Writes the given Text, that may be {@code null}.
+
+   * @param out The Stream to write to.
+   * @param text  The Text or {@code null}.
+   * @throws IOException  If the Text couldn't be written.
+   * @since 1.0
+   */
+  private static void writeText(DataOutputStream out, String text) throws IOException {
+    out.writeBoolean(text != null);
+    if (text != null) {
+      out.writeUTF(text);
+    }
+  }
+
+  /**
+   * Reads a Text written by {@link #writeText(DataOutputStream, String)}.
+
+   * @param in  The Stream to read from.
+   * @return  The Text or {@code null}.
+   * @throws IOException  If the Text couldn't be read.
+   * @since 1.0
+   */
+  private static String readText(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
@@ -0,0 +1,115 @@
+package util.catalog;
+
+/**
+ * The Path from the installed Version of an Application to its latest published Version, as it
+ * was determined by a {@link VersionIndex}.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class UpgradePath {
+
+  /**
+   * The Kinds of Paths from the installed to the latest Version.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  public enum Kind {
+    /**
+     * The latest Version is installed.
+     */
+    CURRENT,
+
+    /**
+     * An older Version is installed, so an Update is available.
+     */
+    UPGRADE,
+
+    /**
+     * A Version newer than the latest published Version is installed.
+     */
+    NEWER,
+
+    /**
+     * The installed Version couldn't be parsed, so the Installation might be flawed.
+     */
+    UNKNOWN
+  }
+
+  /**
+   * The Kind of this Path.
+   */
+  private final Kind kind;
+
+  /**
+   * Determines, if the installed Version was published, so a Patch may exist for it.
+   */
+  private final boolean published;
+
+  /**
+   * The amount of published Versions between the installed and the latest Version or -1, if it's
+   * unknown.
+   */
+  private final int skipped;
+
+  /**
+   * Creates a new Path with the given values.
+
+   * @param kind  The Kind of the Path.
+   * @param published {@code true}, if the installed Version was published.
+   * @param skipped The amount of skipped published Versions or -1.
+   * @since 1.0
+   */
+  UpgradePath(Kind kind, boolean published, int skipped) {
+    this.kind = kind;
+    this.published = published;
+    this.skipped = skipped;
+  }
+
+  /**
+   * Returns the Kind of this Path.
+
+   * @return  The Kind of this Path.
+   * @since 1.0
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Determines, if the latest Version is installed.
+
+   * @return  {@code true}, if no Update is needed.
+   * @since 1.0
+   */
+  public boolean isCurrent() {
+    return kind == Kind.CURRENT;
+  }
+
+  /**
+   * Determines, if the Update can be downloaded as a Patch of the installed Version. This is only
+   * the case, if the installed Version is an older published Version.
+
+   * @return  {@code true}, if a Patch should be tried first.
+   * @since 1.0
+   */
+  public boolean canPatch() {
+    return kind == Kind.UPGRADE && published;
+  }
+
+  /**
+   * Returns the amount of published Versions between the installed and the latest Version.
+
+   * @return  The amount of skipped Versions or -1, if the installed Version wasn't published.
+   * @since 1.0
+   */
+  public int getSkippedVersions() {
+    return skipped;
+  }
+
+  @Override
+  public String toString() {
+    return kind + (published ? ", published" : "") + (skipped > 0 ? ", skips " + skipped : "");
+  }
+}
@@ -0,0 +1,152 @@
+package util.catalog;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A parsed Version of an Application, like {@code "1.2.3"} or {@code "v2.0-beta"}. Versions are
+ * ordered by their numeric Components, missing Components count as 0, so {@code "1.2"} and
+ * {@code "1.2.0"} are the same Version. A Version with a Qualifier after a {@code '-'} is a
+ * Pre-Release and ordered before the Version without it.
+ * <br>Versions are immutable, so they can be shared between all Tasks.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class Version implements Comparable<Version> {
+
+  /**
+   * The Text, this Version was parsed from.
+   */
+  private final String text;
+
+  /**
+   * The numeric Components of this Version without trailing Zeros.
+   */
+  private final int[] components;
+
+  /**
+   * The Qualifier of a Pre-Release or {@code null}, if this Version is a Release.
+   */
+  private final String qualifier;
+
+  /**
+   * Creates a new Version with the given values.
+
+   * @param text  The Text, the Version was parsed from.
+   * @param components  The numeric Components without trailing Zeros.
+   * @param qualifier The Qualifier or {@code null}.
+   * @since 1.0
+   */
+  private Version(String text, int[] components, String qualifier) {
+    this.text = text;
+    this.components = components;
+    this.qualifier = qualifier;
+  }
+
+  /**
+   * Parses the given Text. A leading {@code 'v'} is ignored.
+
+   * @param text  The Text to be parsed, e.g. {@code "1.2.3"}.
+   * @return  The Version or {@code null}, if the Text isn't a Version.
+   * @since 1.0
+   */
+  public static Version parse(String text) {
+    if (text == null) {
+      return null;
+    }
+    String trimmed = text.trim();
+    String number = trimmed.startsWith("v") || trimmed.startsWith("V")
+        ? trimmed.substring(1) : trimmed;
+    String qualifier = null;
+    int dash = number.indexOf('-');
+    if (dash >= 0) {
+      qualifier = number.substring(dash + 1);
+      number = number.substring(0, dash);
+      if (qualifier.isEmpty()) {
+        return null;
+      }
+    }
+    if (number.isEmpty()) {
+      return null;
+    }
+    String[] parts = number.split("\\.", -1);
+    int[] components = new int[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      if (parts[i].isEmpty()) {
+        return null;
+      }
+      for (int j = 0; j < parts[i].length(); j++) {
+        if (!Character.isDigit(parts[i].charAt(j))) {
+          return null;
+        }
+      }
+      try {
+        components[i] = Integer.parseInt(parts[i]);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    int length = components.length;
+    while (length > 1 && components[length - 1] == 0) {
+      length--;
+    }
+    return new Version(trimmed, Arrays.copyOf(components, length), qualifier);
+  }
+
+  /**
+   * Determines, if this Version is a Pre-Release.
+
+   * @return  {@code true}, if this Version has a Qualifier.
+   * @since 1.0
+   */
+  public boolean isPreRelease() {
+    return qualifier != null;
+  }
+
+  @Override
+  public int compareTo(Version other) {
+    int length = Math.max(components.length, other.components.length);
+    for (int i = 0; i < length; i++) {
+      int a = i < components.length ? components[i] : 0;
+      int b = i < other.components.length ? other.components[i] : 0;
+      if (a != b) {
+        return Integer.compare(a, b);
+      }
+    }
+    if (qualifier == null || other.qualifier == null) {
+      return qualifier == null ? (other.qualifier == null ? 0 : 1) : -1;
+    }
+    return qualifier.compareTo(other.qualifier);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Version)) {
+      return false;
+    }
+    Version other = (Version) obj;
+    return Arrays.equals(components, other.components)
+        && Objects.equals(qualifier, other.qualifier);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(components) + Objects.hashCode(qualifier);
+  }
+
+  /**
+   * Returns the Text, this Version was parsed from. The Text is used in the URLs of the Releases,
+   * so it isn't normalized.
+
+   * @return  The Text of this Version.
+   * @since 1.0
+   */
+  @Override
+  public String toString() {
+    return text;
+  }
+}
@@ -0,0 +1,138 @@
+package util.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The published Versions of an Application, indexed by their {@link Version}. The Index
+ * determines the {@link UpgradePath} from an installed Version to the latest Version with a single
+ * Lookup, instead of searching the List of older Versions.
+ * <br>The Index of each Repository is cached, so a restarted UpdateTask reuses it, as long as the
+ * published Versions didn't change.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class VersionIndex {
+
+  /**
+   * The cached Indices of all Repositories.
+   */
+  private static final Map<String, VersionIndex> INDICES =
+      new ConcurrentHashMap<String, VersionIndex>();
+
+  /**
+   * The latest published Version as it was published.
+   */
+  private final String current;
+
+  /**
+   * All older Versions as they were published.
+   */
+  private final List<String> oldVersions;
+
+  /**
+   * The latest published Version or {@code null}, if it couldn't be parsed.
+   */
+  private final Version latest;
+
+  /**
+   * The Rank of each published Version, where the oldest Version has the Rank 0.
+   */
+  private final Map<Version, Integer> ranks;
+
+  /**
+   * Creates a new Index of the given Versions. Versions, that can't be parsed, are ignored.
+
+   * @param current The latest published Version.
+   * @param oldVersions All older published Versions.
+   * @since 1.0
+   */
+  private VersionIndex(String current, List<String> oldVersions) {
+    this.current = current;
+    this.oldVersions = new ArrayList<String>(oldVersions);
+    this.latest = Version.parse(current);
+    TreeSet<Version> sorted = new TreeSet<Version>();
+    for (String text : oldVersions) {
+      Version version = Version.parse(text);
+      if (version != null) {
+        sorted.add(version);
+      }
+    }
+    if (latest != null) {
+      sorted.add(latest);
+    }
+    Map<Version, Integer> map = new HashMap<Version, Integer>();
+    int rank = 0;
+    for (Version version : sorted) {
+      map.put(version, rank++);
+    }
+    this.ranks = map;
+  }
+
+  /**
+   * Returns the Index of the given Versions of the given Repository. If the Versions didn't change
+   * since the last Call, the cached Index is returned.
+
+   * @param repo  The Name of the Repository.
+   * @param current The latest published Version.
+   * @param oldVersions All older published Versions.
+   * @return  The Index of the Versions.
+   * @since 1.0
+   */
+  public static VersionIndex of(String repo, String current, List<String> oldVersions) {
+    VersionIndex index = INDICES.get(repo);
+    if (index == null || !index.current.equals(current)
+        || !index.oldVersions.equals(oldVersions)) {
+      index = new VersionIndex(current, oldVersions);
+      INDICES.put(repo, index);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the latest published Version.
+
+   * @return  The latest Version or {@code null}, if it couldn't be parsed.
+   * @since 1.0
+   */
+  public Version getLatest() {
+    return latest;
+  }
+
+  /**
+   * Determines the Path from the given installed Version to the latest Version. If the latest
+   * Version couldn't be parsed, only the same Text counts as the latest Version.
+
+   * @param installed The installed Version.
+   * @return  The Path to the latest Version.
+   * @since 1.0
+   */
+  public UpgradePath pathFrom(String installed) {
+    Version version = Version.parse(installed);
+    if (latest == null || version == null) {
+      boolean same = installed != null && installed.trim().equals(current.trim());
+      return new UpgradePath(same ? UpgradePath.Kind.CURRENT : UpgradePath.Kind.UNKNOWN, same,
+          same ? 0 : -1);
+    }
+    Integer rank = ranks.get(version);
+    int comparison = version.compareTo(latest);
+    if (comparison == 0) {
+      return new UpgradePath(UpgradePath.Kind.CURRENT, true, 0);
+    } else if (comparison > 0) {
+      return new UpgradePath(UpgradePath.Kind.NEWER, rank != null, -1);
+    } else if (rank == null) {
+      return new UpgradePath(UpgradePath.Kind.UPGRADE, false, -1);
+    }
+    return new UpgradePath(UpgradePath.Kind.UPGRADE, true, ranks.get(latest) - rank - 1);
+  }
+
+  @Override
+  public String toString() {
+    return "VersionIndex of " + current + " with " + ranks.size() + " Versions";
+  }
+}
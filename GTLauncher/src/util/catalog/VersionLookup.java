@@ -0,0 +1,115 @@
+package util.catalog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import loggingtool.LoggingTool;
+import util.LauncherExecutors;
+import util.network.Deadlines;
+import util.network.ManifestTokenizer;
+
+/**
+ * Looks up the published Versions of an Application. If the Catalog already contains them, the
+ * Lookup is finished at once, otherwise the Version File of the Repository is requested by the
+ * shared Workers. The Lookup is started as soon as the Line of the Application was read from the
+ * List, so the Versions are known, when the Launcher was built.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class VersionLookup {
+
+  /**
+   * The Block of the Version File, that contains the Versions.
+   */
+  public static final String VERSION_BLOCK = "Version File";
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private VersionLookup() {
+  }
+
+  /**
+   * Starts the Lookup of the Versions of the given Application.
+
+   * @param entry The Entry of the Application in the Catalog.
+   * @return  The Future of the Entry with the published Versions. It's completed exceptionally,
+   *      if the Version File couldn't be read.
+   * @since 1.0
+   */
+  public static CompletableFuture<CatalogEntry> lookup(CatalogEntry entry) {
+    if (entry.hasVersion()) {
+      return CompletableFuture.completedFuture(entry);
+    }
+    return CompletableFuture.supplyAsync(() -> fetch(entry), LauncherExecutors.workers());
+  }
+
+  /**
+   * Requests the Version File of the given Application and reads its Versions.
+
+   * @param entry The Entry of the Application in the Catalog.
+   * @return  The Entry with the published Versions.
+   * @throws CompletionException  If the Version File couldn't be read completely.
+   * @since 1.0
+   */
+  private static CatalogEntry fetch(CatalogEntry entry) {
+    List<String> lines = new ArrayList<String>();
+    try (ManifestTokenizer tokens = ManifestTokenizer.fetch(entry.getRepo(), "version.txt",
+        Deadlines.METADATA, () -> false, VERSION_BLOCK)) {
+      String line;
+      while ((line = tokens.next()) != null) {
+        lines.add(line);
+      }
+      if (!tokens.isComplete()) {
+        throw new IOException("Version File of " + entry.getRepo() + " is incomplete");
+      }
+    } catch (IOException e) {
+      LoggingTool.log(VersionLookup.class, LoggingTool.getLineNumber(),
+          "Couldn't look up the Versions of " + entry.getRepo() + ": " + e.getMessage());
+      throw new CompletionException(e);
+    }
+    CatalogEntry result = parse(entry.getRepo(), entry.getName(), lines);
+    if (result == null) {
+      throw new CompletionException(new IOException("Version File of " + entry.getRepo()
+          + " contains no Version"));
+    }
+    LoggingTool.log(VersionLookup.class, LoggingTool.getLineNumber(),
+        "Looked up the Versions of " + result);
+    return result;
+  }
+
+  /**
+   * Parses the Lines of a Version File. The first Line is always "Current Version:" and is
+   * skipped, the second Line contains the latest published Version. The third Line doesn't
+   * contain a Version either, all remaining Lines are older Versions.
+
+   * @param repo  The Name of the Repository.
+   * @param name  The clear Name of the Application.
+   * @param lines The Lines of the Version Block.
+   * @return  The Entry with the published Versions or {@code null}, if the Lines contain no
+   *      Version.
+   * @since 1.0
+   */
+  public static CatalogEntry parse(String repo, String name, List<String> lines) {
+    if (lines.size() < 2) {
+      return null;
+    }
+    Iterator<String> it = lines.iterator();
+    it.next();
+    String version = it.next();
+    if (it.hasNext()) {
+      it.next();
+    }
+    List<String> oldVersions = new ArrayList<String>();
+    while (it.hasNext()) {
+      oldVersions.add(it.next());
+    }
+    return new CatalogEntry(repo, name, version, oldVersions, null, -1, null);
+  }
+}
@@ -0,0 +1,9 @@
+/**
+ * Classes, that describe the Applications published to the Launcher and their Versions. The
+ * Catalog is fetched once at the Start of the Launcher, so the UpdateTasks can check for Updates
+ * without requesting each Repository.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+package util.catalog;
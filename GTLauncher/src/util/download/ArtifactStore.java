@@ -0,0 +1,667 @@
+package util.download;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A local Store of the downloaded Versions of all Applications, that are addressed by their
+ * SHA-256 Hash. Installing a Version, that is still in this Store, only copies it from the hard
+ * drive instead of downloading it again.
+ * <br>A jar-File is split at the boundaries of its Entries. The compressed Data of every Entry is
+ * stored as an Object, that is named after its Hash, while the Headers between them are kept in
+ * the Recipe of the File. Since unchanged classes and resources keep their compressed bytes
+ * between Versions, and Libraries are shared between Applications, each of them is stored only
+ * once. The Recipe reproduces the File byte by byte, so it still matches its published Checksum.
+ * <br>The Store is kept below {@link #MAX_SIZE} bytes and keeps at most {@link #MAX_VERSIONS}
+ * Versions of each Application. If it grows too large, the least recently used Versions are
+ * evicted first and all Objects, that aren't used by any Recipe anymore, are deleted.
+ * <pre>
+ * .store/objects/ab/cdef...   the Objects
+ * .store/artifacts/abcdef...  the Recipes of whole Files
+ * .store/refs/App/1.0         the Hash of Version 1.0 of App
+ * </pre>
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class ArtifactStore {
+
+  /**
+   * The maximum Size of all Objects and Recipes of the Store in bytes.
+   */
+  private static final long MAX_SIZE = 256L * 1024 * 1024;
+
+  /**
+   * The maximum amount of Versions, that are kept for each Application.
+   */
+  private static final int MAX_VERSIONS = 3;
+
+  /**
+   * The minimum Size of a Part in bytes, that is stored as an Object. Smaller Parts, like the
+   * Headers of the Entries, are kept inline in the Recipe.
+   */
+  private static final int MIN_OBJECT = 256;
+
+  /**
+   * The first bytes of every Recipe.
+   */
+  private static final byte[] MAGIC = {'G', 'T', 'R', 'C', 'P', '1'};
+
+  /**
+   * The Signature of the End of the central Directory of a jar-File.
+   */
+  private static final int END_SIGNATURE = 0x06054b50;
+
+  /**
+   * The Signature of an Entry in the central Directory of a jar-File.
+   */
+  private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+  /**
+   * The Signature of the local Header of an Entry in a jar-File.
+   */
+  private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+  /**
+   * The Lock of all Stores. Every Store on the same Folder has to see a consistent state, while
+   * other Downloads add or evict Versions.
+   */
+  private static final Object LOCK = new Object();
+
+  /**
+   * The Folder of the Objects.
+   */
+  private final File objects;
+
+  /**
+   * The Folder of the Recipes.
+   */
+  private final File artifacts;
+
+  /**
+   * The Folder of the References from Versions to Recipes.
+   */
+  private final File refs;
+
+  /**
+   * Creates a new Store in the given Folder. The Folder will be created when the first File is
+   * added.
+
+   * @param root  The Folder of the Store.
+   * @since 1.0
+   */
+  public ArtifactStore(File root) {
+    this.objects = new File(root, "objects");
+    this.artifacts = new File(root, "artifacts");
+    this.refs = new File(root, "refs");
+  }
+
+  /**
+   * Returns the Store for the given Application. All Applications share the Store in the ".store"
+   * Folder next to their own Folders ("some/dir/app/.store/").
+
+   * @param appFile The jar-File of the Application ("some/dir/app/Name/Repo.jar").
+   * @return  The Store of the Launcher.
+   * @since 1.0
+   */
+  public static ArtifactStore forApplication(File appFile) {
+    return new ArtifactStore(new File(appFile.getAbsoluteFile().getParentFile().getParentFile(),
+        ".store"));
+  }
+
+  /**
+   * Checks, if the given Version of the given Application is in this Store.
+
+   * @param app The Name of the Application.
+   * @param version The Version of the Application.
+   * @return  {@code true}, if the Version can be {@link #materialize(String, String, File)
+   *      materialized}, {@code false} if not.
+   * @since 1.0
+   */
+  public boolean contains(String app, String version) {
+    synchronized (LOCK) {
+      try {
+        File ref = refFile(app, version);
+        return ref.isFile() && new File(artifacts, readRef(ref)).isFile();
+      } catch (IOException e) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Adds the given File as the given Version of the given Application to this Store. Parts, that
+   * are already stored, won't be written again. Afterwards, older Versions are evicted, if the
+   * Store grew too large.
+
+   * @param app The Name of the Application.
+   * @param version The Version of the Application.
+   * @param file  The File of this Version.
+   * @return  The SHA-256 Hash of the File.
+   * @throws IOException  If the File couldn't be read or the Store couldn't be written.
+   * @since 1.0
+   */
+  public String put(String app, String version, File file) throws IOException {
+    synchronized (LOCK) {
+      String hash = StreamingDigest.of(file);
+      File recipe = new File(artifacts, hash);
+      if (!recipe.isFile()) {
+        artifacts.mkdirs();
+        File tmp = new File(artifacts, hash + ".tmp");
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(tmp)))) {
+          out.write(MAGIC);
+          out.writeLong(in.size());
+          /*
+           * Writes the compressed Data of every Entry and the Headers between them as single
+           * Parts. If the File isn't a valid jar-File, it's stored as a single Part.
+           */
+          long cursor = 0;
+          for (long[] entry : entries(in)) {
+            writePart(in, out, cursor, entry[0]);
+            cursor = writePart(in, out, entry[0], entry[1]);
+          }
+          writePart(in, out, cursor, in.size());
+          out.writeByte('E');
+        }
+        move(tmp, recipe);
+      }
+      writeRef(app, version, hash);
+      evict(app, version);
+      return hash;
+    }
+  }
+
+  /**
+   * Writes the given Version of the given Application from this Store to the given File. The
+   * written File is checked against the Hash, it was stored with. If it doesn't match, the Version
+   * is removed from this Store.
+
+   * @param app The Name of the Application.
+   * @param version The Version of the Application.
+   * @param target  The File, the Version will be written to.
+   * @return  {@code true}, if the Version was written, {@code false} if it isn't in this Store.
+   * @throws IOException  If the Version couldn't be written or was damaged.
+   * @since 1.0
+   */
+  public boolean materialize(String app, String version, File target) throws IOException {
+    synchronized (LOCK) {
+      File ref = refFile(app, version);
+      if (!ref.isFile()) {
+        return false;
+      }
+      String hash = readRef(ref);
+      long length;
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+          new FileInputStream(new File(artifacts, hash))));
+          FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+          throw new IOException("Not a Recipe: " + hash);
+        }
+        length = in.readLong();
+        /*
+         * Copies every Object directly into the File and writes the inline Parts in between.
+         */
+        for (byte op = in.readByte(); op != 'E'; op = in.readByte()) {
+          if (op == 'O') {
+            String object = in.readUTF();
+            long size = in.readLong();
+            try (FileChannel part = FileChannel.open(objectFile(object).toPath(),
+                StandardOpenOption.READ)) {
+              if (part.size() != size) {
+                throw new IOException("Object " + object + " is damaged");
+              }
+              for (long done = 0; done < size; ) {
+                done += part.transferTo(done, size - done, out);
+              }
+            }
+          } else if (op == 'I') {
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+              out.write(buffer);
+            }
+          } else {
+            throw new IOException("Unknown Part " + op + " in Recipe " + hash);
+          }
+        }
+      } catch (IOException e) {
+        ref.delete();
+        target.delete();
+        throw e;
+      }
+
+      /*
+       * Checks the written File, so a damaged Store can never replace an installed Application.
+       */
+      if (target.length() != length || !StreamingDigest.of(target).equals(hash)) {
+        ref.delete();
+        target.delete();
+        throw new IOException("Version " + version + " of " + app + " is damaged in the Store");
+      }
+      ref.setLastModified(System.currentTimeMillis());
+      return true;
+    }
+  }
+
+  /**
+   * Writes the given Part of the given File into the Recipe. Large Parts are stored as an Object,
+   * if there is no Object with the same Hash yet, small Parts are written inline.
+
+   * @param in  The File to be stored.
+   * @param out The Recipe.
+   * @param from  The position of the first byte of the Part.
+   * @param to  The position after the last byte of the Part.
+   * @return  The position after the last byte of the Part.
+   * @throws IOException  If the File couldn't be read or the Part couldn't be written.
+   * @since 1.0
+   */
+  private long writePart(FileChannel in, DataOutputStream out, long from, long to)
+      throws IOException {
+    if (to <= from) {
+      return from;
+    }
+    long size = to - from;
+    if (size < MIN_OBJECT) {
+      ByteBuffer data = read(in, from, (int) size);
+      out.writeByte('I');
+      out.writeInt((int) size);
+      out.write(data.array());
+      return to;
+    }
+    String hash = hash(in, from, size);
+    File object = objectFile(hash);
+    if (!object.isFile() || object.length() != size) {
+      object.getParentFile().mkdirs();
+      File tmp = new File(object.getPath() + ".tmp");
+      try (FileChannel part = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        for (long done = 0; done < size; ) {
+          done += in.transferTo(from + done, size - done, part);
+        }
+      }
+      move(tmp, object);
+    }
+    out.writeByte('O');
+    out.writeUTF(hash);
+    out.writeLong(size);
+    return to;
+  }
+
+  /**
+   * Evicts older Versions. Only the latest {@link #MAX_VERSIONS} Versions of the given Application
+   * are kept. Afterwards, the least recently used Versions of all Applications are evicted, until
+   * the Store is smaller than {@link #MAX_SIZE}. The given Version is never evicted.
+
+   * @param app The Name of the Application, that was just added.
+   * @param version The Version, that was just added.
+   * @since 1.0
+   */
+  private void evict(String app, String version) {
+    File keep = refFile(app, version);
+    File[] versions = keep.getParentFile().listFiles();
+    if (versions != null && versions.length > MAX_VERSIONS) {
+      Arrays.sort(versions, Comparator.comparingLong(File::lastModified).reversed());
+      for (int i = MAX_VERSIONS; i < versions.length; i++) {
+        if (!versions[i].equals(keep)) {
+          versions[i].delete();
+        }
+      }
+    }
+    collect();
+    while (size() > MAX_SIZE) {
+      File oldest = null;
+      for (File ref : allRefs()) {
+        if (!ref.equals(keep) && (oldest == null || ref.lastModified() < oldest.lastModified())) {
+          oldest = ref;
+        }
+      }
+      if (oldest == null) {
+        return;
+      }
+      oldest.delete();
+      collect();
+    }
+  }
+
+  /**
+   * Deletes all Recipes, that aren't referenced by any Version, and all Objects, that aren't used
+   * by any of the remaining Recipes.
+
+   * @since 1.0
+   */
+  private void collect() {
+    HashSet<String> liveRecipes = new HashSet<String>();
+    for (File ref : allRefs()) {
+      try {
+        liveRecipes.add(readRef(ref));
+      } catch (IOException e) {
+        ref.delete();
+      }
+    }
+    HashSet<String> liveObjects = new HashSet<String>();
+    File[] recipes = artifacts.listFiles();
+    if (recipes != null) {
+      for (File recipe : recipes) {
+        if (!liveRecipes.contains(recipe.getName()) || !readObjects(recipe, liveObjects)) {
+          recipe.delete();
+        }
+      }
+    }
+    File[] groups = objects.listFiles();
+    if (groups != null) {
+      for (File group : groups) {
+        File[] files = group.listFiles();
+        if (files != null) {
+          for (File object : files) {
+            if (!liveObjects.contains(group.getName() + object.getName())) {
+              object.delete();
+            }
+          }
+        }
+        group.delete();
+      }
+    }
+  }
+
+  /**
+   * Adds the Hashes of all Objects, that are used by the given Recipe, to the given Set.
+
+   * @param recipe  The Recipe to be read.
+   * @param live  The Set, the Hashes will be added to.
+   * @return  {@code true}, if the Recipe was read, {@code false} if it's damaged.
+   * @since 1.0
+   */
+  private boolean readObjects(File recipe, HashSet<String> live) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        new FileInputStream(recipe)))) {
+      in.skipBytes(MAGIC.length + Long.BYTES);
+      for (byte op = in.readByte(); op != 'E'; op = in.readByte()) {
+        if (op == 'O') {
+          live.add(in.readUTF());
+          in.readLong();
+        } else if (op == 'I') {
+          in.skipBytes(in.readInt());
+        } else {
+          return false;
+        }
+      }
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the current Size of all Objects and Recipes in this Store.
+
+   * @return  The Size in bytes.
+   * @since 1.0
+   */
+  public long size() {
+    synchronized (LOCK) {
+      long size = 0;
+      File[] recipes = artifacts.listFiles();
+      if (recipes != null) {
+        for (File recipe : recipes) {
+          size += recipe.length();
+        }
+      }
+      File[] groups = objects.listFiles();
+      if (groups != null) {
+        for (File group : groups) {
+          File[] files = group.listFiles();
+          if (files != null) {
+            for (File object : files) {
+              size += object.length();
+            }
+          }
+        }
+      }
+      return size;
+    }
+  }
+
+  /**
+   * Returns all References of all Applications.
+
+   * @return  The References as a List of Files.
+   * @since 1.0
+   */
+  private List<File> allRefs() {
+    ArrayList<File> result = new ArrayList<File>();
+    File[] apps = refs.listFiles();
+    if (apps != null) {
+      for (File app : apps) {
+        File[] versions = app.listFiles();
+        if (versions != null) {
+          result.addAll(Arrays.asList(versions));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds the compressed Data of all Entries of the given jar-File. The Entries are read from the
+   * central Directory, their Data starts after their local Headers.
+
+   * @param in  The File to be read.
+   * @return  The start and end positions of the Data of all Entries, sorted by their position. If
+   *      the File isn't a valid jar-File, the List is empty.
+   * @throws IOException  If the File couldn't be read.
+   * @since 1.0
+   */
+  private static List<long[]> entries(FileChannel in) throws IOException {
+    ArrayList<long[]> entries = new ArrayList<long[]>();
+    long size = in.size();
+    if (size < 22) {
+      return entries;
+    }
+    /*
+     * Searches the End of the central Directory, that might be followed by a Comment.
+     */
+    int tail = (int) Math.min(size, 22 + 0xFFFF);
+    ByteBuffer end = read(in, size - tail, tail);
+    int eocd = tail - 22;
+    while (eocd >= 0 && end.getInt(eocd) != END_SIGNATURE) {
+      eocd--;
+    }
+    if (eocd < 0) {
+      return entries;
+    }
+    long directorySize = end.getInt(eocd + 12) & 0xFFFFFFFFL;
+    long directoryOffset = end.getInt(eocd + 16) & 0xFFFFFFFFL;
+    if (directoryOffset + directorySize > size || directorySize > Integer.MAX_VALUE) {
+      return entries;
+    }
+
+    /*
+     * Reads every Entry of the central Directory and its local Header.
+     */
+    ByteBuffer directory = read(in, directoryOffset, (int) directorySize);
+    int pos = 0;
+    while (pos + 46 <= directorySize && directory.getInt(pos) == CENTRAL_SIGNATURE) {
+      long compressed = directory.getInt(pos + 20) & 0xFFFFFFFFL;
+      long offset = directory.getInt(pos + 42) & 0xFFFFFFFFL;
+      pos += 46 + (directory.getShort(pos + 28) & 0xFFFF)
+          + (directory.getShort(pos + 30) & 0xFFFF) + (directory.getShort(pos + 32) & 0xFFFF);
+      if (offset + 30 > directoryOffset) {
+        return new ArrayList<long[]>();
+      }
+      ByteBuffer local = read(in, offset, 30);
+      if (local.getInt(0) != LOCAL_SIGNATURE) {
+        return new ArrayList<long[]>();
+      }
+      long start = offset + 30 + (local.getShort(26) & 0xFFFF) + (local.getShort(28) & 0xFFFF);
+      if (start + compressed > directoryOffset) {
+        return new ArrayList<long[]>();
+      }
+      entries.add(new long[] {start, start + compressed});
+    }
+    entries.sort(Comparator.comparingLong(entry -> entry[0]));
+    for (int i = 1; i < entries.size(); i++) {
+      if (entries.get(i)[0] < entries.get(i - 1)[1]) {
+        return new ArrayList<long[]>();
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Reads the given amount of bytes from the given position of the given File.
+
+   * @param in  The File to be read.
+   * @param position  The position of the first byte.
+   * @param length  The amount of bytes to be read.
+   * @return  A little endian Buffer with the bytes.
+   * @throws IOException  If the File couldn't be read or is too short.
+   * @since 1.0
+   */
+  private static ByteBuffer read(FileChannel in, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (in.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("File ended at " + (position + buffer.position()));
+      }
+    }
+    return buffer;
+  }
+
+  /**
+   * Computes the SHA-256 Hash of the given Part of the given File.
+
+   * @param in  The File to be read.
+   * @param position  The position of the first byte of the Part.
+   * @param length  The Length of the Part.
+   * @return  The Hash in lower case hexadecimal characters.
+   * @throws IOException  If the File couldn't be read.
+   * @since 1.0
+   */
+  private static String hash(FileChannel in, long position, long length) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    ByteBuffer buffer = BufferPool.acquire(BufferPool.sizeFor(length));
+    try {
+      for (long done = 0; done < length; ) {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), length - done));
+        int read = in.read(buffer, position + done);
+        if (read < 0) {
+          throw new EOFException("File ended at " + (position + done));
+        }
+        buffer.flip();
+        digest.update(buffer);
+        done += read;
+      }
+    } finally {
+      BufferPool.release(buffer);
+    }
+    return StreamingDigest.toHex(digest.digest());
+  }
+
+  /**
+   * Returns the File of the Object with the given Hash.
+
+   * @param hash  The Hash of the Object.
+   * @return  The File of the Object.
+   * @since 1.0
+   */
+  private File objectFile(String hash) {
+    return new File(new File(objects, hash.substring(0, 2)), hash.substring(2));
+  }
+
+  /**
+   * Returns the File of the Reference to the given Version of the given Application.
+
+   * @param app The Name of the Application.
+   * @param version The Version of the Application.
+   * @return  The File of the Reference.
+   * @since 1.0
+   */
+  private File refFile(String app, String version) {
+    return new File(new File(refs, safe(app)), safe(version));
+  }
+
+  /**
+   * Reads the Hash of the Recipe from the given Reference.
+
+   * @param ref The Reference to be read.
+   * @return  The Hash of the Recipe.
+   * @throws IOException  If the Reference couldn't be read.
+   * @since 1.0
+   */
+  private static String readRef(File ref) throws IOException {
+    return new String(Files.readAllBytes(ref.toPath()), StandardCharsets.US_ASCII).trim();
+  }
+
+  /**
+   * Writes the Reference from the given Version of the given Application to the given Hash.
+
+   * @param app The Name of the Application.
+   * @param version The Version of the Application.
+   * @param hash  The Hash of the Recipe.
+   * @throws IOException  If the Reference couldn't be written.
+   * @since 1.0
+   */
+  private void writeRef(String app, String version, String hash) throws IOException {
+    File ref = refFile(app, version);
+    ref.getParentFile().mkdirs();
+    File tmp = new File(ref.getPath() + ".tmp");
+    Files.write(tmp.toPath(), hash.getBytes(StandardCharsets.US_ASCII));
+    move(tmp, ref);
+  }
+
+  /**
+   * Replaces the given target File with the given File.
+
+   * @param from  The File to be moved.
+   * @param to  The File to be replaced.
+   * @throws IOException  If the File couldn't be moved.
+   * @since 1.0
+   */
+  private static void move(File from, File to) throws IOException {
+    Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Replaces all characters of the given Name, that might not be allowed in a File Name.
+
+   * @param name  The Name of an Application or a Version.
+   * @return  The Name, that can be used as a File Name.
+   * @since 1.0
+   */
+  private static String safe(String name) {
+    return name.replaceAll("[^A-Za-z0-9._-]", "_");
+  }
+}
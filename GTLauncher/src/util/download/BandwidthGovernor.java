@@ -0,0 +1,287 @@
+package util.download;
+
+import java.io.InterruptedIOException;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import loggingtool.LoggingTool;
+
+/**
+ * Limits the Bandwidth of all Downloads of the Launcher together, so updating several Applications
+ * at once doesn't saturate the Connection, that other Devices (like card terminals) depend on.
+ * <br>The Limit is enforced by a Token Bucket, that is filled with {@link #currentLimit()} bytes
+ * per second. Every Transfer has to take Tokens before reading from its Connection. Tokens are
+ * handed out in Slices of at most {@link #SLICE} bytes in the order the Transfers asked for them,
+ * so all running Downloads share the Limit equally, while a Download, that doesn't need its share,
+ * leaves it to the others.
+ * <br>Besides the global Limit, Profiles for certain times of the day can be configured, e.g. to
+ * download at full speed after closing time.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class BandwidthGovernor {
+
+  /**
+   * The maximum amount of bytes, a Transfer receives at once.
+   */
+  private static final int SLICE = 16 * 1024;
+
+  /**
+   * The maximum Time in milliseconds, a Transfer waits before the Limit is checked again. This
+   * ensures, that a changed Limit takes effect immediately.
+   */
+  private static final long MAX_WAIT = 100;
+
+  /**
+   * The fair Lock, that hands out the Tokens in the order, the Transfers asked for them.
+   */
+  private static final ReentrantLock turn = new ReentrantLock(true);
+
+  /**
+   * The Tokens, that were returned by Transfers, which didn't use them. They are added to the
+   * Bucket on the next refill.
+   */
+  private static final AtomicLong refunded = new AtomicLong();
+
+  /**
+   * The global Limit in bytes per second or 0, if the Bandwidth isn't limited.
+   */
+  private static volatile long limit;
+
+  /**
+   * The Profiles, that replace the global Limit at certain times of the day.
+   */
+  private static volatile List<Profile> profiles = Collections.emptyList();
+
+  /**
+   * The amount of Tokens in the Bucket. Only accessed while holding {@link #turn}.
+   */
+  private static double tokens;
+
+  /**
+   * The time of the last refill in nanoseconds. Only accessed while holding {@link #turn}.
+   */
+  private static long lastRefill;
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private BandwidthGovernor() {
+  }
+
+  /**
+   * Sets the global Limit and the Profiles. This can be called at any time, running Transfers will
+   * follow the new Limit immediately.
+   * <br>The Profiles are given as a List separated by semicolons, where each Profile consists of a
+   * time span and its Limit in kB/s, e.g. {@code "22:00-06:00=0;12:00-14:00=200"}. A Limit of 0
+   * means full speed. Invalid Profiles are ignored.
+
+   * @param bytesPerSecond  The global Limit in bytes per second or 0 for full speed.
+   * @param profileList The Profiles or an empty String, if there are none.
+   * @since 1.0
+   */
+  public static void configure(long bytesPerSecond, String profileList) {
+    ArrayList<Profile> parsed = new ArrayList<Profile>();
+    if (profileList != null) {
+      for (String entry : profileList.split(";")) {
+        if (entry.trim().isEmpty()) {
+          continue;
+        }
+        try {
+          parsed.add(Profile.parse(entry.trim()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+          LoggingTool.logError(BandwidthGovernor.class, LoggingTool.getLineNumber(),
+              "Ignoring invalid Bandwidth Profile: " + entry);
+        }
+      }
+    }
+    limit = Math.max(bytesPerSecond, 0);
+    profiles = Collections.unmodifiableList(parsed);
+    LoggingTool.log(BandwidthGovernor.class, LoggingTool.getLineNumber(),
+        "Bandwidth Limit set to " + limit + " B/s with " + parsed.size() + " Profiles");
+  }
+
+  /**
+   * Checks, if the given List of Profiles can be parsed completely.
+
+   * @param profileList The Profiles as described in {@link #configure(long, String)}.
+   * @return  {@code true}, if all Profiles are valid, {@code false} if not.
+   * @since 1.0
+   */
+  public static boolean isValid(String profileList) {
+    for (String entry : profileList.split(";")) {
+      if (!entry.trim().isEmpty()) {
+        try {
+          Profile.parse(entry.trim());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the Limit, that applies right now. This is the Limit of the first Profile, that
+   * contains the current time, or the global Limit, if there is none.
+
+   * @return  The Limit in bytes per second or 0, if the Bandwidth isn't limited right now.
+   * @since 1.0
+   */
+  public static long currentLimit() {
+    List<Profile> current = profiles;
+    if (!current.isEmpty()) {
+      LocalTime now = LocalTime.now();
+      for (Profile profile : current) {
+        if (profile.contains(now)) {
+          return profile.limit;
+        }
+      }
+    }
+    return limit;
+  }
+
+  /**
+   * Takes Tokens for the given amount of bytes from the Bucket. Waits, until enough Tokens are
+   * available. The Transfer may receive less Tokens than it asked for and has to read at most
+   * this many bytes.
+
+   * @param wanted  The amount of bytes, the Transfer wants to read.
+   * @return  The amount of bytes, the Transfer may read.
+   * @throws InterruptedIOException If the Transfer was interrupted while waiting.
+   * @since 1.0
+   */
+  static int acquire(int wanted) throws InterruptedIOException {
+    if (wanted <= 0 || currentLimit() <= 0) {
+      return wanted;
+    }
+    try {
+      turn.lockInterruptibly();
+      try {
+        while (true) {
+          long rate = currentLimit();
+          if (rate <= 0) {
+            return wanted;
+          }
+          /*
+           * Refills the Bucket. The Bucket holds at most a quarter of a second worth of Tokens,
+           * so an idle Connection doesn't lead to a burst afterwards.
+           */
+          long burst = Math.max(rate / 4, 1024);
+          int grant = (int) Math.min(wanted, Math.min(SLICE, burst));
+          long now = System.nanoTime();
+          tokens = Math.min(burst,
+              tokens + refunded.getAndSet(0) + (now - lastRefill) / 1e9 * rate);
+          lastRefill = now;
+          if (tokens >= grant) {
+            tokens -= grant;
+            return grant;
+          }
+          long wait = (long) Math.ceil((grant - tokens) * 1000 / rate);
+          Thread.sleep(Math.max(1, Math.min(wait, MAX_WAIT)));
+        }
+      } finally {
+        turn.unlock();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for Bandwidth");
+    }
+  }
+
+  /**
+   * Returns Tokens, that were taken by {@link #acquire(int)}, but not used, because less bytes
+   * than granted were read.
+
+   * @param unused  The amount of unused bytes.
+   * @since 1.0
+   */
+  static void refund(int unused) {
+    if (unused > 0) {
+      refunded.addAndGet(unused);
+    }
+  }
+
+  /**
+   * A Limit, that applies during a certain time of the day.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  private static final class Profile {
+
+    /**
+     * The start of the time span, inclusive.
+     */
+    private final LocalTime from;
+
+    /**
+     * The end of the time span, exclusive. If this is before {@link #from}, the time span
+     * includes midnight.
+     */
+    private final LocalTime to;
+
+    /**
+     * The Limit during this time span in bytes per second or 0 for full speed.
+     */
+    private final long limit;
+
+    /**
+     * Creates a new Profile with the given values.
+
+     * @param from  The start of the time span.
+     * @param to  The end of the time span.
+     * @param limit The Limit in bytes per second.
+     * @since 1.0
+     */
+    private Profile(LocalTime from, LocalTime to, long limit) {
+      this.from = from;
+      this.to = to;
+      this.limit = limit;
+    }
+
+    /**
+     * Parses a single Profile like {@code "22:00-06:00=0"}, where the Limit is given in kB/s.
+
+     * @param entry The Profile to be parsed.
+     * @return  The parsed Profile.
+     * @throws IllegalArgumentException If the Profile isn't formatted correctly.
+     * @since 1.0
+     */
+    private static Profile parse(String entry) {
+      int equals = entry.indexOf('=');
+      int dash = entry.indexOf('-');
+      if (dash < 0 || equals < dash) {
+        throw new IllegalArgumentException(entry);
+      }
+      LocalTime from = LocalTime.parse(entry.substring(0, dash).trim());
+      LocalTime to = LocalTime.parse(entry.substring(dash + 1, equals).trim());
+      long kiloBytes = Long.parseLong(entry.substring(equals + 1).trim());
+      if (kiloBytes < 0) {
+        throw new IllegalArgumentException(entry);
+      }
+      return new Profile(from, to, kiloBytes * 1024);
+    }
+
+    /**
+     * Checks, if the given time is within this Profile.
+
+     * @param time  The time to be checked.
+     * @return  {@code true}, if this Profile applies at the given time, {@code false} if not.
+     * @since 1.0
+     */
+    private boolean contains(LocalTime time) {
+      if (from.isBefore(to)) {
+        return !time.isBefore(from) && time.isBefore(to);
+      }
+      return !time.isBefore(from) || time.isBefore(to);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package util.download;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Pool of direct ByteBuffers, that is shared by all Transfers of the Launcher. Allocating direct
+ * Buffers is expensive, so Buffers are handed back to this Pool after each Transfer and reused by
+ * the next one.
+ * <br>The Buffers are grouped in a few fixed Sizes, so Transfers can switch to a larger or smaller
+ * Buffer depending on their throughput.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class BufferPool {
+
+  /**
+   * The Sizes of the Buffers in this Pool in bytes, sorted ascending.
+   */
+  private static final int[] SIZES = {64 * 1024, 256 * 1024, 1024 * 1024};
+
+  /**
+   * The maximum amount of idle Buffers, that will be kept for each Size in {@link #SIZES}.
+   */
+  private static final int[] RETAINED = {16, 8, 4};
+
+  /**
+   * The idle Buffers for each Size in {@link #SIZES}.
+   */
+  private static final ArrayList<ConcurrentLinkedQueue<ByteBuffer>> idle =
+      new ArrayList<ConcurrentLinkedQueue<ByteBuffer>>();
+
+  /**
+   * The amount of idle Buffers for each Size in {@link #SIZES}.
+   */
+  private static final AtomicInteger[] idleCounts = new AtomicInteger[SIZES.length];
+
+  static {
+    for (int i = 0; i < SIZES.length; i++) {
+      idle.add(new ConcurrentLinkedQueue<ByteBuffer>());
+      idleCounts[i] = new AtomicInteger();
+    }
+  }
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private BufferPool() {
+  }
+
+  /**
+   * Returns the smallest Size of a Buffer in this Pool, that can hold the given amount of bytes. If
+   * the amount is larger than the largest Size, the largest Size is returned.
+
+   * @param bytes The amount of bytes, the Buffer should be able to hold.
+   * @return  The Size of the Buffer in bytes.
+   * @since 1.0
+   */
+  public static int sizeFor(long bytes) {
+    for (int size : SIZES) {
+      if (bytes <= size) {
+        return size;
+      }
+    }
+    return SIZES[SIZES.length - 1];
+  }
+
+  /**
+   * Takes a Buffer of the given Size from this Pool. If there is no idle Buffer of this Size, a
+   * new one will be allocated. The returned Buffer is cleared.
+
+   * @param size  The Size of the Buffer. Will be rounded up to the next Size via
+   *      {@link #sizeFor(long)}.
+   * @return  A direct ByteBuffer, that has to be handed back via {@link #release(ByteBuffer)}.
+   * @since 1.0
+   */
+  public static ByteBuffer acquire(int size) {
+    int index = indexOf(sizeFor(size));
+    ByteBuffer buffer = idle.get(index).poll();
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(SIZES[index]);
+    }
+    idleCounts[index].decrementAndGet();
+    buffer.clear();
+    return buffer;
+  }
+
+  /**
+   * Hands the given Buffer back to this Pool. If there are already enough idle Buffers of its
+   * Size, the Buffer is dropped.
+
+   * @param buffer  The Buffer, that is no longer used.
+   * @since 1.0
+   */
+  public static void release(ByteBuffer buffer) {
+    int index = indexOf(buffer.capacity());
+    if (index < 0 || !buffer.isDirect()) {
+      return;
+    }
+    if (idleCounts[index].incrementAndGet() <= RETAINED[index]) {
+      idle.get(index).offer(buffer);
+    } else {
+      idleCounts[index].decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the index of the given Size in {@link #SIZES}.
+
+   * @param size  The Size of a Buffer.
+   * @return  The index of the Size or -1, if this Pool doesn't handle Buffers of this Size.
+   * @since 1.0
+   */
+  private static int indexOf(int size) {
+    for (int i = 0; i < SIZES.length; i++) {
+      if (SIZES[i] == size) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
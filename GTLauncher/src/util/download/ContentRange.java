@@ -0,0 +1,109 @@
+package util.download;
+
+/**
+ * The Range of a File, that a Server sent in its answer to a Range-Request, as described by the
+ * {@code Content-Range} Header, e.g. {@code "bytes 100-199/1000"}. An unsatisfiable Request is
+ * answered with {@code "bytes *}{@code /1000"}, which only contains the total Length.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class ContentRange {
+
+  /**
+   * The first byte of the Range or -1, if the Header contained no Range.
+   */
+  private final long first;
+
+  /**
+   * The last byte of the Range, inclusive, or -1, if the Header contained no Range.
+   */
+  private final long last;
+
+  /**
+   * The total Length of the File or -1, if the Server didn't know it.
+   */
+  private final long total;
+
+  /**
+   * Creates a new ContentRange with the given values.
+
+   * @param first The first byte of the Range.
+   * @param last  The last byte of the Range.
+   * @param total The total Length of the File.
+   * @since 1.0
+   */
+  private ContentRange(long first, long last, long total) {
+    this.first = first;
+    this.last = last;
+    this.total = total;
+  }
+
+  /**
+   * Parses the given {@code Content-Range} Header.
+
+   * @param header  The value of the Header, may be {@code null}.
+   * @return  The parsed Range or {@code null}, if the Header is missing or malformed.
+   * @since 1.0
+   */
+  public static ContentRange parse(String header) {
+    if (header == null || !header.trim().toLowerCase().startsWith("bytes")) {
+      return null;
+    }
+    String value = header.trim().substring(5).trim();
+    int slash = value.indexOf('/');
+    if (slash < 0) {
+      return null;
+    }
+    try {
+      String range = value.substring(0, slash).trim();
+      String length = value.substring(slash + 1).trim();
+      long total = length.equals("*") ? -1 : Long.parseLong(length);
+      if (range.equals("*")) {
+        return total < 0 ? null : new ContentRange(-1, -1, total);
+      }
+      int dash = range.indexOf('-');
+      if (dash < 0) {
+        return null;
+      }
+      long first = Long.parseLong(range.substring(0, dash).trim());
+      long last = Long.parseLong(range.substring(dash + 1).trim());
+      if (first < 0 || last < first || (total >= 0 && last >= total)) {
+        return null;
+      }
+      return new ContentRange(first, last, total);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the first byte of the Range.
+
+   * @return  The first byte or -1, if the Header contained no Range.
+   * @since 1.0
+   */
+  public long getFirst() {
+    return first;
+  }
+
+  /**
+   * Returns the last byte of the Range.
+
+   * @return  The last byte, inclusive, or -1, if the Header contained no Range.
+   * @since 1.0
+   */
+  public long getLast() {
+    return last;
+  }
+
+  /**
+   * Returns the total Length of the File.
+
+   * @return  The total Length in bytes or -1, if the Server didn't know it.
+   * @since 1.0
+   */
+  public long getTotal() {
+    return total;
+  }
+}
@@ -0,0 +1,324 @@
+package util.download;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A binary Patch, that turns one published Version of an Application into another one. Instead of
+ * the whole File, only the Patch has to be downloaded, when an older Version is installed.
+ * <br>A Patch File starts with the Header
+ * <pre>
+ * "GTDELTA1" | source Length (long) | source SHA-256 (32 bytes)
+ *            | target Length (long) | target SHA-256 (32 bytes)
+ * </pre>
+ * followed by a deflated Stream of Operations: {@code 'C' offset (long) length (int)} copies bytes
+ * from the installed File, {@code 'A' length (int) bytes} adds new bytes and {@code 'E'} ends the
+ * Patch. Since unchanged Entries of a jar-File keep their compressed bytes, most of a new Version
+ * can be copied from the installed one.
+ * <br>A Patch is published next to the File of the new Version as
+ * {@code <Name>-<installed Version>.delta}, see {@link #urlFor(String, String)}.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class DeltaPatch {
+
+  /**
+   * The first bytes of every Patch File.
+   */
+  private static final byte[] MAGIC = {'G', 'T', 'D', 'E', 'L', 'T', 'A', '1'};
+
+  /**
+   * The Size of the Blocks in bytes, that are compared when a Patch is created.
+   */
+  private static final int BLOCK = 32;
+
+  /**
+   * The Base of the rolling Hash, that is used to find matching Blocks.
+   */
+  private static final int BASE = 257;
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private DeltaPatch() {
+  }
+
+  /**
+   * Returns the URL of the Patch from the given installed Version to the Version, that can be
+   * downloaded from the given URL.
+
+   * @param downloadUrl The URL of the complete File of the new Version.
+   * @param installedVersion  The installed Version, the Patch will be applied to.
+   * @return  The URL of the Patch.
+   * @since 1.0
+   */
+  public static String urlFor(String downloadUrl, String installedVersion) {
+    String base = downloadUrl.endsWith(".jar")
+        ? downloadUrl.substring(0, downloadUrl.length() - 4) : downloadUrl;
+    return base + "-" + installedVersion + ".delta";
+  }
+
+  /**
+   * Applies the given Patch to the given source File and writes the result to the given target
+   * File. Before the Patch is applied, the source File is checked against the Header of the
+   * Patch. The target File is hashed while it's written and deleted, if it doesn't match.
+
+   * @param source  The installed File, the Patch will be applied to.
+   * @param patch The Patch File.
+   * @param target  The File, the new Version will be written to.
+   * @return  The SHA-256 Checksum of the written target File.
+   * @throws IOException  If one of the Files couldn't be read or written, the Patch is malformed
+   *      or it doesn't fit the source File.
+   * @since 1.0
+   */
+  public static String apply(File source, File patch, File target) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        new FileInputStream(patch)));
+        RandomAccessFile src = new RandomAccessFile(source, "r")) {
+      /*
+       * Reads the Header and checks, if the Patch was created for the installed File.
+       */
+      byte[] magic = new byte[MAGIC.length];
+      in.readFully(magic);
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new IOException("Not a Patch File: " + patch.getName());
+      }
+      long sourceLength = in.readLong();
+      byte[] sourceHash = new byte[32];
+      in.readFully(sourceHash);
+      long targetLength = in.readLong();
+      byte[] targetHash = new byte[32];
+      in.readFully(targetHash);
+      if (src.length() != sourceLength
+          || !StreamingDigest.toHex(sourceHash).equals(StreamingDigest.of(source))) {
+        throw new IOException("Patch doesn't fit the installed File " + source.getName());
+      }
+
+      /*
+       * Executes all Operations, while the target File is hashed.
+       */
+      MessageDigest md = sha256();
+      long written = 0;
+      DataInputStream ops = new DataInputStream(new InflaterInputStream(in));
+      try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(
+          new FileOutputStream(target)), md)) {
+        byte[] buffer = new byte[64 * 1024];
+        boolean end = false;
+        while (!end) {
+          byte op = ops.readByte();
+          if (op == 'C') {
+            long offset = ops.readLong();
+            int length = ops.readInt();
+            if (offset < 0 || length < 0 || offset + length > sourceLength) {
+              throw new IOException("Malformed Copy at " + offset);
+            }
+            src.seek(offset);
+            for (int left = length; left > 0; ) {
+              int chunk = Math.min(left, buffer.length);
+              src.readFully(buffer, 0, chunk);
+              out.write(buffer, 0, chunk);
+              left -= chunk;
+            }
+            written += length;
+          } else if (op == 'A') {
+            int length = ops.readInt();
+            for (int left = length; left > 0; ) {
+              int chunk = Math.min(left, buffer.length);
+              ops.readFully(buffer, 0, chunk);
+              out.write(buffer, 0, chunk);
+              left -= chunk;
+            }
+            written += length;
+          } else if (op == 'E') {
+            end = true;
+          } else {
+            throw new IOException("Unknown Operation " + op);
+          }
+        }
+      }
+
+      /*
+       * Checks the result against the Header.
+       */
+      byte[] hash = md.digest();
+      if (written != targetLength || !Arrays.equals(hash, targetHash)) {
+        target.delete();
+        throw new IOException("Patched File doesn't match the expected Version");
+      }
+      return StreamingDigest.toHex(hash);
+    }
+  }
+
+  /**
+   * Creates a Patch, that turns the given source File into the given target File. This is used
+   * when publishing a new Version, so the Launcher can fetch the Patch instead of the whole File.
+
+   * @param source  The File of the older Version.
+   * @param target  The File of the new Version.
+   * @param patch The File, the Patch will be written to.
+   * @throws IOException  If one of the Files couldn't be read or written.
+   * @since 1.0
+   */
+  public static void create(File source, File target, File patch) throws IOException {
+    byte[] src = Files.readAllBytes(source.toPath());
+    byte[] dst = Files.readAllBytes(target.toPath());
+    MessageDigest md = sha256();
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(patch)))) {
+      out.write(MAGIC);
+      out.writeLong(src.length);
+      out.write(md.digest(src));
+      out.writeLong(dst.length);
+      out.write(md.digest(dst));
+
+      Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+      DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater);
+      DataOutputStream ops = new DataOutputStream(deflated);
+      /*
+       * Indexes all aligned Blocks of the source File by their rolling Hash.
+       */
+      HashMap<Integer, Integer> index = new HashMap<Integer, Integer>();
+      for (int i = 0; i + BLOCK <= src.length; i += BLOCK) {
+        index.putIfAbsent(hash(src, i), i);
+      }
+      int power = 1;
+      for (int i = 0; i < BLOCK - 1; i++) {
+        power *= BASE;
+      }
+
+      /*
+       * Slides over the target File and copies every Block, that was found in the source File.
+       * Matches are extended in both directions as far as possible.
+       */
+      int literal = 0;
+      int i = 0;
+      int h = dst.length >= BLOCK ? hash(dst, 0) : 0;
+      while (i + BLOCK <= dst.length) {
+        Integer candidate = index.get(h);
+        if (candidate != null && regionMatches(src, candidate, dst, i, BLOCK)) {
+          int from = candidate;
+          int to = i;
+          int length = BLOCK;
+          while (to + length < dst.length && from + length < src.length
+              && dst[to + length] == src[from + length]) {
+            length++;
+          }
+          while (to > literal && from > 0 && dst[to - 1] == src[from - 1]) {
+            to--;
+            from--;
+            length++;
+          }
+          writeLiteral(ops, dst, literal, to);
+          ops.writeByte('C');
+          ops.writeLong(from);
+          ops.writeInt(length);
+          i = to + length;
+          literal = i;
+          if (i + BLOCK <= dst.length) {
+            h = hash(dst, i);
+          }
+        } else {
+          if (i + BLOCK < dst.length) {
+            h = (h - (dst[i] & 0xFF) * power) * BASE + (dst[i + BLOCK] & 0xFF);
+          }
+          i++;
+        }
+      }
+      writeLiteral(ops, dst, literal, dst.length);
+      ops.writeByte('E');
+      ops.flush();
+      deflated.finish();
+      deflater.end();
+    }
+  }
+
+  /**
+   * Writes the given Part of the target File as new bytes into the Patch, if it isn't empty.
+
+   * @param ops The Stream of Operations.
+   * @param data  The target File.
+   * @param from  The first byte of the Part.
+   * @param to  The byte after the last byte of the Part.
+   * @throws IOException  If the Operation couldn't be written.
+   * @since 1.0
+   */
+  private static void writeLiteral(DataOutputStream ops, byte[] data, int from, int to)
+      throws IOException {
+    if (to > from) {
+      ops.writeByte('A');
+      ops.writeInt(to - from);
+      ops.write(data, from, to - from);
+    }
+  }
+
+  /**
+   * Computes the rolling Hash of the Block starting at the given offset.
+
+   * @param data  The bytes to be hashed.
+   * @param offset  The first byte of the Block.
+   * @return  The Hash of the Block.
+   * @since 1.0
+   */
+  private static int hash(byte[] data, int offset) {
+    int h = 0;
+    for (int i = offset; i < offset + BLOCK; i++) {
+      h = h * BASE + (data[i] & 0xFF);
+    }
+    return h;
+  }
+
+  /**
+   * Compares the given Regions of both Arrays.
+
+   * @param a The first Array.
+   * @param offsetA The start of the Region in the first Array.
+   * @param b The second Array.
+   * @param offsetB The start of the Region in the second Array.
+   * @param length  The Length of both Regions.
+   * @return  {@code true}, if both Regions contain the same bytes.
+   * @since 1.0
+   */
+  private static boolean regionMatches(byte[] a, int offsetA, byte[] b, int offsetB, int length) {
+    for (int i = 0; i < length; i++) {
+      if (a[offsetA + i] != b[offsetB + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a new SHA-256 MessageDigest.
+
+   * @return  The MessageDigest.
+   * @since 1.0
+   */
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
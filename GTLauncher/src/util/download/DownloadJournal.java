@@ -0,0 +1,593 @@
+package util.download;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The Journal of an interrupted Download. It records, which Blocks of the partial File were
+ * already downloaded, together with a CRC32 Checksum of each of these Blocks, and the Version of
+ * the File on the Server (Length, ETag and Last-Modified), so a Download is only continued, if the
+ * File on the Server didn't change.
+ * <br>The Journal is written at Checkpoints during the Download. The partial File is always
+ * forced to the hard drive before the Journal, and the Journal is replaced at once, so after a
+ * power failure it never claims a Block, that wasn't written completely. When the Launcher
+ * starts, the Blocks of each Journal are checked with {@link #validate()} and damaged Blocks are
+ * downloaded again.
+ * <br>The Journal is stored next to the partial File as {@code <File>.journal}.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class DownloadJournal {
+
+  /**
+   * The Size of a single Block in bytes.
+   */
+  public static final int BLOCK_SIZE = 1024 * 1024;
+
+  /**
+   * The minimal Time in milliseconds between two Checkpoints.
+   */
+  private static final long CHECKPOINT_INTERVAL = 2000;
+
+  /**
+   * The first bytes of every Journal.
+   */
+  private static final byte[] MAGIC = {'G', 'T', 'J', 'R', 'N', 'L', '1'};
+
+  /**
+   * The partial File, this Journal belongs to.
+   */
+  private final File dataFile;
+
+  /**
+   * The URL, the File is downloaded from.
+   */
+  private final String url;
+
+  /**
+   * The Version of the Application, that is downloaded.
+   */
+  private final String version;
+
+  /**
+   * The total Length of the File in bytes or -1, if it isn't known yet.
+   */
+  private long length;
+
+  /**
+   * The ETag of the File on the Server or an empty String, if the Server didn't send one.
+   */
+  private String etag;
+
+  /**
+   * The Last-Modified Date of the File on the Server or an empty String, if the Server didn't
+   * send one.
+   */
+  private String lastModified;
+
+  /**
+   * The Blocks, that were downloaded completely.
+   */
+  private final BitSet complete;
+
+  /**
+   * The CRC32 Checksums of the downloaded Blocks, indexed by their Block.
+   */
+  private int[] checksums;
+
+  /**
+   * The time of the last Checkpoint in milliseconds.
+   */
+  private long lastCheckpoint;
+
+  /**
+   * Creates a new, empty Journal for the given partial File.
+
+   * @param dataFile  The partial File.
+   * @param url The URL, the File is downloaded from.
+   * @param version The Version of the Application, that is downloaded.
+   * @since 1.0
+   */
+  public DownloadJournal(File dataFile, String url, String version) {
+    this.dataFile = dataFile;
+    this.url = url;
+    this.version = version;
+    this.length = -1;
+    this.etag = "";
+    this.lastModified = "";
+    this.complete = new BitSet();
+    this.checksums = new int[0];
+    this.lastCheckpoint = System.currentTimeMillis();
+  }
+
+  /**
+   * Returns the File of the Journal of the given partial File.
+
+   * @param dataFile  The partial File.
+   * @return  The File of the Journal.
+   * @since 1.0
+   */
+  public static File journalFor(File dataFile) {
+    return new File(dataFile.getPath() + ".journal");
+  }
+
+  /**
+   * Returns the temporary File, a new Version of the given installed Application is downloaded
+   * to, before it replaces the installed File.
+
+   * @param appFile The jar-File of the Application.
+   * @return  The temporary File ("Name(tmp).jar").
+   * @since 1.0
+   */
+  public static File partFileFor(File appFile) {
+    return new File(appFile.getParentFile(), appFile.getName().replace(".jar", "(tmp).jar"));
+  }
+
+  /**
+   * Reads the Journal of the given partial File.
+
+   * @param dataFile  The partial File.
+   * @return  The Journal or {@code null}, if there is no Journal or it's damaged.
+   * @since 1.0
+   */
+  public static DownloadJournal read(File dataFile) {
+    File file = journalFor(dataFile);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      byte[] bytes = Files.readAllBytes(file.toPath());
+      /*
+       * Checks the Checksum at the end of the Journal, so a damaged Journal is never used.
+       */
+      if (bytes.length < MAGIC.length + Long.BYTES) {
+        return null;
+      }
+      CRC32 crc = new CRC32();
+      crc.update(bytes, 0, bytes.length - Long.BYTES);
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      byte[] magic = new byte[MAGIC.length];
+      in.readFully(magic);
+      if (!Arrays.equals(magic, MAGIC)
+          || ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong()
+          != crc.getValue()) {
+        return null;
+      }
+      DownloadJournal journal = new DownloadJournal(dataFile, in.readUTF(), in.readUTF());
+      journal.length = in.readLong();
+      journal.etag = in.readUTF();
+      journal.lastModified = in.readUTF();
+      if (in.readInt() != BLOCK_SIZE) {
+        return null;
+      }
+      long[] words = new long[in.readInt()];
+      for (int i = 0; i < words.length; i++) {
+        words[i] = in.readLong();
+      }
+      BitSet blocks = journal.complete;
+      blocks.or(BitSet.valueOf(words));
+      journal.checksums = new int[blocks.length()];
+      for (int b = blocks.nextSetBit(0); b >= 0; b = blocks.nextSetBit(b + 1)) {
+        journal.checksums[b] = in.readInt();
+      }
+      return journal;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Finds the Journal of an interrupted Download of the given Application. This might be the
+   * Download of a new Version to the temporary File or an interrupted first Installation.
+
+   * @param appFile The jar-File of the Application.
+   * @return  The Journal or {@code null}, if no Download of this Application was interrupted.
+   * @since 1.0
+   */
+  public static DownloadJournal find(File appFile) {
+    DownloadJournal journal = read(partFileFor(appFile));
+    return journal != null ? journal : read(appFile);
+  }
+
+  /**
+   * Creates a Journal for a partial File, that was downloaded by an older Launcher without a
+   * Journal. All complete Blocks of the File are taken over, since the downloaded File will be
+   * verified anyway.
+
+   * @param dataFile  The partial File.
+   * @param url The URL, the File is downloaded from.
+   * @param version The Version of the Application, that is downloaded.
+   * @return  The new Journal.
+   * @throws IOException  If the File couldn't be read or the Journal couldn't be written.
+   * @since 1.0
+   */
+  public static DownloadJournal adopt(File dataFile, String url, String version)
+      throws IOException {
+    DownloadJournal journal = new DownloadJournal(dataFile, url, version);
+    if (dataFile.isFile()) {
+      try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ,
+          StandardOpenOption.WRITE)) {
+        long blocks = channel.size() / BLOCK_SIZE;
+        journal.markComplete(channel, 0, blocks * BLOCK_SIZE);
+        journal.checkpoint(channel);
+      }
+    }
+    return journal;
+  }
+
+  /**
+   * Returns the partial File of this Journal.
+
+   * @return  The partial File.
+   * @since 1.0
+   */
+  public File getDataFile() {
+    return dataFile;
+  }
+
+  /**
+   * Returns the Version, that is downloaded.
+
+   * @return  The Version of the Application.
+   * @since 1.0
+   */
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the total Length of the File.
+
+   * @return  The Length in bytes or -1, if it isn't known yet.
+   * @since 1.0
+   */
+  public synchronized long getLength() {
+    return length;
+  }
+
+  /**
+   * Returns the Validator, that can be sent in an If-Range Header, so the Server only sends the
+   * requested Range, if the File didn't change.
+
+   * @return  The ETag or the Last-Modified Date of the File or {@code null}, if there is none.
+   * @since 1.0
+   */
+  public synchronized String getValidator() {
+    if (!etag.isEmpty()) {
+      return etag;
+    }
+    return lastModified.isEmpty() ? null : lastModified;
+  }
+
+  /**
+   * Checks, if this Journal belongs to the given Download.
+
+   * @param url The URL of the Download.
+   * @param version The Version of the Download.
+   * @return  {@code true}, if the Download can be continued with this Journal.
+   * @since 1.0
+   */
+  public boolean belongsTo(String url, String version) {
+    return this.url.equals(url) && this.version.equals(version);
+  }
+
+  /**
+   * Sets the Version of the File on the Server. If it differs from the recorded one, all
+   * downloaded Blocks are discarded, since they belong to another File.
+
+   * @param newLength The Length of the File on the Server.
+   * @param newEtag The ETag of the File or {@code null}, if there is none.
+   * @param newLastModified The Last-Modified Date of the File or {@code null}, if there is none.
+   * @return  {@code true}, if the downloaded Blocks were kept, {@code false} if they were
+   *      discarded.
+   * @since 1.0
+   */
+  public synchronized boolean setRemote(long newLength, String newEtag, String newLastModified) {
+    String e = newEtag == null ? "" : newEtag;
+    String m = newLastModified == null ? "" : newLastModified;
+    boolean same = length < 0 || (length == newLength
+        && (etag.isEmpty() || e.isEmpty() || etag.equals(e))
+        && (lastModified.isEmpty() || m.isEmpty() || lastModified.equals(m)));
+    if (!same) {
+      reset();
+    }
+    length = newLength;
+    etag = e;
+    lastModified = m;
+    return same;
+  }
+
+  /**
+   * Discards all downloaded Blocks.
+
+   * @since 1.0
+   */
+  public synchronized void reset() {
+    complete.clear();
+    checksums = new int[0];
+  }
+
+  /**
+   * Discards all downloaded Blocks from the given position on. Used, when the File is truncated.
+
+   * @param position  The new Length of the partial File.
+   * @since 1.0
+   */
+  public synchronized void truncate(long position) {
+    int first = (int) (position / BLOCK_SIZE);
+    complete.clear(first, Math.max(complete.length(), first));
+  }
+
+  /**
+   * Checks, if all Blocks of the File were downloaded.
+
+   * @return  {@code true}, if the File is complete, {@code false} if not or the Length of the File
+   *      isn't known yet.
+   * @since 1.0
+   */
+  public synchronized boolean isComplete() {
+    return length >= 0 && complete.nextClearBit(0) >= blockCount();
+  }
+
+  /**
+   * Returns the amount of downloaded bytes.
+
+   * @return  The amount of bytes in downloaded Blocks.
+   * @since 1.0
+   */
+  public synchronized long completedBytes() {
+    long bytes = 0;
+    for (int b = complete.nextSetBit(0); b >= 0; b = complete.nextSetBit(b + 1)) {
+      bytes += blockEnd(b) - (long) b * BLOCK_SIZE;
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the Length of the Part of the File, that was downloaded from its Start without any
+   * gaps.
+
+   * @return  The Length of the gap-free Part in bytes.
+   * @since 1.0
+   */
+  public synchronized long contiguousLength() {
+    int first = complete.nextClearBit(0);
+    return first == 0 ? 0 : blockEnd(first - 1);
+  }
+
+  /**
+   * Returns the Ranges of the File, that weren't downloaded yet.
+
+   * @return  The start and end positions of all missing Ranges, sorted by their position.
+   * @since 1.0
+   */
+  public synchronized List<long[]> missingRanges() {
+    ArrayList<long[]> ranges = new ArrayList<long[]>();
+    int blocks = blockCount();
+    for (int b = complete.nextClearBit(0); b < blocks; ) {
+      int next = Math.min(complete.nextSetBit(b) < 0 ? blocks : complete.nextSetBit(b), blocks);
+      ranges.add(new long[] {(long) b * BLOCK_SIZE, blockEnd(next - 1)});
+      b = complete.nextClearBit(next);
+    }
+    return ranges;
+  }
+
+  /**
+   * Marks all Blocks, that lie completely within the given Range, as downloaded. Their Checksums
+   * are computed from the partial File, which is still cached by the Operating System.
+
+   * @param data  The Channel to the partial File.
+   * @param from  The first downloaded byte.
+   * @param to  The byte after the last downloaded byte.
+   * @throws IOException  If the partial File couldn't be read.
+   * @since 1.0
+   */
+  public synchronized void markComplete(FileChannel data, long from, long to) throws IOException {
+    int first = (int) ((from + BLOCK_SIZE - 1) / BLOCK_SIZE);
+    ByteBuffer buffer = null;
+    try {
+      for (int b = first; blockEnd(b) <= to && (long) b * BLOCK_SIZE < blockEnd(b); b++) {
+        if (!complete.get(b)) {
+          if (buffer == null) {
+            buffer = BufferPool.acquire(BLOCK_SIZE);
+          }
+          setChecksum(b, crc(data, b, buffer));
+          complete.set(b);
+        }
+      }
+    } finally {
+      if (buffer != null) {
+        BufferPool.release(buffer);
+      }
+    }
+  }
+
+  /**
+   * Checks all downloaded Blocks against their Checksums and discards the damaged ones. The
+   * result is written to the Journal.
+
+   * @return  The amount of valid downloaded bytes.
+   * @throws IOException  If the partial File couldn't be read or the Journal couldn't be written.
+   * @since 1.0
+   */
+  public synchronized long validate() throws IOException {
+    if (!dataFile.isFile()) {
+      reset();
+    } else {
+      try (FileChannel data = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ,
+          StandardOpenOption.WRITE)) {
+        ByteBuffer buffer = BufferPool.acquire(BLOCK_SIZE);
+        try {
+          for (int b = complete.nextSetBit(0); b >= 0; b = complete.nextSetBit(b + 1)) {
+            if (blockEnd(b) > data.size() || crc(data, b, buffer) != checksums[b]) {
+              complete.clear(b);
+            }
+          }
+        } finally {
+          BufferPool.release(buffer);
+        }
+        checkpoint(data);
+      }
+    }
+    return completedBytes();
+  }
+
+  /**
+   * Checks, if the last Checkpoint is long enough ago, that a new one should be written.
+
+   * @return  {@code true}, if a Checkpoint is due.
+   * @since 1.0
+   */
+  public synchronized boolean isCheckpointDue() {
+    return System.currentTimeMillis() - lastCheckpoint >= CHECKPOINT_INTERVAL;
+  }
+
+  /**
+   * Writes the Journal. The partial File is forced to the hard drive first, so the Journal never
+   * refers to Data, that might get lost. The Journal is written to a temporary File, that replaces
+   * the Journal at once.
+
+   * @param data  The Channel to the partial File.
+   * @throws IOException  If the partial File couldn't be forced or the Journal couldn't be
+   *      written.
+   * @since 1.0
+   */
+  public synchronized void checkpoint(FileChannel data) throws IOException {
+    data.force(false);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.write(MAGIC);
+    out.writeUTF(url);
+    out.writeUTF(version);
+    out.writeLong(length);
+    out.writeUTF(etag);
+    out.writeUTF(lastModified);
+    out.writeInt(BLOCK_SIZE);
+    long[] words = complete.toLongArray();
+    out.writeInt(words.length);
+    for (long word : words) {
+      out.writeLong(word);
+    }
+    for (int b = complete.nextSetBit(0); b >= 0; b = complete.nextSetBit(b + 1)) {
+      out.writeInt(checksums[b]);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray());
+    out.writeLong(crc.getValue());
+
+    File journal = journalFor(dataFile);
+    File tmp = new File(journal.getPath() + ".tmp");
+    try (FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    try {
+      Files.move(tmp.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    lastCheckpoint = System.currentTimeMillis();
+  }
+
+  /**
+   * Deletes the Journal. Called, when the Download was finished or has to start again.
+
+   * @since 1.0
+   */
+  public void delete() {
+    journalFor(dataFile).delete();
+  }
+
+  /**
+   * Deletes the Journal together with its partial File.
+
+   * @since 1.0
+   */
+  public void discard() {
+    delete();
+    dataFile.delete();
+  }
+
+  /**
+   * Returns the amount of Blocks of the File.
+
+   * @return  The amount of Blocks or 0, if the Length isn't known yet.
+   * @since 1.0
+   */
+  private int blockCount() {
+    return length < 0 ? 0 : (int) ((length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+  }
+
+  /**
+   * Returns the end of the given Block. The last Block of the File might be shorter than
+   * {@link #BLOCK_SIZE}.
+
+   * @param block The Block.
+   * @return  The position after the last byte of the Block.
+   * @since 1.0
+   */
+  private long blockEnd(int block) {
+    long end = (long) (block + 1) * BLOCK_SIZE;
+    return length < 0 ? end : Math.min(end, length);
+  }
+
+  /**
+   * Stores the Checksum of the given Block.
+
+   * @param block The Block.
+   * @param crc The Checksum of the Block.
+   * @since 1.0
+   */
+  private void setChecksum(int block, int crc) {
+    if (block >= checksums.length) {
+      checksums = Arrays.copyOf(checksums, Math.max(block + 1, checksums.length * 2));
+    }
+    checksums[block] = crc;
+  }
+
+  /**
+   * Computes the CRC32 Checksum of the given Block of the partial File.
+
+   * @param data  The Channel to the partial File.
+   * @param block The Block.
+   * @param buffer  A Buffer, that can hold a whole Block.
+   * @return  The Checksum of the Block.
+   * @throws IOException  If the Block couldn't be read completely.
+   * @since 1.0
+   */
+  private int crc(FileChannel data, int block, ByteBuffer buffer) throws IOException {
+    long start = (long) block * BLOCK_SIZE;
+    buffer.clear();
+    buffer.limit((int) (blockEnd(block) - start));
+    while (buffer.hasRemaining()) {
+      if (data.read(buffer, start + buffer.position()) < 0) {
+        throw new IOException("Block " + block + " of " + dataFile.getName() + " is incomplete");
+      }
+    }
+    buffer.flip();
+    CRC32 crc = new CRC32();
+    crc.update(buffer);
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,172 @@
+package util.download;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import util.LauncherExecutors;
+
+/**
+ * Measures the Progress of a single Download. The Transfer only records the amount of downloaded
+ * bytes, while this Telemetry samples it {@link #SAMPLE_RATE} times per second on the shared
+ * Scheduler. Each sample updates an exponentially weighted throughput and publishes a new
+ * {@link TelemetrySnapshot} to the Listener.
+ * <br>If no Data was received for {@link #STALL_TIME} milliseconds, the Snapshots are marked as
+ * stalled instead of showing an endless remaining time.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class DownloadTelemetry {
+
+  /**
+   * The amount of samples per second.
+   */
+  private static final int SAMPLE_RATE = 10;
+
+  /**
+   * The time constant of the weighted throughput in milliseconds. Samples older than this have
+   * less than a third of their original weight.
+   */
+  private static final double TIME_CONSTANT = 3000;
+
+  /**
+   * The Time in milliseconds without new Data, after which the Download is considered stalled.
+   */
+  private static final long STALL_TIME = 3000;
+
+  /**
+   * The total Length of the File in bytes.
+   */
+  private final long total;
+
+  /**
+   * The amount of bytes of the File, that are on the hard drive. Written by the Transfer and read
+   * by the samples.
+   */
+  private final AtomicLong downloaded;
+
+  /**
+   * The Listener, that receives every new Snapshot.
+   */
+  private final Consumer<TelemetrySnapshot> listener;
+
+  /**
+   * The Handle of the periodic sampling. {@code null}, if the Telemetry isn't running.
+   */
+  private ScheduledFuture<?> sampling;
+
+  /**
+   * The amount of downloaded bytes at the last sample.
+   */
+  private long lastBytes;
+
+  /**
+   * The time of the last sample in nanoseconds.
+   */
+  private long lastSample;
+
+  /**
+   * The time of the last sample, that saw new Data, in nanoseconds.
+   */
+  private long lastData;
+
+  /**
+   * The weighted throughput in bytes per millisecond. Negative, until the first Data was received.
+   */
+  private double rate;
+
+  /**
+   * Creates a new Telemetry for a Download. The sampling won't start until {@link #start()} is
+   * called.
+
+   * @param total The total Length of the File in bytes.
+   * @param initial The amount of bytes, that were already downloaded before. These won't be
+   *      counted into the throughput.
+   * @param listener  The Listener, that receives every new Snapshot.
+   * @since 1.0
+   */
+  public DownloadTelemetry(long total, long initial, Consumer<TelemetrySnapshot> listener) {
+    this.total = total;
+    this.downloaded = new AtomicLong(initial);
+    this.listener = listener;
+    this.lastBytes = initial;
+    this.rate = -1;
+  }
+
+  /**
+   * Records the amount of bytes of the File, that are on the hard drive. This is cheap enough to
+   * be called after every Chunk written.
+
+   * @param bytes The amount of downloaded bytes.
+   * @since 1.0
+   */
+  public void record(long bytes) {
+    downloaded.set(bytes);
+  }
+
+  /**
+   * Starts the periodic sampling on the shared Scheduler.
+
+   * @since 1.0
+   */
+  public synchronized void start() {
+    lastSample = System.nanoTime();
+    lastData = lastSample;
+    sampling = LauncherExecutors.scheduler().scheduleAtFixedRate(this::sample,
+        1000 / SAMPLE_RATE, 1000 / SAMPLE_RATE, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the sampling and publishes a last Snapshot with the final amount of bytes.
+
+   * @since 1.0
+   */
+  public synchronized void stop() {
+    if (sampling != null) {
+      sampling.cancel(false);
+      sampling = null;
+      sample();
+    }
+  }
+
+  /**
+   * Takes a single sample, updates the weighted throughput and publishes a new Snapshot.
+
+   * @since 1.0
+   */
+  private synchronized void sample() {
+    long now = System.nanoTime();
+    long bytes = downloaded.get();
+    double elapsed = (now - lastSample) / 1000000.0;
+    if (elapsed <= 0) {
+      return;
+    }
+    long delta = bytes - lastBytes;
+    if (delta > 0) {
+      lastData = now;
+    }
+    /*
+     * Weights the current sample depending on the time since the last one, so irregular samples
+     * don't distort the average.
+     */
+    double current = delta / elapsed;
+    if (rate < 0) {
+      if (delta > 0) {
+        rate = current;
+      }
+    } else {
+      double alpha = 1 - Math.exp(-elapsed / TIME_CONSTANT);
+      rate += alpha * (current - rate);
+    }
+    lastBytes = bytes;
+    lastSample = now;
+
+    boolean stalled = (now - lastData) / 1000000 >= STALL_TIME;
+    double eta = -1;
+    if (!stalled && rate > 0) {
+      eta = (total - bytes) / rate / 1000;
+    }
+    listener.accept(new TelemetrySnapshot(bytes, total, Math.max(rate, 0) * 1000, eta, stalled));
+  }
+}
@@ -0,0 +1,748 @@
+package util.download;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import loggingtool.LoggingTool;
+import util.LauncherExecutors;
+import util.network.Deadlines;
+import util.network.HttpService;
+
+/**
+ * A Download, that splits the File to be downloaded into several byte ranges and fetches these
+ * ranges at the same time over separate Connections. Each range is written at its offset in a
+ * preallocated File.
+ * <br>The amount of Segments adapts to the measured throughput: The Download starts with
+ * {@link #INITIAL_SEGMENTS} Connections and adds another one after each
+ * {@link #PROBE_INTERVAL}, as long as the last added Connection increased the throughput by at
+ * least {@link #SPEEDUP_THRESHOLD}. Whenever a Connection finishes its range, it takes over half
+ * of the largest remaining range, so all Connections stay busy until the end.
+ * <br>If a {@link DownloadJournal} is given, only the Ranges, that are missing in the Journal, are
+ * downloaded, and the Journal is updated at its Checkpoints, so an interrupted Download can be
+ * resumed with all of its Segments.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class SegmentedDownload {
+
+  /**
+   * The minimal Size of a File in bytes, that will be downloaded in Segments. Smaller Files are
+   * downloaded faster over a single Connection.
+   */
+  public static final long MIN_LENGTH = 2 * 1024 * 1024;
+
+  /**
+   * The amount of Connections, the Download will start with.
+   */
+  private static final int INITIAL_SEGMENTS = 2;
+
+  /**
+   * The maximum amount of Connections, that will be opened at the same time. One Connection to
+   * the Server is left for the initial Request and other Requests, so no Segment waits for a
+   * Connection in the {@link HttpService} while it's counted as an active Worker.
+   */
+  private static final int MAX_SEGMENTS = HttpService.MAX_PER_HOST - 1;
+
+  /**
+   * The minimal Size of a Segment in bytes. Ranges smaller than twice this value won't be split.
+   */
+  private static final long MIN_SEGMENT_SIZE = 512 * 1024;
+
+  /**
+   * The Time in milliseconds between two measurements of the throughput.
+   */
+  private static final long PROBE_INTERVAL = 1500;
+
+  /**
+   * The Time in milliseconds between two Updates of the Progress.
+   */
+  private static final long PROGRESS_INTERVAL = 250;
+
+  /**
+   * The Factor, the throughput has to increase by after adding a Connection, to add another one.
+   */
+  private static final double SPEEDUP_THRESHOLD = 1.1;
+
+  /**
+   * The maximum amount of retries for a single Segment, before the whole Download fails.
+   */
+  private static final int MAX_RETRIES = 3;
+
+  /**
+   * The URL, where the Data will be downloaded from.
+   */
+  private final String downloadUrl;
+
+  /**
+   * The File, the Data will be written to.
+   */
+  private final File outputFile;
+
+  /**
+   * The total Length of the File to be downloaded in bytes.
+   */
+  private final long length;
+
+  /**
+   * All Segments of this Download, including the finished ones.
+   */
+  private final ArrayList<Segment> segments;
+
+  /**
+   * The amount of bytes, that were written to the File so far.
+   */
+  private final AtomicLong downloaded;
+
+  /**
+   * The amount of Connections, that are currently running.
+   */
+  private final AtomicInteger activeWorkers;
+
+  /**
+   * The first Error, that caused a Segment to fail. If this is set, the Download is aborted.
+   */
+  private volatile IOException failure;
+
+  /**
+   * Determines, if all Connections should stop, either because of a Cancel or a Failure.
+   */
+  private volatile boolean stopped;
+
+  /**
+   * The Digest, that follows the gap-free part of the File while it's written. {@code null}, if
+   * the File doesn't have to be hashed.
+   */
+  private final StreamingDigest digest;
+
+  /**
+   * The Journal, that records the downloaded Blocks. {@code null}, if the Download can't be
+   * resumed with its Segments.
+   */
+  private final DownloadJournal journal;
+
+  /**
+   * The Channel to the {@link #outputFile}. Used by all Connections to write at their offsets.
+   */
+  private FileChannel channel;
+
+  /**
+   * The Request, that was sent to determine the Length of the File and already delivers the Data
+   * from {@link #initialStart} on. It's used by the Segment starting at this position, so no
+   * additional Request is needed. {@code null}, if there is none or it was taken.
+   */
+  private HttpService.Exchange initial;
+
+  /**
+   * The position in the File, where the Data of the {@link #initial} Request starts.
+   */
+  private long initialStart;
+
+  /**
+   * Creates a new Download for the given URL. The Download won't start until
+   * {@link #download(LongConsumer, BooleanSupplier)} is called.
+
+   * @param downloadUrl The URL, where the Data will be downloaded from.
+   * @param outputFile  The File, the Data will be written to.
+   * @param length  The total Length of the File to be downloaded in bytes.
+   * @param digest  The Digest, that will hash the File while it's written. The Segments arrive out
+   *      of order, so the Digest reads the gap-free part of the File back, while it's still cached
+   *      by the Operating System. Can be {@code null}, if no Digest is needed.
+   * @param journal The Journal of the Download or {@code null}, if there is none.
+   * @since 1.0
+   */
+  public SegmentedDownload(String downloadUrl, File outputFile, long length,
+      StreamingDigest digest, DownloadJournal journal) {
+    this.downloadUrl = downloadUrl;
+    this.outputFile = outputFile;
+    this.length = length;
+    this.digest = digest;
+    this.journal = journal;
+    this.segments = new ArrayList<Segment>();
+    this.downloaded = new AtomicLong();
+    this.activeWorkers = new AtomicInteger();
+  }
+
+  /**
+   * Checks, if a Download with the given Parameters can be done in Segments. This is only the
+   * case, if the Server supports Range-Requests and the File is large enough. A partial File can
+   * only be resumed in Segments, if its Journal records the downloaded Blocks.
+
+   * @param acceptsRanges {@code true}, if the Server announced support for Range-Requests.
+   * @param length  The total Length of the File to be downloaded.
+   * @return  {@code true}, if the File should be downloaded in Segments, {@code false} if not.
+   * @since 1.0
+   */
+  public static boolean isApplicable(boolean acceptsRanges, long length) {
+    return acceptsRanges && length >= MIN_LENGTH;
+  }
+
+  /**
+   * Downloads the File. This Method blocks until all Segments were downloaded, the Download was
+   * cancelled or a Segment failed more than {@link #MAX_RETRIES} times.
+   * <br>If the Download didn't finish, the Journal keeps the downloaded Blocks. Without a
+   * Journal, the File will be truncated to the part, that was downloaded without gaps from the
+   * Start of the File. This way, the Download can be resumed like a Download over a single
+   * Connection.
+
+   * @param progress  The Consumer, that will be informed about the amount of downloaded bytes.
+   * @param cancelled The Supplier, that determines, if the Download was cancelled.
+   * @return  The amount of bytes, that were downloaded.
+   * @throws IOException  If the File couldn't be written or a Segment failed too often.
+   * @since 1.0
+   */
+  public long download(LongConsumer progress, BooleanSupplier cancelled) throws IOException {
+    return download(null, 0, progress, cancelled);
+  }
+
+  /**
+   * Downloads the File like {@link #download(LongConsumer, BooleanSupplier)}, but reads the
+   * Segment, that starts at the given position, from the given Request, which was already sent
+   * for the Data from there on.
+
+   * @param connection  The sent Request or {@code null}, if every Segment should send its own
+   *      Request. The Request is closed by the Segment, that uses it.
+   * @param start The position in the File, where the Data of the Request starts.
+   * @param progress  The Consumer, that will be informed about the amount of downloaded bytes.
+   * @param cancelled The Supplier, that determines, if the Download was cancelled.
+   * @return  The amount of bytes, that were downloaded.
+   * @throws IOException  If the File couldn't be written or a Segment failed too often.
+   * @since 1.0
+   */
+  public long download(HttpService.Exchange connection, long start, LongConsumer progress,
+      BooleanSupplier cancelled) throws IOException {
+    initial = connection;
+    initialStart = start;
+    LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Downloading " + length
+        + "B in Segments from " + downloadUrl);
+    try (RandomAccessFile raf = new RandomAccessFile(outputFile, "rw")) {
+      /*
+       * Preallocates the File, so every Segment can be written at its offset.
+       */
+      raf.setLength(length);
+      channel = raf.getChannel();
+
+      /*
+       * Creates a Segment for every Range, that is missing in the Journal, and marks all other
+       * Ranges as written. Without a Journal, the first Segment covers the whole File. The initial
+       * Workers will split the Segments among themselves.
+       */
+      long position = 0;
+      for (long[] range : journal == null ? Collections.singletonList(new long[] {0, length})
+          : journal.missingRanges()) {
+        if (range[0] > position) {
+          segments.add(Segment.written(position, range[0]));
+          downloaded.addAndGet(range[0] - position);
+        }
+        segments.add(new Segment(range[0], range[1]));
+        position = range[1];
+      }
+      if (position < length) {
+        segments.add(Segment.written(position, length));
+        downloaded.addAndGet(length - position);
+      }
+      for (int i = 0; i < INITIAL_SEGMENTS; i++) {
+        startWorker();
+      }
+
+      long lastProbe = System.currentTimeMillis();
+      long lastBytes = 0;
+      double lastThroughput = 0;
+      boolean growing = true;
+      /*
+       * Remembers an Interrupt of a Pause or Cancel, so it can be restored after the last 
+       * Checkpoint.
+       */
+      boolean interrupted = false;
+      /*
+       * Updates the Progress and adapts the amount of Segments until all Workers are finished.
+       */
+      while (activeWorkers.get() > 0) {
+        try {
+          Thread.sleep(PROGRESS_INTERVAL);
+        } catch (InterruptedException e) {
+          interrupted = true;
+          stopped = true;
+        }
+        if (cancelled.getAsBoolean()) {
+          stopped = true;
+        }
+        progress.accept(downloaded.get());
+        try {
+          if (digest != null) {
+            digest.advance(channel, contiguousPrefix());
+          }
+          if (journal != null && journal.isCheckpointDue()) {
+            checkpoint(channel);
+          }
+        } catch (ClosedChannelException e) {
+          /*
+           * An Interrupt closed the Channel, so none of the Workers can write anymore.
+           */
+          interrupted |= Thread.interrupted();
+          stopped = true;
+          LoggingTool.log(getClass(), LoggingTool.getLineNumber(),
+              "Channel was closed by an Interrupt, stopping all Segments.");
+        }
+
+        long now = System.currentTimeMillis();
+        if (!stopped && now - lastProbe >= PROBE_INTERVAL) {
+          long bytes = downloaded.get();
+          double throughput = (bytes - lastBytes) / (double) (now - lastProbe);
+          /*
+           * Adds another Connection, as long as the last one improved the throughput noticeably.
+           */
+          if (growing && activeWorkers.get() < MAX_SEGMENTS
+              && throughput >= lastThroughput * SPEEDUP_THRESHOLD) {
+            if (startWorker()) {
+              LoggingTool.log(getClass(), LoggingTool.getLineNumber(),
+                  "Throughput is " + (int) throughput + "B/ms, added Segment "
+                      + activeWorkers.get());
+            }
+          } else if (growing) {
+            growing = false;
+            LoggingTool.log(getClass(), LoggingTool.getLineNumber(),
+                "Throughput settled at " + (int) throughput + "B/ms with "
+                    + activeWorkers.get() + " Segments");
+          }
+          lastThroughput = throughput;
+          lastBytes = bytes;
+          lastProbe = now;
+        }
+      }
+      progress.accept(downloaded.get());
+      if (digest != null && failure == null && !stopped) {
+        digest.advance(channel, length);
+      }
+
+      /*
+       * If the Download didn't finish, the Journal keeps the written Blocks. Without a Journal,
+       * the File is truncated to the part without gaps. The Interrupt is cleared meanwhile, so
+       * it can't close the Channel, and restored afterwards.
+       */
+      interrupted |= Thread.interrupted();
+      try {
+        if (journal != null) {
+          finalCheckpoint();
+        } else if (stopped || failure != null) {
+          long prefix = contiguousPrefix();
+          LoggingTool.log(getClass(), LoggingTool.getLineNumber(),
+              "Segmented Download stopped, keeping " + prefix + "B to resume.");
+          try (FileChannel out = openChannel()) {
+            out.truncate(prefix);
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+    return downloaded.get();
+  }
+
+  /**
+   * Starts a new Worker, that will download the Part of the largest remaining Segment, that was
+   * split from it.
+
+   * @return  {@code true}, if a new Worker was started, {@code false}, if there was no Segment
+   *      large enough to be split.
+   * @since 1.0
+   */
+  private boolean startWorker() {
+    Segment segment = nextSegment();
+    if (segment == null) {
+      return false;
+    }
+    activeWorkers.incrementAndGet();
+    Thread worker = LauncherExecutors.newThread(() -> {
+      try {
+        Segment current = segment;
+        while (current != null && !stopped) {
+          downloadSegment(current);
+          current = nextSegment();
+        }
+      } finally {
+        activeWorkers.decrementAndGet();
+      }
+    }, "Segment-Worker-" + activeWorkers.get(), true);
+    worker.start();
+    return true;
+  }
+
+  /**
+   * Returns the next Segment to be downloaded. If there is a Segment, that wasn't started yet,
+   * this Segment will be returned. Otherwise, the largest remaining Segment will be split and its
+   * second half returned.
+
+   * @return  The next Segment to be downloaded or {@code null}, if there is nothing left to split.
+   * @since 1.0
+   */
+  private synchronized Segment nextSegment() {
+    Segment largest = null;
+    for (Segment s : segments) {
+      if (!s.assigned) {
+        s.assigned = true;
+        return s;
+      }
+      if (largest == null || s.remaining() > largest.remaining()) {
+        largest = s;
+      }
+    }
+    if (largest == null || largest.remaining() < 2 * MIN_SEGMENT_SIZE) {
+      return null;
+    }
+    Segment split = largest.split();
+    split.assigned = true;
+    segments.add(split);
+    return split;
+  }
+
+  /**
+   * Downloads the given Segment. Failed Requests are retried up to {@link #MAX_RETRIES} times,
+   * continuing at the last written byte.
+
+   * @param segment The Segment to be downloaded.
+   * @since 1.0
+   */
+  private void downloadSegment(Segment segment) {
+    while (!stopped && !segment.isComplete()) {
+      try {
+        fetch(segment);
+      } catch (IOException e) {
+        segment.failures++;
+        LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Segment at "
+            + segment.written + " failed (" + segment.failures + "): " + e.getMessage());
+        if (segment.failures > MAX_RETRIES) {
+          LoggingTool.logError(getClass(), LoggingTool.getLineNumber(),
+              "Segment failed too often, aborting Download of " + downloadUrl);
+          failure = e;
+          stopped = true;
+          return;
+        }
+        segment.rewind();
+        try {
+          Thread.sleep(500L * segment.failures);
+        } catch (InterruptedException ie) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Requests the remaining Range of the given Segment and writes the received Data at its offset
+   * into the File.
+
+   * @param segment The Segment to be fetched.
+   * @throws IOException  If the Server didn't answer with the requested Range or the Data
+   *      couldn't be read or written.
+   * @since 1.0
+   */
+  private void fetch(Segment segment) throws IOException {
+    HttpService.Exchange con = takeInitial(segment.written);
+    if (con == null) {
+      con = HttpService.open(downloadUrl, Deadlines.TRANSFER, () -> stopped);
+      con.getConnection().setRequestProperty("Range", "bytes=" + segment.written + "-"
+          + (segment.end() - 1));
+      if (con.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+        con.close();
+        throw new IOException("Server answered Range-Request with " + con.getResponseCode());
+      }
+    }
+    try (ReadableByteChannel is = Channels.newChannel(con.getInputStream())) {
+      TransferEngine.transfer(is, data -> {
+        /*
+         * Reserves the Part of the read bytes, that still belongs to this Segment. The end of the
+         * Segment might have moved, if another Worker took over a part of it.
+         */
+        long position = segment.reserved;
+        int writable = segment.reserve(data.remaining());
+        ByteBuffer part = data.duplicate();
+        part.limit(part.position() + writable);
+        while (part.hasRemaining()) {
+          position += channel.write(part, position);
+        }
+        data.position(data.position() + writable);
+        segment.written += writable;
+        downloaded.addAndGet(writable);
+        return !segment.isComplete();
+      }, bytes -> { }, () -> stopped);
+    } finally {
+      con.close();
+    }
+  }
+
+  /**
+   * Takes the {@link #initial} Request, if its Data starts at the given position. The Request
+   * can only be taken once, a retry of the Segment sends a new Request.
+
+   * @param position  The position, the Segment continues at.
+   * @return  The initial Request or {@code null}, if it can't be used for this position.
+   * @since 1.0
+   */
+  private synchronized HttpService.Exchange takeInitial(long position) {
+    HttpService.Exchange con = initial;
+    if (con == null || initialStart != position) {
+      return null;
+    }
+    initial = null;
+    return con;
+  }
+
+  /**
+   * Marks all written Ranges as downloaded in the Journal and writes a Checkpoint.
+
+   * @param data  The Channel to the File.
+   * @throws IOException  If the Journal couldn't be written.
+   * @since 1.0
+   */
+  private void checkpoint(FileChannel data) throws IOException {
+    for (long[] range : writtenRanges()) {
+      journal.markComplete(data, range[0], range[1]);
+    }
+    journal.checkpoint(data);
+  }
+
+  /**
+   * Writes the last Checkpoint, after all Workers stopped. If an Interrupt closed the
+   * {@link #channel}, the File is opened again for it. Errors are only logged, so they don't
+   * hide the Cause of the stop.
+
+   * @since 1.0
+   */
+  private void finalCheckpoint() {
+    try (FileChannel data = openChannel()) {
+      checkpoint(data);
+    } catch (IOException e) {
+      LoggingTool.logError(getClass(), LoggingTool.getLineNumber(),
+          "Couldn't write the last Checkpoint: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns a Channel to the File, that can be closed after use. If the {@link #channel} is
+   * still open, a new Channel is opened anyway, so closing it doesn't affect the
+   * {@link #channel}.
+
+   * @return  A new Channel to the {@link #outputFile}.
+   * @throws IOException  If the File couldn't be opened.
+   * @since 1.0
+   */
+  private FileChannel openChannel() throws IOException {
+    return FileChannel.open(outputFile.toPath(), StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Calculates the Ranges of the File, that were written without gaps. Adjacent Segments are
+   * merged, if the first of them was written completely, so Blocks across the border of two
+   * Segments are recognized as well.
+
+   * @return  The start and end positions of all written Ranges, sorted by their position.
+   * @since 1.0
+   */
+  private synchronized List<long[]> writtenRanges() {
+    ArrayList<Segment> sorted = new ArrayList<Segment>(segments);
+    Collections.sort(sorted, Comparator.comparingLong(s -> s.start));
+    ArrayList<long[]> ranges = new ArrayList<long[]>();
+    long[] current = null;
+    for (Segment s : sorted) {
+      if (current != null && current[1] == s.start) {
+        current[1] = s.written;
+      } else {
+        if (current != null) {
+          ranges.add(current);
+        }
+        current = new long[] {s.start, s.written};
+      }
+      if (!s.isComplete()) {
+        ranges.add(current);
+        current = null;
+      }
+    }
+    if (current != null) {
+      ranges.add(current);
+    }
+    return ranges;
+  }
+
+  /**
+   * Calculates the Length of the Part of the File, that was downloaded from its Start without any
+   * gaps.
+
+   * @return  The Length of the contiguous Part in bytes.
+   * @since 1.0
+   */
+  private synchronized long contiguousPrefix() {
+    ArrayList<Segment> sorted = new ArrayList<Segment>(segments);
+    Collections.sort(sorted, Comparator.comparingLong(s -> s.start));
+    long prefix = 0;
+    for (Segment s : sorted) {
+      if (s.start != prefix) {
+        break;
+      }
+      prefix = s.written;
+      if (!s.isComplete()) {
+        break;
+      }
+    }
+    return prefix;
+  }
+
+  /**
+   * A single byte range of the File. The start of a Segment is fixed, while its end might move
+   * towards the start, when another Worker takes over the second half of it.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  private static class Segment {
+
+    /**
+     * The first byte of this Segment.
+     */
+    private final long start;
+
+    /**
+     * The byte after the last byte of this Segment.
+     */
+    private long end;
+
+    /**
+     * The byte after the last byte, that was reserved by the Worker to be written.
+     */
+    private volatile long reserved;
+
+    /**
+     * The byte after the last byte, that was written to the File.
+     */
+    private volatile long written;
+
+    /**
+     * Determines, if a Worker was assigned to this Segment.
+     */
+    private boolean assigned;
+
+    /**
+     * The amount of failed Requests for this Segment.
+     */
+    private int failures;
+
+    /**
+     * Creates a new Segment for the given Range.
+
+     * @param start The first byte of the Segment.
+     * @param end The byte after the last byte of the Segment.
+     * @since 1.0
+     */
+    private Segment(long start, long end) {
+      this.start = start;
+      this.end = end;
+      this.reserved = start;
+      this.written = start;
+    }
+
+    /**
+     * Creates a Segment for the given Range, that was already written. No Worker will be assigned
+     * to it.
+
+     * @param start The first byte of the Segment.
+     * @param end The byte after the last byte of the Segment.
+     * @return  The written Segment.
+     * @since 1.0
+     */
+    private static Segment written(long start, long end) {
+      Segment segment = new Segment(start, end);
+      segment.reserved = end;
+      segment.written = end;
+      segment.assigned = true;
+      return segment;
+    }
+
+    /**
+     * Returns the end of this Segment.
+
+     * @return  The byte after the last byte of this Segment.
+     * @since 1.0
+     */
+    private synchronized long end() {
+      return end;
+    }
+
+    /**
+     * Returns the amount of bytes, that weren't reserved by the Worker yet.
+
+     * @return  The remaining bytes of this Segment.
+     * @since 1.0
+     */
+    private synchronized long remaining() {
+      return end - reserved;
+    }
+
+    /**
+     * Reserves up to the given amount of bytes to be written. Less bytes will be reserved, if the
+     * end of this Segment was reached.
+
+     * @param bytes The amount of bytes, that were read.
+     * @return  The amount of bytes, that were reserved and should be written.
+     * @since 1.0
+     */
+    private synchronized int reserve(int bytes) {
+      int writable = (int) Math.min(bytes, end - reserved);
+      reserved += writable;
+      return writable;
+    }
+
+    /**
+     * Resets the reserved bytes to the written bytes. Used, when a Request failed.
+
+     * @since 1.0
+     */
+    private synchronized void rewind() {
+      reserved = written;
+    }
+
+    /**
+     * Checks, if this Segment was completely written.
+
+     * @return  {@code true}, if all bytes of this Segment were written.
+     * @since 1.0
+     */
+    private synchronized boolean isComplete() {
+      return written >= end;
+    }
+
+    /**
+     * Splits the remaining Part of this Segment in half. This Segment will end at the middle,
+     * while the returned Segment contains the second half.
+
+     * @return  A new Segment containing the second half of the remaining bytes.
+     * @since 1.0
+     */
+    private synchronized Segment split() {
+      long middle = reserved + (end - reserved) / 2;
+      Segment second = new Segment(middle, end);
+      end = middle;
+      return second;
+    }
+  }
+}
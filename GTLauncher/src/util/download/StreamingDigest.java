@@ -0,0 +1,196 @@
+package util.download;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A SHA-256 Digest, that is computed while the Data of a Download streams through the
+ * {@link TransferEngine}, so the downloaded File doesn't have to be read a second time to verify
+ * it.
+ * <br>Since the Digest has to see the File in order, the part of a File, that existed before a
+ * Download was resumed, is hashed once from the hard drive via {@link #advance(FileChannel, long)}.
+ * The same Method is used by the {@link SegmentedDownload} to follow the gap-free part of a File,
+ * while the Segments are written.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public class StreamingDigest {
+
+  /**
+   * The Characters used to display the Digest as a hexadecimal String.
+   */
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /**
+   * The MessageDigest, that computes the SHA-256 Hash.
+   */
+  private final MessageDigest digest;
+
+  /**
+   * The amount of bytes, that were hashed so far.
+   */
+  private long length;
+
+  /**
+   * Creates a new, empty SHA-256 Digest.
+
+   * @since 1.0
+   */
+  public StreamingDigest() {
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      /*
+       * Every Java Platform has to support SHA-256, so this can't happen.
+       */
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the amount of bytes, that were hashed so far.
+
+   * @return  The hashed Length in bytes.
+   * @since 1.0
+   */
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * Hashes the given File from the current Length of this Digest up to the given position. Used
+   * to hash the already existing part of a File, before a Download is resumed.
+
+   * @param file  The File to be hashed.
+   * @param end The position up to which the File will be hashed.
+   * @throws IOException  If the File couldn't be read.
+   * @since 1.0
+   */
+  public void advance(File file, long end) throws IOException {
+    if (end <= length) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      advance(channel, end);
+    }
+  }
+
+  /**
+   * Hashes the given Channel from the current Length of this Digest up to the given position.
+
+   * @param channel The Channel to be read from.
+   * @param end The position up to which the Channel will be hashed.
+   * @throws IOException  If the Channel couldn't be read.
+   * @since 1.0
+   */
+  public synchronized void advance(FileChannel channel, long end) throws IOException {
+    if (end <= length) {
+      return;
+    }
+    ByteBuffer buffer = BufferPool.acquire(BufferPool.sizeFor(end - length));
+    try {
+      while (length < end) {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - length));
+        int read = channel.read(buffer, length);
+        if (read < 0) {
+          throw new IOException("File ended at " + length + " before " + end);
+        }
+        buffer.flip();
+        digest.update(buffer);
+        length += read;
+      }
+    } finally {
+      BufferPool.release(buffer);
+    }
+  }
+
+  /**
+   * Wraps the given Target, so every byte, that the Target takes, is hashed as well.
+
+   * @param target  The Target to be wrapped.
+   * @return  A Target, that writes to the given Target and updates this Digest.
+   * @since 1.0
+   */
+  public TransferEngine.Target wrap(TransferEngine.Target target) {
+    return data -> {
+      ByteBuffer view = data.duplicate();
+      boolean more = target.write(data);
+      view.limit(data.position());
+      synchronized (this) {
+        length += view.remaining();
+        digest.update(view);
+      }
+      return more;
+    };
+  }
+
+  /**
+   * Completes the Digest and returns it as a hexadecimal String. Afterwards, this Digest is reset.
+
+   * @return  The SHA-256 Hash of all hashed bytes in lower case hexadecimal characters.
+   * @since 1.0
+   */
+  public synchronized String finish() {
+    byte[] hash = digest.digest();
+    length = 0;
+    return toHex(hash);
+  }
+
+  /**
+   * Computes the SHA-256 Hash of the given File.
+
+   * @param file  The File to be hashed.
+   * @return  The Hash in lower case hexadecimal characters.
+   * @throws IOException  If the File couldn't be read.
+   * @since 1.0
+   */
+  public static String of(File file) throws IOException {
+    StreamingDigest digest = new StreamingDigest();
+    digest.advance(file, file.length());
+    return digest.finish();
+  }
+
+  /**
+   * Checks, if the given published Checksum matches the computed one. The published Checksum may
+   * be followed by a File Name, as it is written by common Tools like sha256sum.
+
+   * @param published The published Checksum.
+   * @param computed  The computed Checksum.
+   * @return  {@code true}, if both Checksums match, {@code false} if not.
+   * @since 1.0
+   */
+  public static boolean matches(String published, String computed) {
+    if (published == null || computed == null) {
+      return false;
+    }
+    String trimmed = published.trim();
+    int space = trimmed.indexOf(' ');
+    if (space > 0) {
+      trimmed = trimmed.substring(0, space);
+    }
+    return trimmed.equalsIgnoreCase(computed);
+  }
+
+  /**
+   * Converts the given bytes into a hexadecimal String.
+
+   * @param bytes The bytes to be converted.
+   * @return  The bytes as lower case hexadecimal characters.
+   * @since 1.0
+   */
+  public static String toHex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+      chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+    }
+    return new String(chars);
+  }
+}
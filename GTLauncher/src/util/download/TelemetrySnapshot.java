@@ -0,0 +1,108 @@
+package util.download;
+
+/**
+ * An immutable State of a Download at a single point in time, as it was measured by the
+ * {@link DownloadTelemetry}. The UI reads all values from the same Snapshot, so the displayed
+ * values always belong together.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class TelemetrySnapshot {
+
+  /**
+   * The amount of bytes of the File, that are on the hard drive, including the part, that was
+   * downloaded before the Download was resumed.
+   */
+  private final long downloaded;
+
+  /**
+   * The total Length of the File in bytes.
+   */
+  private final long total;
+
+  /**
+   * The averaged throughput in bytes per second.
+   */
+  private final double bytesPerSecond;
+
+  /**
+   * The estimated remaining time in seconds or -1, if it can't be estimated.
+   */
+  private final double etaSeconds;
+
+  /**
+   * Determines, if no Data was received for a while.
+   */
+  private final boolean stalled;
+
+  /**
+   * Creates a new Snapshot with the given values.
+
+   * @param downloaded  The amount of bytes of the File, that are on the hard drive.
+   * @param total The total Length of the File in bytes.
+   * @param bytesPerSecond  The averaged throughput in bytes per second.
+   * @param etaSeconds  The estimated remaining time in seconds or -1, if it's unknown.
+   * @param stalled {@code true}, if no Data was received for a while.
+   * @since 1.0
+   */
+  public TelemetrySnapshot(long downloaded, long total, double bytesPerSecond, double etaSeconds,
+      boolean stalled) {
+    this.downloaded = downloaded;
+    this.total = total;
+    this.bytesPerSecond = bytesPerSecond;
+    this.etaSeconds = etaSeconds;
+    this.stalled = stalled;
+  }
+
+  /**
+   * Returns the amount of bytes of the File, that are on the hard drive.
+
+   * @return  The downloaded bytes, including the part, that existed before resuming.
+   * @since 1.0
+   */
+  public long getDownloaded() {
+    return downloaded;
+  }
+
+  /**
+   * Returns the total Length of the File.
+
+   * @return  The total Length in bytes.
+   * @since 1.0
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * Returns the averaged throughput of the Download.
+
+   * @return  The throughput in bytes per second.
+   * @since 1.0
+   */
+  public double getBytesPerSecond() {
+    return bytesPerSecond;
+  }
+
+  /**
+   * Returns the estimated remaining time of the Download.
+
+   * @return  The remaining time in seconds or -1, if it can't be estimated, because the Download
+   *      just started or is {@link #isStalled() stalled}.
+   * @since 1.0
+   */
+  public double getEtaSeconds() {
+    return etaSeconds;
+  }
+
+  /**
+   * Returns, if the Download is stalled, i.e. no Data was received for a while.
+
+   * @return  {@code true}, if the Download is stalled, {@code false} if not.
+   * @since 1.0
+   */
+  public boolean isStalled() {
+    return stalled;
+  }
+}
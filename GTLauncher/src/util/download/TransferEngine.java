@@ -0,0 +1,224 @@
+package util.download;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * The Engine, that transfers Data from a Channel into a File for all Downloads and local Copies of
+ * the Launcher.
+ * <br>Copies between two Files are done via {@link FileChannel#transferTo(long, long,
+ * java.nio.channels.WritableByteChannel)}, so the Data doesn't have to pass through the Launcher at
+ * all. Other Channels, like the Streams of a Connection, are read into direct Buffers from the
+ * {@link BufferPool}. The Size of these Buffers follows the throughput measured over all Transfers,
+ * so a single Buffer holds about {@link #CHUNK_TIME} milliseconds worth of Data.
+ * <br>All reads from a Connection are limited by the {@link BandwidthGovernor}.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class TransferEngine {
+
+  /**
+   * The Time in milliseconds, a single Buffer should take to be filled at the measured throughput.
+   */
+  private static final long CHUNK_TIME = 100;
+
+  /**
+   * The maximum amount of bytes, that will be transferred at once between two Files. Transferring
+   * in Chunks ensures, that the Progress is updated and a Cancel is recognized.
+   */
+  private static final long FILE_CHUNK = 8 * 1024 * 1024;
+
+  /**
+   * The Weight of the latest measurement, when the throughput is averaged.
+   */
+  private static final double WEIGHT = 0.25;
+
+  /**
+   * The throughput of all Transfers in bytes per millisecond, averaged over the latest Chunks.
+   */
+  private static volatile double throughput;
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private TransferEngine() {
+  }
+
+  /**
+   * The Target of a Transfer. The Target decides, how much of the Data it will take and where to
+   * write it.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  public interface Target {
+
+    /**
+     * Writes the remaining Data of the given Buffer. The Target may leave Data in the Buffer, if
+     * it doesn't need it.
+
+     * @param data  The Buffer with the Data to be written.
+     * @return  {@code true}, if the Target wants to receive more Data, {@code false} if the
+     *      Transfer should stop.
+     * @throws IOException  If the Data couldn't be written.
+     * @since 1.0
+     */
+    boolean write(ByteBuffer data) throws IOException;
+  }
+
+  /**
+   * Creates a Target, that writes all Data into the given Channel, starting at the given position.
+
+   * @param channel The Channel to be written to.
+   * @param position  The position of the first byte to be written.
+   * @return  The new Target.
+   * @since 1.0
+   */
+  public static Target toChannel(FileChannel channel, long position) {
+    return new Target() {
+      private long next = position;
+
+      @Override
+      public boolean write(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+          next += channel.write(data, next);
+        }
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Transfers all Data from the given Channel to the given Target, until the end of the Channel is
+   * reached, the Target doesn't want more Data or the Transfer was cancelled.
+
+   * @param source  The Channel, the Data will be read from.
+   * @param target  The Target, the Data will be written to.
+   * @param progress  The Consumer, that will be informed about the amount of bytes transferred by
+   *      this call, each time a Buffer was written.
+   * @param cancelled The Supplier, that determines, if the Transfer was cancelled.
+   * @return  The amount of bytes, that were taken by the Target.
+   * @throws IOException  If the Data couldn't be read or written.
+   * @since 1.0
+   */
+  public static long transfer(ReadableByteChannel source, Target target, LongConsumer progress,
+      BooleanSupplier cancelled) throws IOException {
+    ByteBuffer buffer = BufferPool.acquire(preferredSize());
+    long transferred = 0;
+    try {
+      boolean more = true;
+      while (more && !cancelled.getAsBoolean()) {
+        /*
+         * Fills the Buffer completely, unless the end of the Channel was reached. Every read is
+         * limited to the amount of bytes, the BandwidthGovernor allows.
+         */
+        long start = System.nanoTime();
+        buffer.clear();
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0 && !cancelled.getAsBoolean()) {
+          int allowed = BandwidthGovernor.acquire(buffer.remaining());
+          int limit = buffer.limit();
+          buffer.limit(buffer.position() + allowed);
+          read = source.read(buffer);
+          buffer.limit(limit);
+          BandwidthGovernor.refund(allowed - Math.max(read, 0));
+        }
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        int available = buffer.remaining();
+        more = target.write(buffer) && read >= 0;
+        transferred += available - buffer.remaining();
+        progress.accept(transferred);
+        /*
+         * Measures the throughput and switches to a differently sized Buffer, if the current one
+         * doesn't match it anymore.
+         */
+        measure(available, System.nanoTime() - start);
+        int size = preferredSize();
+        if (size != buffer.capacity()) {
+          BufferPool.release(buffer);
+          buffer = BufferPool.acquire(size);
+        }
+      }
+    } finally {
+      BufferPool.release(buffer);
+    }
+    return transferred;
+  }
+
+  /**
+   * Copies the given File to the given target File. An existing target File will be replaced. The
+   * Data is transferred directly between both Files without passing through the Launcher.
+
+   * @param source  The File to be copied.
+   * @param target  The File, the Copy will be stored in.
+   * @return  The amount of bytes copied.
+   * @throws IOException  If one of the Files couldn't be opened or the Data couldn't be copied.
+   * @since 1.0
+   */
+  public static long copy(File source, File target) throws IOException {
+    return copy(source, target, bytes -> { }, () -> false);
+  }
+
+  /**
+   * Copies the given File to the given target File. An existing target File will be replaced. The
+   * Data is transferred directly between both Files without passing through the Launcher.
+
+   * @param source  The File to be copied.
+   * @param target  The File, the Copy will be stored in.
+   * @param progress  The Consumer, that will be informed about the amount of bytes copied.
+   * @param cancelled The Supplier, that determines, if the Copy was cancelled.
+   * @return  The amount of bytes copied.
+   * @throws IOException  If one of the Files couldn't be opened or the Data couldn't be copied.
+   * @since 1.0
+   */
+  public static long copy(File source, File target, LongConsumer progress,
+      BooleanSupplier cancelled) throws IOException {
+    try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+        FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      long size = in.size();
+      long position = 0;
+      while (position < size && !cancelled.getAsBoolean()) {
+        position += in.transferTo(position, Math.min(FILE_CHUNK, size - position), out);
+        progress.accept(position);
+      }
+      return position;
+    }
+  }
+
+  /**
+   * Adds the given measurement to the averaged {@link #throughput}.
+
+   * @param bytes The amount of bytes, that were transferred.
+   * @param nanos The Time in nanoseconds, the Transfer took.
+   * @since 1.0
+   */
+  private static void measure(long bytes, long nanos) {
+    double current = bytes / Math.max(nanos / 1000000.0, 0.001);
+    double average = throughput;
+    throughput = average == 0 ? current : average + WEIGHT * (current - average);
+  }
+
+  /**
+   * Returns the Size of the Buffer, that will hold about {@link #CHUNK_TIME} milliseconds worth of
+   * Data at the current {@link #throughput}.
+
+   * @return  The preferred Size of the Buffer in bytes.
+   * @since 1.0
+   */
+  private static int preferredSize() {
+    return BufferPool.sizeFor((long) (throughput * CHUNK_TIME));
+  }
+}
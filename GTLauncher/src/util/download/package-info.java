@@ -0,0 +1,9 @@
+/**
+ * Classes, that handle the Transfer of Data for the Downloads of the Launcher. These are kept
+ * separated from the Tasks, so the Tasks only have to control the Download, while the Classes in
+ * this Package do the actual Work.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+package util.download;
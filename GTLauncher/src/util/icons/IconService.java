@@ -0,0 +1,421 @@
+package util.icons;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.image.Image;
+import loggingtool.LoggingTool;
+import util.LauncherExecutors;
+import util.network.Deadlines;
+import util.network.HttpCache;
+import util.network.HttpService;
+
+/**
+ * Loads the Icons of the Applications in the Background. Until an Icon was loaded, the
+ * {@link #placeholder() Placeholder} is shown instead, so building the Launcher never waits for
+ * the Network.
+ * <br>Decoded Icons are kept in a Cache in the Memory, that holds at most
+ * {@link #MAX_MEMORY} bytes of Pixels and drops the Icons, that weren't used for the longest time.
+ * The bytes of every Icon, that could be decoded, are stored in a Cache on the Disc, so the next
+ * Start needs no Request for Icons, that were loaded within the last {@link #MAX_AGE_DAYS} days.
+ * Each Icon is requested only once, even if it's loaded by several Areas at the same time. A
+ * Request is aborted, as soon as every Area, that waits for it, cancelled its Future, or when the
+ * Launcher is closed.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class IconService {
+
+  /**
+   * The Path of the Icon, that is shown, until the Icon of an Application was loaded.
+   */
+  public static final String PLACEHOLDER = "/res/Default.png";
+
+  /**
+   * The maximum amount of bytes of Pixels, that are kept in the Memory.
+   */
+  private static final long MAX_MEMORY = 8 * 1024 * 1024;
+
+  /**
+   * The maximum Size of an Icon in bytes. Larger Answers aren't decoded.
+   */
+  private static final int MAX_ICON_SIZE = 1024 * 1024;
+
+  /**
+   * The Age in days, after which an Icon in the Cache on the Disc is requested again.
+   */
+  private static final long MAX_AGE_DAYS = 7;
+
+  /**
+   * The decoded Icons mapped to their URLs in the order of their last use.
+   */
+  private static final LinkedHashMap<String, Image> memory =
+      new LinkedHashMap<String, Image>(16, 0.75f, true);
+
+  /**
+   * The amount of bytes of Pixels of all Icons in {@link #memory}.
+   */
+  private static long memorySize;
+
+  /**
+   * The Icons, that are loaded right now, mapped to their URLs.
+   */
+  private static final Map<String, Load> loading = new ConcurrentHashMap<String, Load>();
+
+  /**
+   * Determines, if the Launcher is closed, which aborts all running Requests.
+   */
+  private static volatile boolean closed;
+
+  /**
+   * The Folder of the Cache on the Disc or {@code null}, if the Icons aren't stored.
+   */
+  private static volatile File directory;
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private IconService() {
+  }
+
+  /**
+   * Sets the Folder of the Cache on the Disc. The Folder is created, when the first Icon is
+   * stored.
+
+   * @param dir The Folder of the Cache ("some/dir/app/.cache/icons/") or {@code null} to disable
+   *      the Cache.
+   * @since 1.0
+   */
+  public static void setDirectory(File dir) {
+    directory = dir;
+  }
+
+  /**
+   * Aborts all running Requests and prevents new ones. Called, when the Launcher is closed.
+
+   * @since 1.0
+   */
+  public static void shutdown() {
+    closed = true;
+  }
+
+  /**
+   * Returns the Icon, that is shown, until the Icon of an Application was loaded.
+
+   * @return  The shared Placeholder.
+   * @since 1.0
+   */
+  public static Image placeholder() {
+    return ImageRegistry.get(PLACEHOLDER, ImageRegistry.ICON_SIZE);
+  }
+
+  /**
+   * Returns the given Icon, if it's kept in the Memory.
+
+   * @param url The URL of the Icon.
+   * @return  The Icon or {@code null}, if it wasn't loaded yet.
+   * @since 1.0
+   */
+  public static Image cached(String url) {
+    if (url == null) {
+      return null;
+    }
+    synchronized (memory) {
+      return memory.get(url);
+    }
+  }
+
+  /**
+   * Loads the given Icon in the Background. If the Icon is kept in the Memory, the returned
+   * Future is completed at once. Cancelling the returned Future tells the Service, that the Icon
+   * isn't needed by the Caller anymore.
+
+   * @param url The URL or the Path to the Resource of the Icon.
+   * @return  The Future of the Icon. It's completed with {@code null}, if the Icon couldn't be
+   *      loaded.
+   * @since 1.0
+   */
+  public static CompletableFuture<Image> load(String url) {
+    if (url == null || url.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    Image img = cached(url);
+    if (img != null) {
+      return CompletableFuture.completedFuture(img);
+    }
+    /*
+     * Joins the running Load of the Icon. If there is none or it was abandoned by all Callers, a
+     * new Load is started.
+     */
+    Load[] started = new Load[1];
+    Load load = loading.compute(url, (key, running) -> {
+      if (running != null && running.attach()) {
+        return running;
+      }
+      started[0] = new Load();
+      started[0].attach();
+      return started[0];
+    });
+    if (started[0] != null) {
+      CompletableFuture.supplyAsync(() -> fetch(url, load), LauncherExecutors.workers())
+          .whenComplete((icon, error) -> {
+            loading.remove(url, load);
+            load.result.complete(error == null ? icon : null);
+          });
+    }
+    /*
+     * Each Caller gets its own Future, so cancelling it doesn't affect the other Callers.
+     */
+    CompletableFuture<Image> future = new CompletableFuture<Image>();
+    load.result.thenAccept(future::complete);
+    future.whenComplete((icon, error) -> {
+      if (future.isCancelled()) {
+        load.detach();
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Loads the given Icon from the Cache on the Disc or requests it, if it isn't stored or is
+   * outdated. If the Request fails, an outdated Icon is used anyway.
+
+   * @param url The URL or the Path to the Resource of the Icon.
+   * @param load  The Load of the Icon, that aborts the Request, if it was abandoned.
+   * @return  The Icon or {@code null}, if it couldn't be loaded.
+   * @since 1.0
+   */
+  private static Image fetch(String url, Load load) {
+    if (!url.startsWith("http")) {
+      return decode(url, null);
+    }
+    File dir = directory;
+    File file = dir == null ? null : new File(dir, HttpCache.nameOf(url) + ".img");
+    Image stored = null;
+    if (file != null && file.isFile()) {
+      stored = decode(url, read(file));
+      long age = System.currentTimeMillis() - file.lastModified();
+      if (stored != null && age < TimeUnit.DAYS.toMillis(MAX_AGE_DAYS)) {
+        return remember(url, stored);
+      }
+    }
+    byte[] bytes = request(url, load);
+    Image img = decode(url, bytes);
+    if (img == null) {
+      return remember(url, stored);
+    }
+    if (file != null) {
+      store(file, bytes);
+    }
+    return remember(url, img);
+  }
+
+  /**
+   * Requests the given Icon with a single Request.
+
+   * @param url The URL of the Icon.
+   * @param load  The Load of the Icon, that aborts the Request, if it was abandoned.
+   * @return  The bytes of the Icon or {@code null}, if the Request failed, was aborted or the
+   *      Icon is too large.
+   * @since 1.0
+   */
+  private static byte[] request(String url, Load load) {
+    try (HttpService.Exchange exchange = HttpService.open(url, Deadlines.METADATA,
+        () -> closed || load.isAbandoned());
+        InputStream in = exchange.getInputStream()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+        if (out.size() > MAX_ICON_SIZE) {
+          throw new IOException("Icon is larger than " + MAX_ICON_SIZE + " bytes");
+        }
+      }
+      return out.toByteArray();
+    } catch (IOException e) {
+      LoggingTool.log(IconService.class, LoggingTool.getLineNumber(),
+          "Couldn't load the Icon from " + url + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Decodes the given Icon at the Size, it's displayed with. Resources are shared by the
+   * {@link ImageRegistry}.
+
+   * @param url The URL or the Path to the Resource of the Icon.
+   * @param bytes The bytes of the Icon or {@code null}, if the Resource should be decoded.
+   * @return  The Icon or {@code null}, if it couldn't be decoded.
+   * @since 1.0
+   */
+  private static Image decode(String url, byte[] bytes) {
+    if (bytes == null && url.startsWith("http")) {
+      return null;
+    }
+    try {
+      Image img = bytes == null ? ImageRegistry.get(url, ImageRegistry.ICON_SIZE)
+          : new Image(new ByteArrayInputStream(bytes), ImageRegistry.ICON_SIZE,
+              ImageRegistry.ICON_SIZE, true, true);
+      return img.isError() || img.getWidth() <= 0 ? null : img;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Reads the given File of the Cache on the Disc.
+
+   * @param file  The File of the Icon.
+   * @return  The bytes of the Icon or {@code null}, if the File couldn't be read.
+   * @since 1.0
+   */
+  private static byte[] read(File file) {
+    try {
+      return Files.readAllBytes(file.toPath());
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Stores the given Icon in the Cache on the Disc. The Icon is written to a temporary File,
+   * that replaces the stored Icon at once.
+
+   * @param file  The File of the Icon.
+   * @param bytes The bytes of the Icon, that were decoded successfully.
+   * @since 1.0
+   */
+  private static void store(File file, byte[] bytes) {
+    File tmp = new File(file.getPath() + ".tmp");
+    try {
+      file.getParentFile().mkdirs();
+      Files.write(tmp.toPath(), bytes);
+      try {
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LoggingTool.log(IconService.class, LoggingTool.getLineNumber(),
+          "Couldn't store the Icon " + file.getName() + ": " + e.getMessage());
+      tmp.delete();
+    }
+  }
+
+  /**
+   * Keeps the given Icon in the Memory. If the Memory exceeds {@link #MAX_MEMORY}, the Icons,
+   * that weren't used for the longest time, are dropped.
+
+   * @param url The URL of the Icon.
+   * @param img The Icon or {@code null}, if it couldn't be loaded.
+   * @return  The given Icon.
+   * @since 1.0
+   */
+  private static Image remember(String url, Image img) {
+    if (img == null) {
+      return null;
+    }
+    synchronized (memory) {
+      Image old = memory.put(url, img);
+      if (old != null) {
+        memorySize -= sizeOf(old);
+      }
+      memorySize += sizeOf(img);
+      Iterator<Image> it = memory.values().iterator();
+      while (memorySize > MAX_MEMORY && memory.size() > 1) {
+        memorySize -= sizeOf(it.next());
+        it.remove();
+      }
+    }
+    return img;
+  }
+
+  /**
+   * Returns the amount of bytes of the Pixels of the given Icon.
+
+   * @param img The Icon.
+   * @return  The Size of the Icon in the Memory.
+   * @since 1.0
+   */
+  private static long sizeOf(Image img) {
+    return (long) img.getWidth() * (long) img.getHeight() * 4;
+  }
+
+  /**
+   * A running Load of an Icon, that is shared by all Callers, that wait for the same Icon. It's
+   * abandoned, once all of them cancelled their Futures.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  private static final class Load {
+
+    /**
+     * The loaded Icon or {@code null}, if it couldn't be loaded.
+     */
+    private final CompletableFuture<Image> result = new CompletableFuture<Image>();
+
+    /**
+     * The amount of Callers, that wait for the Icon. Guarded by this Load.
+     */
+    private int waiting;
+
+    /**
+     * Determines, if all Callers cancelled their Futures.
+     */
+    private volatile boolean abandoned;
+
+    /**
+     * Adds a Caller, that waits for the Icon, unless the Load was already abandoned.
+
+     * @return  {@code true}, if the Caller was added, {@code false}, if the Load was abandoned.
+     * @since 1.0
+     */
+    private synchronized boolean attach() {
+      if (abandoned) {
+        return false;
+      }
+      waiting++;
+      return true;
+    }
+
+    /**
+     * Removes a Caller, that doesn't need the Icon anymore. The Load is abandoned, when there is
+     * no Caller left.
+
+     * @since 1.0
+     */
+    private synchronized void detach() {
+      waiting--;
+      if (waiting == 0) {
+        abandoned = true;
+      }
+    }
+
+    /**
+     * Checks, if all Callers cancelled their Futures.
+
+     * @return  {@code true}, if nobody waits for the Icon anymore.
+     * @since 1.0
+     */
+    private boolean isAbandoned() {
+      return abandoned;
+    }
+  }
+}
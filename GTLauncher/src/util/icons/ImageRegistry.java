@@ -0,0 +1,53 @@
+package util.icons;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javafx.scene.image.Image;
+
+/**
+ * Shares the Images of the Resources of the Launcher. Each Resource is decoded only once at the
+ * Size, it's displayed with, and the same Image is handed out to every Area. This keeps the Memory
+ * and the Time to build the Launcher constant, no matter how many Applications are published.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class ImageRegistry {
+
+  /**
+   * The Size of the Graphics of the Buttons in pixels.
+   */
+  public static final double BUTTON_SIZE = 20;
+
+  /**
+   * The Size of the Icons of the Applications in pixels.
+   */
+  public static final double ICON_SIZE = 50;
+
+  /**
+   * The decoded Images mapped to their Resource and Size.
+   */
+  private static final Map<String, Image> images = new ConcurrentHashMap<String, Image>();
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private ImageRegistry() {
+  }
+
+  /**
+   * Returns the given Resource decoded at the given Size. The Ratio of the Image is kept.
+
+   * @param resource  The Path to the Resource, e.g. "/res/Start.png".
+   * @param size  The Width and Height, the Image is displayed with.
+   * @return  The shared Image of the Resource.
+   * @throws IllegalArgumentException If the Resource doesn't exist.
+   * @since 1.0
+   */
+  public static Image get(String resource, double size) {
+    return images.computeIfAbsent(resource + "@" + size,
+        key -> new Image(resource, size, size, true, true));
+  }
+}
@@ -0,0 +1,8 @@
+/**
+ * Classes, that load and share the Images of the Launcher. Icons of the Applications are loaded
+ * in the Background and kept in Caches, so the Launcher never waits for them.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+package util.icons;
@@ -0,0 +1,98 @@
+package util.network;
+
+/**
+ * The Deadlines of a single Request, one for each Phase of it. A Request, that exceeds one of its
+ * Deadlines, is aborted by the {@link HttpService}, even if it's blocked while reading.
+ * <br>All Deadlines are given in milliseconds, a Deadline of 0 means, that the Phase isn't limited.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class Deadlines {
+
+  /**
+   * The Deadlines of small Requests, like the Lists and Version Files of the Applications.
+   */
+  public static final Deadlines METADATA = new Deadlines(10000, 15000, 15000, 60000);
+
+  /**
+   * The Deadlines of Downloads. These can take any amount of time, as long as Data arrives.
+   */
+  public static final Deadlines TRANSFER = new Deadlines(10000, 30000, 30000, 0);
+
+  /**
+   * The maximum Time to establish the Connection to the Server.
+   */
+  private final int connect;
+
+  /**
+   * The maximum Time between sending the Request and receiving the Answer.
+   */
+  private final int firstByte;
+
+  /**
+   * The maximum Time between two successful Reads of the Answer.
+   */
+  private final int idle;
+
+  /**
+   * The maximum Time of the whole Request.
+   */
+  private final int total;
+
+  /**
+   * Creates new Deadlines with the given values.
+
+   * @param connect The maximum Time to establish the Connection.
+   * @param firstByte The maximum Time until the Answer arrives.
+   * @param idle  The maximum Time between two successful Reads.
+   * @param total The maximum Time of the whole Request.
+   * @since 1.0
+   */
+  public Deadlines(int connect, int firstByte, int idle, int total) {
+    this.connect = connect;
+    this.firstByte = firstByte;
+    this.idle = idle;
+    this.total = total;
+  }
+
+  /**
+   * Returns the maximum Time to establish the Connection.
+
+   * @return  The Deadline in milliseconds or 0, if it isn't limited.
+   * @since 1.0
+   */
+  public int getConnect() {
+    return connect;
+  }
+
+  /**
+   * Returns the maximum Time between sending the Request and receiving the Answer.
+
+   * @return  The Deadline in milliseconds or 0, if it isn't limited.
+   * @since 1.0
+   */
+  public int getFirstByte() {
+    return firstByte;
+  }
+
+  /**
+   * Returns the maximum Time between two successful Reads of the Answer.
+
+   * @return  The Deadline in milliseconds or 0, if it isn't limited.
+   * @since 1.0
+   */
+  public int getIdle() {
+    return idle;
+  }
+
+  /**
+   * Returns the maximum Time of the whole Request.
+
+   * @return  The Deadline in milliseconds or 0, if it isn't limited.
+   * @since 1.0
+   */
+  public int getTotal() {
+    return total;
+  }
+}
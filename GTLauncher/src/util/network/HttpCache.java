@@ -0,0 +1,443 @@
+package util.network;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import loggingtool.LoggingTool;
+
+/**
+ * A Cache on the Disc for small Files, that are requested at every Start of the Launcher, like the
+ * List of Applications and their Version Files. Each Answer is stored together with its
+ * {@code ETag} and {@code Last-Modified} Header. The next Request for the same URL sends these
+ * Validators and the Server answers with {@code 304 Not Modified} and no Body, if the File didn't
+ * change. In this case, the stored Body is returned instead.
+ * <br>All Requests ask for a gzip-compressed Answer. The Bodies are stored uncompressed, so a
+ * stored Body can be read like the Answer of the Server.
+ * <br>The Cache is disabled, until its Folder was set by {@link #setDirectory(File)}.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class HttpCache {
+
+  /**
+   * The Folder, the Cache stores its Files in, or {@code null}, if the Cache is disabled.
+   */
+  private static volatile File directory;
+
+  /**
+   * The maximum amount of bytes, that are still read, when a Body is closed before its end, so
+   * the Body can be stored anyway.
+   */
+  private static final int MAX_DRAIN = 64 * 1024;
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private HttpCache() {
+  }
+
+  /**
+   * Sets the Folder of the Cache. The Folder is created, when the first Answer is stored.
+
+   * @param dir The Folder of the Cache ("some/dir/app/.cache/http/") or {@code null} to disable
+   *      the Cache.
+   * @since 1.0
+   */
+  public static void setDirectory(File dir) {
+    directory = dir;
+  }
+
+  /**
+   * Requests the given URL and returns the Body of the Answer. If the Cache holds a Body for the
+   * URL, the Request is conditional and the stored Body is returned, if the Server reports, that
+   * it wasn't modified. Otherwise, the new Body is stored, while it's read from the returned
+   * Stream. If the Stream is closed before its end, a short rest of the Body is still read, so
+   * the Body can be stored. A longer Body, that wasn't read completely, isn't stored.
+
+   * @param url The URL to be requested.
+   * @param deadlines The Deadlines of the Request.
+   * @param cancelled The Supplier, that determines, if the Request was cancelled.
+   * @return  The Body of the Answer. Closing it closes the Request.
+   * @throws IOException  If the Request failed or the Server answered with an Error.
+   * @see HttpService#open(String, Deadlines, BooleanSupplier)
+   * @since 1.0
+   */
+  public static InputStream open(String url, Deadlines deadlines, BooleanSupplier cancelled)
+      throws IOException {
+    File dir = directory;
+    Entry entry = dir == null ? null : Entry.read(dir, url);
+    HttpService.Exchange exchange = HttpService.open(url, deadlines, cancelled);
+    try {
+      HttpURLConnection con = exchange.getConnection();
+      con.setRequestProperty("Accept-Encoding", "gzip");
+      if (entry != null) {
+        if (entry.etag != null) {
+          con.setRequestProperty("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+          con.setRequestProperty("If-Modified-Since", entry.lastModified);
+        }
+      }
+      if (exchange.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+        exchange.close();
+        LoggingTool.log(HttpCache.class, LoggingTool.getLineNumber(), url
+            + " wasn't modified, using the cached Copy.");
+        return new FileInputStream(entry.body);
+      }
+      InputStream in = exchange.getInputStream();
+      if ("gzip".equalsIgnoreCase(con.getContentEncoding())) {
+        in = new GZIPInputStream(in);
+      }
+      String etag = con.getHeaderField("ETag");
+      String lastModified = con.getHeaderField("Last-Modified");
+      String cacheControl = con.getHeaderField("Cache-Control");
+      if (dir == null || (etag == null && lastModified == null)
+          || (cacheControl != null && cacheControl.toLowerCase().contains("no-store"))) {
+        return in;
+      }
+      return new StoringInputStream(in, new Entry(dir, url, etag, lastModified));
+    } catch (IOException | RuntimeException e) {
+      exchange.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the Name, the Files of the given URL are stored with. The Name is the SHA-1 Hash of
+   * the URL, so it's valid on every File System. Other Caches use the same Names.
+
+   * @param url The URL of the Files.
+   * @return  The Name of the Files without Extension.
+   * @since 1.0
+   */
+  public static String nameOf(String url) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-1").digest(
+          url.getBytes(StandardCharsets.UTF_8));
+      StringBuilder sb = new StringBuilder();
+      for (byte b : hash) {
+        sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      return Integer.toHexString(url.hashCode());
+    }
+  }
+
+  /**
+   * Moves the given temporary File to its Target, replacing the Target, if it exists. The File is
+   * moved atomically, if the File System supports it, so the Target is never incomplete.
+
+   * @param tmp The temporary File.
+   * @param target  The Target of the File.
+   * @throws IOException  If the File couldn't be moved.
+   * @since 1.0
+   */
+  private static void replace(File tmp, File target) throws IOException {
+    try {
+      Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * A single URL in the Cache. The Body is stored in a File of its own, the URL and its
+   * Validators are stored in a Properties-File next to it.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  private static final class Entry {
+
+    /**
+     * The Folder of the Cache.
+     */
+    private final File dir;
+
+    /**
+     * The URL of this Entry.
+     */
+    private final String url;
+
+    /**
+     * The {@code ETag} of the stored Body or {@code null}, if the Server didn't send one.
+     */
+    private final String etag;
+
+    /**
+     * The {@code Last-Modified} Date of the stored Body or {@code null}, if the Server didn't
+     * send one.
+     */
+    private final String lastModified;
+
+    /**
+     * The File of the stored Body.
+     */
+    private final File body;
+
+    /**
+     * The File of the URL and Validators.
+     */
+    private final File meta;
+
+    /**
+     * Creates a new Entry with the given values.
+
+     * @param dir The Folder of the Cache.
+     * @param url The URL of the Entry.
+     * @param etag  The {@code ETag} of the Body, may be {@code null}.
+     * @param lastModified  The {@code Last-Modified} Date of the Body, may be {@code null}.
+     * @since 1.0
+     */
+    private Entry(File dir, String url, String etag, String lastModified) {
+      this.dir = dir;
+      this.url = url;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      String name = nameOf(url);
+      this.body = new File(dir, name + ".body");
+      this.meta = new File(dir, name + ".meta");
+    }
+
+    /**
+     * Reads the Entry of the given URL from the Cache.
+
+     * @param dir The Folder of the Cache.
+     * @param url The URL of the Entry.
+     * @return  The Entry or {@code null}, if the Cache doesn't hold a usable Body for the URL.
+     * @since 1.0
+     */
+    private static Entry read(File dir, String url) {
+      Entry empty = new Entry(dir, url, null, null);
+      if (!empty.meta.isFile() || !empty.body.isFile()) {
+        return null;
+      }
+      Properties props = new Properties();
+      try (InputStream in = new FileInputStream(empty.meta)) {
+        props.load(in);
+      } catch (IOException e) {
+        LoggingTool.logError(HttpCache.class, LoggingTool.getLineNumber(),
+            "Couldn't read the cached Validators of " + url + ": " + e.getMessage());
+        return null;
+      }
+      if (!url.equals(props.getProperty("url"))) {
+        return null;
+      }
+      String etag = props.getProperty("etag");
+      String lastModified = props.getProperty("lastModified");
+      if (etag == null && lastModified == null) {
+        return null;
+      }
+      return new Entry(dir, url, etag, lastModified);
+    }
+
+    /**
+     * Stores this Entry. The given File becomes the new Body, the Validators are written
+     * afterwards.
+
+     * @param tmp The temporary File, that contains the complete Body.
+     * @throws IOException  If the Entry couldn't be stored.
+     * @since 1.0
+     */
+    private void store(File tmp) throws IOException {
+      replace(tmp, body);
+      Properties props = new Properties();
+      props.setProperty("url", url);
+      if (etag != null) {
+        props.setProperty("etag", etag);
+      }
+      if (lastModified != null) {
+        props.setProperty("lastModified", lastModified);
+      }
+      File tmpMeta = File.createTempFile(meta.getName(), ".tmp", dir);
+      try (OutputStream out = new FileOutputStream(tmpMeta)) {
+        props.store(out, null);
+      }
+      replace(tmpMeta, meta);
+    }
+  }
+
+  /**
+   * The Body of an Answer, that is copied into a temporary File, while it's read. The File is
+   * stored in the Cache, when the Stream was read to its end and closed. If anything fails while
+   * writing the File, the Body is still read from the Server, but isn't stored.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  private static final class StoringInputStream extends FilterInputStream {
+
+    /**
+     * The Entry, the Body belongs to.
+     */
+    private final Entry entry;
+
+    /**
+     * The temporary File of the Body or {@code null}, if it couldn't be written.
+     */
+    private File tmp;
+
+    /**
+     * The Stream to the temporary File or {@code null}, if it couldn't be written.
+     */
+    private OutputStream out;
+
+    /**
+     * Determines, if the Body was read to its end.
+     */
+    private boolean complete;
+
+    /**
+     * Creates a new StoringInputStream, that copies the given Body into a temporary File.
+
+     * @param in  The Body of the Answer.
+     * @param entry The Entry, the Body belongs to.
+     * @since 1.0
+     */
+    private StoringInputStream(InputStream in, Entry entry) {
+      super(in);
+      this.entry = entry;
+      try {
+        if (!entry.dir.isDirectory() && !entry.dir.mkdirs()) {
+          throw new IOException("Couldn't create " + entry.dir);
+        }
+        tmp = File.createTempFile(entry.body.getName(), ".tmp", entry.dir);
+        out = new FileOutputStream(tmp);
+      } catch (IOException e) {
+        discard(e);
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b < 0) {
+        complete = true;
+      } else if (out != null) {
+        try {
+          out.write(b);
+        } catch (IOException e) {
+          discard(e);
+        }
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n < 0) {
+        complete = true;
+      } else if (out != null) {
+        try {
+          out.write(b, off, n);
+        } catch (IOException e) {
+          discard(e);
+        }
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+      int read = read(buffer, 0, buffer.length);
+      return Math.max(read, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      drain();
+      try {
+        super.close();
+      } finally {
+        if (out != null) {
+          try {
+            out.close();
+            if (complete) {
+              entry.store(tmp);
+              tmp = null;
+            }
+          } catch (IOException e) {
+            LoggingTool.logError(HttpCache.class, LoggingTool.getLineNumber(),
+                "Couldn't store " + entry.url + " in the Cache: " + e.getMessage());
+          }
+          out = null;
+        }
+        if (tmp != null) {
+          tmp.delete();
+          tmp = null;
+        }
+      }
+    }
+
+    /**
+     * Reads the rest of the Body, if it's shorter than {@link #MAX_DRAIN}, so the Body is
+     * complete and can be stored. Any Error only means, that the Body isn't stored.
+
+     * @since 1.0
+     */
+    private void drain() {
+      if (complete || out == null) {
+        return;
+      }
+      byte[] buffer = new byte[8192];
+      try {
+        int drained = 0;
+        int n;
+        while (drained < MAX_DRAIN && (n = read(buffer, 0, buffer.length)) >= 0) {
+          drained += n;
+        }
+      } catch (IOException e) {
+        //Nothing to do here, the Body just isn't stored.
+      }
+    }
+
+    /**
+     * Stops copying the Body, since the temporary File couldn't be written.
+
+     * @param e The Error, that occurred.
+     * @since 1.0
+     */
+    private void discard(IOException e) {
+      LoggingTool.logError(HttpCache.class, LoggingTool.getLineNumber(),
+          "Couldn't write " + entry.url + " into the Cache: " + e.getMessage());
+      if (out != null) {
+        try {
+          out.close();
+        } catch (IOException ex) {
+          //Nothing to do here, the File is deleted anyway.
+        }
+        out = null;
+      }
+      if (tmp != null) {
+        tmp.delete();
+        tmp = null;
+      }
+    }
+  }
+}
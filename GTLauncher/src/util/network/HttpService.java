@@ -0,0 +1,626 @@
+package util.network;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.GeneralSecurityException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import launcher.GastroToolsLauncher;
+import loggingtool.LoggingTool;
+import util.LauncherExecutors;
+
+/**
+ * The single Point, where the Launcher opens HTTP-Connections. All Requests share the same TLS
+ * Context, so the Sessions negotiated with a Server are resumed by later Connections instead of
+ * doing a full Handshake each time. Connections, whose Answer was read completely, are kept alive
+ * and reused for the next Request to the same Server.
+ * <br>The amount of Requests, that run at the same time, is limited per Server to
+ * {@link #MAX_PER_HOST}. Further Requests wait, until one of the running Requests was closed.
+ * <br>Every Request has {@link Deadlines} for each of its Phases. A Watchdog checks all running
+ * Requests regularly and aborts those, that exceeded a Deadline or were cancelled, by closing
+ * their Socket. This also ends a Read, that is blocked on a Connection, that stopped sending.
+ * Java offers no way to close the Socket of a Connection, so the Sockets are created by a
+ * {@link WatchedSocketFactory}, that hands each one to the Request, it was created for.
+ * <br>HTTP/2 isn't supported by the Connections of Java 8, so every running Request needs a
+ * Connection of its own.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class HttpService {
+
+  /**
+   * The maximum amount of Requests to the same Server, that run at the same time. This is also the
+   * amount of idle Connections, that are kept alive per Server.
+   */
+  public static final int MAX_PER_HOST = 6;
+
+  /**
+   * The User-Agent, the Launcher identifies itself with.
+   */
+  private static final String USER_AGENT = "GastroToolsLauncher/"
+      + GastroToolsLauncher.version;
+
+  /**
+   * The Time in milliseconds, a TLS Session can be resumed after it was negotiated.
+   */
+  private static final int SESSION_TIMEOUT = 30 * 60 * 1000;
+
+  /**
+   * The Time in milliseconds between two checks of the Watchdog.
+   */
+  private static final long WATCHDOG_INTERVAL = 200;
+
+  /**
+   * The Factory, that creates the TLS Sockets of all Connections.
+   */
+  private static final SSLSocketFactory sslFactory;
+
+  /**
+   * The Permits of each Server, that limit the amount of Requests running at the same time.
+   */
+  private static final ConcurrentHashMap<String, Semaphore> hosts =
+      new ConcurrentHashMap<String, Semaphore>();
+
+  /**
+   * All Requests, that are currently running and watched by the Watchdog.
+   */
+  private static final Set<Exchange> running = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The Request, that is currently connecting on this Thread. Sockets created by the
+   * {@link WatchedSocketFactory} belong to this Request.
+   */
+  private static final ThreadLocal<Exchange> connecting = new ThreadLocal<Exchange>();
+
+  static {
+    /*
+     * Keep-Alive is configured before the first Connection is opened, since Java reads these
+     * Properties only once. Values set by the User on the command line are kept.
+     */
+    if (System.getProperty("http.keepAlive") == null) {
+      System.setProperty("http.keepAlive", "true");
+    }
+    if (System.getProperty("http.maxConnections") == null) {
+      System.setProperty("http.maxConnections", String.valueOf(MAX_PER_HOST));
+    }
+    SSLSocketFactory factory;
+    try {
+      SSLContext context = SSLContext.getInstance("TLS");
+      context.init(null, null, null);
+      context.getClientSessionContext().setSessionTimeout(SESSION_TIMEOUT / 1000);
+      factory = context.getSocketFactory();
+    } catch (GeneralSecurityException e) {
+      LoggingTool.logError(HttpService.class, LoggingTool.getLineNumber(),
+          "Couldn't create the TLS Context, using the default: " + e.getMessage());
+      factory = HttpsURLConnection.getDefaultSSLSocketFactory();
+    }
+    sslFactory = new WatchedSocketFactory(factory);
+    LauncherExecutors.scheduler().scheduleWithFixedDelay(HttpService::watch, WATCHDOG_INTERVAL,
+        WATCHDOG_INTERVAL, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Private Constructor, since this Class only offers static Methods.
+
+   * @since 1.0
+   */
+  private HttpService() {
+  }
+
+  /**
+   * Opens a new GET-Request to the given URL with the {@link Deadlines#METADATA}, that can't be
+   * cancelled.
+
+   * @param url The URL to be requested.
+   * @return  The Exchange, that holds the Connection.
+   * @throws IOException  If the URL is malformed, the Connection couldn't be opened or the
+   *      Thread was interrupted while waiting.
+   * @see #open(String, Deadlines, BooleanSupplier)
+   * @since 1.0
+   */
+  public static Exchange open(String url) throws IOException {
+    return open(url, Deadlines.METADATA, () -> false);
+  }
+
+  /**
+   * Opens a new GET-Request to the given URL. The Request isn't sent, until the Answer is read
+   * from the returned Exchange, so Headers can still be added to its Connection.
+   * <br>If {@link #MAX_PER_HOST} Requests to the Server are already running, this Method waits,
+   * until one of them is closed. The returned Exchange has to be closed as well.
+
+   * @param url The URL to be requested.
+   * @param deadlines The Deadlines of the Request.
+   * @param cancelled The Supplier, that determines, if the Request was cancelled. It's checked
+   *      while waiting and by the Watchdog.
+   * @return  The Exchange, that holds the Connection.
+   * @throws IOException  If the URL is malformed, the Connection couldn't be opened or the
+   *      Request was cancelled or interrupted while waiting.
+   * @since 1.0
+   */
+  public static Exchange open(String url, Deadlines deadlines, BooleanSupplier cancelled)
+      throws IOException {
+    URL target = new URL(url);
+    Semaphore permits = hosts.computeIfAbsent(target.getHost().toLowerCase(),
+        host -> new Semaphore(MAX_PER_HOST, true));
+    try {
+      while (!permits.tryAcquire(WATCHDOG_INTERVAL, TimeUnit.MILLISECONDS)) {
+        if (cancelled.getAsBoolean()) {
+          throw new InterruptedIOException("Request to " + url + " was cancelled");
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for " + target.getHost());
+    }
+    try {
+      URLConnection connection = target.openConnection();
+      if (!(connection instanceof HttpURLConnection)) {
+        throw new IOException("Not a HTTP-URL: " + url);
+      }
+      if (connection instanceof HttpsURLConnection) {
+        ((HttpsURLConnection) connection).setSSLSocketFactory(sslFactory);
+      }
+      connection.setRequestProperty("User-Agent", USER_AGENT);
+      /*
+       * The Timeouts of the Connection cover the same Phases as the Watchdog, but react at once.
+       */
+      connection.setConnectTimeout(deadlines.getConnect());
+      connection.setReadTimeout(Math.max(deadlines.getFirstByte(), deadlines.getIdle()));
+      Exchange exchange = new Exchange((HttpURLConnection) connection, permits, deadlines,
+          cancelled);
+      running.add(exchange);
+      return exchange;
+    } catch (IOException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Checks all running Requests and aborts those, that exceeded one of their Deadlines or were
+   * cancelled. Called regularly by the Scheduler of the Launcher.
+
+   * @since 1.0
+   */
+  private static void watch() {
+    long now = System.currentTimeMillis();
+    for (Exchange exchange : running) {
+      try {
+        exchange.check(now);
+      } catch (RuntimeException e) {
+        LoggingTool.logError(HttpService.class, LoggingTool.getLineNumber(),
+            "Couldn't check a Request: " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * A single Request, that was opened by the {@link HttpService}. Closing it returns the
+   * Connection to the Pool of idle Connections and allows the next Request to the same Server to
+   * start.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  public static final class Exchange implements AutoCloseable {
+
+    /**
+     * The Connection of this Request.
+     */
+    private final HttpURLConnection connection;
+
+    /**
+     * The Permits of the Server, this Request holds one of.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Determines, if the Request was sent and its Answer has to be closed.
+     */
+    private boolean sent;
+
+    /**
+     * Determines, if this Exchange was closed.
+     */
+    private boolean closed;
+
+    /**
+     * The Deadlines of this Request.
+     */
+    private final Deadlines deadlines;
+
+    /**
+     * The Supplier, that determines, if this Request was cancelled.
+     */
+    private final BooleanSupplier cancelled;
+
+    /**
+     * The time, this Request was opened, in milliseconds.
+     */
+    private final long started;
+
+    /**
+     * The time of the last successful Read in milliseconds or 0, if the Answer didn't arrive yet.
+     */
+    private volatile long lastActivity;
+
+    /**
+     * The reason, why this Request was aborted, or {@code null}, if it wasn't aborted.
+     */
+    private volatile String aborted;
+
+    /**
+     * The Socket, that was created for this Request, or {@code null}, if it reuses an idle
+     * Connection or didn't connect yet.
+     */
+    private volatile Socket socket;
+
+    /**
+     * Creates a new Exchange for the given Connection.
+
+     * @param connection  The opened Connection.
+     * @param permits The Permits of the Server, that one was taken from.
+     * @param deadlines The Deadlines of the Request.
+     * @param cancelled The Supplier, that determines, if the Request was cancelled.
+     * @since 1.0
+     */
+    private Exchange(HttpURLConnection connection, Semaphore permits, Deadlines deadlines,
+        BooleanSupplier cancelled) {
+      this.connection = connection;
+      this.permits = permits;
+      this.deadlines = deadlines;
+      this.cancelled = cancelled;
+      this.started = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the Connection of this Request. It can be used to add Headers before the Request
+     * is sent and to read the Headers of the Answer. The Answer itself should be read by
+     * {@link #getResponseCode()} and {@link #getInputStream()}, so this Exchange knows, that it
+     * has to be closed.
+
+     * @return  The Connection.
+     * @since 1.0
+     */
+    public HttpURLConnection getConnection() {
+      return connection;
+    }
+
+    /**
+     * Sends the Request, if this didn't happen yet, and returns the Status Code of the Answer.
+
+     * @return  The HTTP Status Code.
+     * @throws IOException  If the Request couldn't be sent.
+     * @since 1.0
+     */
+    public synchronized int getResponseCode() throws IOException {
+      sent = true;
+      connecting.set(this);
+      try {
+        int code = connection.getResponseCode();
+        touch();
+        return code;
+      } catch (IOException e) {
+        throw failure(e);
+      } finally {
+        connecting.remove();
+      }
+    }
+
+    /**
+     * Sends the Request, if this didn't happen yet, and returns the Body of the Answer. Closing
+     * the Stream closes this Exchange.
+
+     * @return  The Body of the Answer.
+     * @throws IOException  If the Request couldn't be sent or the Server answered with an Error.
+     * @since 1.0
+     */
+    public synchronized InputStream getInputStream() throws IOException {
+      sent = true;
+      InputStream in;
+      connecting.set(this);
+      try {
+        in = connection.getInputStream();
+      } catch (IOException e) {
+        throw failure(e);
+      } finally {
+        connecting.remove();
+      }
+      touch();
+      return new FilterInputStream(in) {
+        @Override
+        public int read() throws IOException {
+          try {
+            ensureRunning();
+            int b = super.read();
+            ensureRunning();
+            touch();
+            return b;
+          } catch (IOException e) {
+            throw failure(e);
+          }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          try {
+            ensureRunning();
+            int n = super.read(b, off, len);
+            ensureRunning();
+            touch();
+            return n;
+          } catch (IOException e) {
+            throw failure(e);
+          }
+        }
+
+        @Override
+        public void close() {
+          Exchange.this.close();
+        }
+      };
+    }
+
+    /**
+     * Aborts this Request by closing its Socket. A Thread, that is blocked while reading the
+     * Answer, receives an Exception at once.
+     * <br>A Request, that reuses an idle Connection, has no Socket of its own. Its Connection is
+     * closed in the Background instead, since this waits for a blocked Read to end. Until then,
+     * the Read is ended by the Timeout of the Connection at the latest.
+
+     * @param reason  The reason, why the Request is aborted.
+     * @since 1.0
+     */
+    public void abort(String reason) {
+      if (aborted != null) {
+        return;
+      }
+      aborted = reason;
+      LoggingTool.log(getClass(), LoggingTool.getLineNumber(), "Aborting Request to "
+          + connection.getURL() + ": " + reason);
+      Socket s = socket;
+      if (s != null) {
+        closeQuietly(s);
+      } else {
+        CompletableFuture.runAsync(connection::disconnect);
+      }
+    }
+
+    /**
+     * Sets the Socket, that was created for this Request. If the Request was aborted in the
+     * meantime, the Socket is closed at once.
+
+     * @param s The new Socket of this Request.
+     * @since 1.0
+     */
+    private void attach(Socket s) {
+      socket = s;
+      if (aborted != null) {
+        closeQuietly(s);
+      }
+    }
+
+    /**
+     * Throws an Exception, if this Request was aborted. This is checked before and after each
+     * Read, since a Read on a closed Socket may also end as if the Answer was complete.
+
+     * @throws IOException  If this Request was aborted.
+     * @since 1.0
+     */
+    private void ensureRunning() throws IOException {
+      if (aborted != null) {
+        throw new IOException("Request was aborted");
+      }
+    }
+
+    /**
+     * Checks, if this Request was cancelled or exceeded one of its Deadlines. In this case, the
+     * Request is aborted.
+
+     * @param now The current time in milliseconds.
+     * @since 1.0
+     */
+    private void check(long now) {
+      if (aborted != null) {
+        return;
+      }
+      long last = lastActivity;
+      if (cancelled.getAsBoolean()) {
+        abort("cancelled");
+      } else if (deadlines.getTotal() > 0 && now - started > deadlines.getTotal()) {
+        abort("total Deadline of " + deadlines.getTotal() + "ms exceeded");
+      } else if (last == 0 && deadlines.getConnect() + deadlines.getFirstByte() > 0
+          && now - started > deadlines.getConnect() + deadlines.getFirstByte()) {
+        abort("no Answer after " + (now - started) + "ms");
+      } else if (last != 0 && deadlines.getIdle() > 0 && now - last > deadlines.getIdle()) {
+        abort("no Data for " + (now - last) + "ms");
+      }
+    }
+
+    /**
+     * Records, that Data was received right now.
+
+     * @since 1.0
+     */
+    private void touch() {
+      lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the Exception to be thrown for the given Error. If this Request was aborted, the
+     * Error was caused by closing the Connection and is replaced by an Exception, that states the
+     * reason.
+
+     * @param e The Error, that occurred.
+     * @return  The Exception to be thrown.
+     * @since 1.0
+     */
+    private IOException failure(IOException e) {
+      String reason = aborted;
+      if (reason == null) {
+        return e;
+      }
+      InterruptedIOException abort = reason.equals("cancelled")
+          ? new InterruptedIOException("Request was cancelled")
+          : new SocketTimeoutException("Request timed out: " + reason);
+      abort.initCause(e);
+      return abort;
+    }
+
+    /**
+     * Closes this Request. The rest of a short Answer is skipped, so the Connection can be reused,
+     * while the Connection of a long Answer is closed. Closing an Exchange more than once has no
+     * effect.
+
+     * @since 1.0
+     */
+    @Override
+    public synchronized void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        if (sent && aborted == null) {
+          closeQuietly(connection.getInputStream());
+        }
+      } catch (IOException e) {
+        closeQuietly(connection.getErrorStream());
+      } finally {
+        running.remove(this);
+        permits.release();
+      }
+    }
+
+    /**
+     * Closes the given Stream and ignores any Error, since the Connection is discarded in this
+     * case anyway.
+
+     * @param stream  The Stream to be closed, may be {@code null}.
+     * @since 1.0
+     */
+    private static void closeQuietly(InputStream stream) {
+      if (stream != null) {
+        try {
+          stream.close();
+        } catch (IOException e) {
+          //Nothing to do here, the Connection won't be reused.
+        }
+      }
+    }
+
+    /**
+     * Closes the given Socket and ignores any Error, since the Request is aborted anyway.
+
+     * @param s The Socket to be closed.
+     * @since 1.0
+     */
+    private static void closeQuietly(Socket s) {
+      try {
+        s.close();
+      } catch (IOException e) {
+        //Nothing to do here, the Request is aborted anyway.
+      }
+    }
+  }
+
+  /**
+   * The Factory of all TLS Sockets. It creates the Sockets like the given Factory, but hands each
+   * one to the Request, that is connecting on the current Thread, so the Watchdog can close it.
+   * A Redirect creates a new Socket, that replaces the former one.
+
+   * @author Haeldeus
+   * @version {@value launcher.GastroToolsLauncher#version}
+   */
+  private static final class WatchedSocketFactory extends SSLSocketFactory {
+
+    /**
+     * The Factory, that actually creates the Sockets.
+     */
+    private final SSLSocketFactory factory;
+
+    /**
+     * Creates a new WatchedSocketFactory, that uses the given Factory.
+
+     * @param factory The Factory, that actually creates the Sockets.
+     * @since 1.0
+     */
+    private WatchedSocketFactory(SSLSocketFactory factory) {
+      this.factory = factory;
+    }
+
+    /**
+     * Hands the given Socket to the Request, that is connecting on the current Thread.
+
+     * @param s The created Socket.
+     * @return  The given Socket.
+     * @since 1.0
+     */
+    private static Socket watch(Socket s) {
+      Exchange exchange = connecting.get();
+      if (exchange != null) {
+        exchange.attach(s);
+      }
+      return s;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+      return factory.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+      return factory.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+      return watch(factory.createSocket());
+    }
+
+    @Override
+    public Socket createSocket(Socket s, String host, int port, boolean autoClose)
+        throws IOException {
+      return watch(factory.createSocket(s, host, port, autoClose));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+      return watch(factory.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+        throws IOException {
+      return watch(factory.createSocket(host, port, localHost, localPort));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+      return watch(factory.createSocket(host, port));
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+        int localPort) throws IOException {
+      return watch(factory.createSocket(address, port, localAddress, localPort));
+    }
+  }
+}
@@ -0,0 +1,414 @@
+package util.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+import loggingtool.LoggingTool;
+
+/**
+ * Reads the Block of a Manifest File, like the List of Applications or a Version File, from a
+ * Stream. The Block starts after the Line, that contains {@code "#Begin <Name>"}, and ends with
+ * the Line, that contains {@code "#End <Name>"}. Each Line in the Block is returned trimmed,
+ * empty Lines are skipped. If more than one Block is given, the first Block found in the Stream
+ * is read, so a newer Block can be published in front of an older one.
+ * <br>The Stream is read in a single Pass. If the first Character of the Stream is a {@code '<'},
+ * the Stream is a HTML Page of the File and all Tags are removed from the Text while reading, so
+ * both the raw File and its Page can be read. Reading stops at the End of the Block, the rest of
+ * the Stream is never read. The Length of each Line is limited to {@link #MAX_LINE}, so a Page
+ * with very long Lines can't exhaust the Memory.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+public final class ManifestTokenizer implements Closeable {
+
+  /**
+   * The maximum amount of Characters of a single Line. Further Characters are dropped.
+   */
+  public static final int MAX_LINE = 4096;
+
+  /**
+   * The URL of the raw Files of all Repositories.
+   */
+  private static final String RAW_URL = "https://raw.githubusercontent.com/Haeldeus/";
+
+  /**
+   * The URL of the Pages of all Repositories.
+   */
+  private static final String PAGE_URL = "https://github.com/Haeldeus/";
+
+  /**
+   * The maximum Length of an Entity like {@code "&amp;"}, that will be decoded.
+   */
+  private static final int MAX_ENTITY = 10;
+
+  /**
+   * The Reader of the Stream.
+   */
+  private final Reader in;
+
+  /**
+   * The Names of the Blocks, that can be read.
+   */
+  private final String[] blocks;
+
+  /**
+   * The Name of the Block, that is read, or {@code null}, if no Block was found yet.
+   */
+  private String block;
+
+  /**
+   * The Marker, that ends the Block, or {@code null}, if no Block was found yet.
+   */
+  private String end;
+
+  /**
+   * The Buffer of Characters read from {@link #in}.
+   */
+  private final char[] buffer = new char[8192];
+
+  /**
+   * The Position of the next Character in {@link #buffer}.
+   */
+  private int position;
+
+  /**
+   * The amount of Characters in {@link #buffer}.
+   */
+  private int limit;
+
+  /**
+   * The Text of the current Line.
+   */
+  private final StringBuilder line = new StringBuilder();
+
+  /**
+   * The Entity, that is currently read, or {@code null}, if no Entity is read.
+   */
+  private StringBuilder entity;
+
+  /**
+   * Determines, if the first Character was read and {@link #markup} is set.
+   */
+  private boolean detected;
+
+  /**
+   * Determines, if the Stream is a HTML Page, whose Tags have to be removed.
+   */
+  private boolean markup;
+
+  /**
+   * Determines, if the current Character is inside of a Tag.
+   */
+  private boolean inTag;
+
+  /**
+   * Determines, if the Start of the Block was found.
+   */
+  private boolean begun;
+
+  /**
+   * Determines, if the End of the Block was found.
+   */
+  private boolean complete;
+
+  /**
+   * Creates a new ManifestTokenizer, that reads the first of the given Blocks from the given
+   * Reader.
+
+   * @param in  The Reader of the Manifest.
+   * @param blocks  The Names of the Blocks, e.g. {@code "List File"}.
+   * @since 1.0
+   */
+  public ManifestTokenizer(Reader in, String... blocks) {
+    this.in = in;
+    this.blocks = blocks.clone();
+  }
+
+  /**
+   * Creates a new ManifestTokenizer, that reads the first of the given Blocks from the given
+   * UTF-8 encoded Stream.
+
+   * @param in  The Stream of the Manifest.
+   * @param blocks  The Names of the Blocks, e.g. {@code "List File"}.
+   * @since 1.0
+   */
+  public ManifestTokenizer(InputStream in, String... blocks) {
+    this(new InputStreamReader(in, StandardCharsets.UTF_8), blocks);
+  }
+
+  /**
+   * Requests the given File of the given Repository and returns a ManifestTokenizer, that reads
+   * the first of the given Blocks from it. The raw File is requested first. If it can't be
+   * requested, the Page of the File is requested instead. A cancelled or timed out Request isn't
+   * repeated.
+   * <br>Both Requests are made through the {@link HttpCache}.
+
+   * @param repo  The Name of the Repository.
+   * @param file  The Name of the File in the Repository, e.g. {@code "List.txt"}.
+   * @param deadlines The Deadlines of the Request.
+   * @param cancelled The Supplier, that determines, if the Request was cancelled.
+   * @param blocks  The Names of the Blocks, e.g. {@code "List File"}.
+   * @return  The ManifestTokenizer, that has to be closed.
+   * @throws IOException  If neither the raw File nor its Page could be requested.
+   * @since 1.0
+   */
+  public static ManifestTokenizer fetch(String repo, String file, Deadlines deadlines,
+      BooleanSupplier cancelled, String... blocks) throws IOException {
+    String raw = RAW_URL + repo + "/master/" + file;
+    InputStream stream;
+    try {
+      stream = HttpCache.open(raw, deadlines, cancelled);
+    } catch (InterruptedIOException e) {
+      throw e;
+    } catch (IOException e) {
+      String page = PAGE_URL + repo + "/blob/master/" + file;
+      LoggingTool.log(ManifestTokenizer.class, LoggingTool.getLineNumber(), "Couldn't request "
+          + raw + " (" + e.getMessage() + "), requesting " + page + " instead.");
+      stream = HttpCache.open(page, deadlines, cancelled);
+    }
+    return new ManifestTokenizer(stream, blocks);
+  }
+
+  /**
+   * Skips all Lines before the Block.
+
+   * @return  {@code true}, if the Start of a Block was found, {@code false}, if the Stream
+   *      ended before.
+   * @throws IOException  If the Stream couldn't be read.
+   * @see #getBlock()
+   * @since 1.0
+   */
+  public boolean begin() throws IOException {
+    String text;
+    while (!begun && (text = readLine()) != null) {
+      for (String name : blocks) {
+        if (text.contains("#Begin " + name)) {
+          block = name;
+          end = "#End " + name;
+          begun = true;
+          break;
+        }
+      }
+    }
+    return begun;
+  }
+
+  /**
+   * Returns the Name of the Block, that is read.
+
+   * @return  The Name of the Block or {@code null}, if no Block was found yet.
+   * @since 1.0
+   */
+  public String getBlock() {
+    return block;
+  }
+
+  /**
+   * Returns the next Line of the Block. If the Start of the Block wasn't found yet, all Lines
+   * before are skipped.
+
+   * @return  The next trimmed and non-empty Line or {@code null}, if the Block or the Stream
+   *      ended.
+   * @throws IOException  If the Stream couldn't be read.
+   * @see #isComplete()
+   * @since 1.0
+   */
+  public String next() throws IOException {
+    if (!begin()) {
+      return null;
+    }
+    String text;
+    while (!complete && (text = readLine()) != null) {
+      if (text.contains(end)) {
+        complete = true;
+      } else if (!text.trim().isEmpty()) {
+        return text.trim();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Determines, if the End of the Block was found. If {@link #next()} returned {@code null}, but
+   * the Block isn't complete, the Stream ended before the End of the Block.
+
+   * @return  {@code true}, if the End of the Block was found.
+   * @since 1.0
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  /**
+   * Closes the Stream.
+
+   * @throws IOException  If the Stream couldn't be closed.
+   * @since 1.0
+   */
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /**
+   * Reads the Text of the next Line. Tags are removed and Entities are decoded, if the Stream is
+   * a HTML Page.
+
+   * @return  The Text of the next Line or {@code null}, if the Stream ended.
+   * @throws IOException  If the Stream couldn't be read.
+   * @since 1.0
+   */
+  private String readLine() throws IOException {
+    line.setLength(0);
+    boolean read = false;
+    while (true) {
+      if (position == limit) {
+        limit = in.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          flushEntity();
+          return read ? line.toString() : null;
+        }
+      }
+      char c = buffer[position++];
+      read = true;
+      if (!detected) {
+        if (Character.isWhitespace(c) || c == '\uFEFF') {
+          continue;
+        }
+        detected = true;
+        markup = c == '<';
+      }
+      if (c == '\n') {
+        flushEntity();
+        return line.toString();
+      } else if (c == '\r') {
+        continue;
+      } else if (!markup) {
+        append(c);
+      } else if (inTag) {
+        inTag = c != '>';
+      } else if (c == '<') {
+        flushEntity();
+        inTag = true;
+      } else if (entity != null) {
+        readEntity(c);
+      } else if (c == '&') {
+        entity = new StringBuilder();
+      } else {
+        append(c);
+      }
+    }
+  }
+
+  /**
+   * Adds the given Character to the current Line, unless the Line already reached its maximum
+   * Length.
+
+   * @param c The Character to be added.
+   * @since 1.0
+   */
+  private void append(char c) {
+    if (line.length() < MAX_LINE) {
+      line.append(c);
+    }
+  }
+
+  /**
+   * Adds the given Character to the current Entity. The Entity is decoded, when it ends with a
+   * {@code ';'}. An Entity, that is too long, is added to the Line as it is.
+
+   * @param c The next Character of the Entity.
+   * @since 1.0
+   */
+  private void readEntity(char c) {
+    if (c == ';') {
+      String name = entity.toString();
+      entity = null;
+      String decoded = decode(name);
+      if (decoded == null) {
+        append('&');
+        appendAll(name);
+        append(';');
+      } else {
+        appendAll(decoded);
+      }
+    } else if (c == '&') {
+      flushEntity();
+      entity = new StringBuilder();
+    } else if (entity.length() >= MAX_ENTITY || Character.isWhitespace(c)) {
+      flushEntity();
+      append(c);
+    } else {
+      entity.append(c);
+    }
+  }
+
+  /**
+   * Adds an unfinished Entity to the Line as it is.
+
+   * @since 1.0
+   */
+  private void flushEntity() {
+    if (entity != null) {
+      append('&');
+      appendAll(entity);
+      entity = null;
+    }
+  }
+
+  /**
+   * Adds all Characters of the given Text to the current Line.
+
+   * @param text  The Text to be added.
+   * @since 1.0
+   */
+  private void appendAll(CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      append(text.charAt(i));
+    }
+  }
+
+  /**
+   * Decodes the given Entity.
+
+   * @param name  The Name of the Entity without {@code '&'} and {@code ';'}.
+   * @return  The decoded Text or {@code null}, if the Entity is unknown.
+   * @since 1.0
+   */
+  private static String decode(String name) {
+    switch (name) {
+      case "amp":
+        return "&";
+      case "lt":
+        return "<";
+      case "gt":
+        return ">";
+      case "quot":
+        return "\"";
+      case "apos":
+        return "'";
+      case "nbsp":
+        return " ";
+      default:
+        break;
+    }
+    if (name.length() < 2 || name.charAt(0) != '#') {
+      return null;
+    }
+    try {
+      int code = name.charAt(1) == 'x' || name.charAt(1) == 'X'
+          ? Integer.parseInt(name.substring(2), 16) : Integer.parseInt(name.substring(1));
+      return Character.isValidCodePoint(code) ? new String(Character.toChars(code)) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
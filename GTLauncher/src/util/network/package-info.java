@@ -0,0 +1,8 @@
+/**
+ * Classes, that handle the Connections of the Launcher to the Servers. All Requests of the
+ * Launcher are sent through this Package, so Connections can be shared between them.
+
+ * @author Haeldeus
+ * @version {@value launcher.GastroToolsLauncher#version}
+ */
+package util.network;